@@ -0,0 +1,66 @@
+package frc.robot.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.wpilibj.Timer;
+
+import frc.robot.commands.chassis.AutoBalance;
+import frc.robot.commands.chassis.BalanceChargeStation;
+import frc.robot.commands.vision.AutoAlignBottom;
+import frc.robot.commands.vision.AutoAlignTop;
+
+/**
+ * execute() of the balance and auto align commands, after initialize(), with the subsystems already updated for
+ * the loop (the scheduler always runs periodic() first). The simulated robot is facing the Limelight target, so
+ * the align commands have something to aim at.
+ */
+@State(Scope.Thread)
+public class CommandBenchmarks {
+    private SimRobot m_robot;
+    private AutoBalance m_autoBalance;
+    private BalanceChargeStation m_balanceChargeStation;
+    private AutoAlignTop m_autoAlignTop;
+    private AutoAlignBottom m_autoAlignBottom;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        m_robot = new SimRobot();
+        m_robot.warmUp(250);
+        m_robot.newVisionFrame(Timer.getFPGATimestamp());
+        m_robot.periodic();
+
+        m_autoBalance = new AutoBalance(m_robot.chassis, m_robot.nav, m_robot.nav::getInitialPitchOffset);
+        m_balanceChargeStation = new BalanceChargeStation(m_robot.chassis, m_robot.nav, m_robot.nav::getInitialPitchOffset);
+        m_autoAlignTop = new AutoAlignTop(m_robot.vision, m_robot.chassis, m_robot.led);
+        m_autoAlignBottom = new AutoAlignBottom(m_robot.vision, m_robot.chassis, m_robot.led);
+
+        m_autoBalance.initialize();
+        m_balanceChargeStation.initialize();
+        m_autoAlignTop.initialize();
+        m_autoAlignBottom.initialize();
+    }
+
+    @Benchmark
+    public void autoBalanceExecute(){
+        m_autoBalance.execute();
+    }
+
+    @Benchmark
+    public void balanceChargeStationExecute(){
+        m_balanceChargeStation.execute();
+    }
+
+    @Benchmark
+    public void autoAlignTopExecute(){
+        m_autoAlignTop.execute();
+    }
+
+    @Benchmark
+    public void autoAlignBottomExecute(){
+        m_autoAlignBottom.execute();
+    }
+}
@@ -0,0 +1,67 @@
+package frc.robot.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.wpilibj.AddressableLEDBuffer;
+
+import frc.robot.util.LEDFrameRing;
+import frc.robot.util.LEDPattern;
+import frc.robot.util.LEDPatterns;
+
+/**
+ * The LED patterns. render() is what it would cost to draw a frame every loop, advanceAndWrite() is what
+ * LEDSubsystem actually does each loop now that every frame is drawn up front.
+ */
+@State(Scope.Thread)
+public class LEDPatternBenchmarks {
+    //Same as LEDSubsystem
+    private static final int kLength = 125;
+
+    @Param({"rainbow", "turbo", "test", "solid"})
+    public String pattern;
+
+    private LEDPattern m_pattern;
+    private LEDFrameRing m_ring;
+    private final AddressableLEDBuffer m_buffer = new AddressableLEDBuffer(kLength);
+    private final int[] m_pixels = new int[kLength];
+    private int m_frame = 0;
+    //Stands in for the yaw the rainbow follows, so it changes frame every loop like it does while turning
+    private int m_hue = 0;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        switch(pattern){
+            case "rainbow":
+                m_pattern = LEDPatterns.rainbow(() -> m_hue += 3);
+                break;
+            case "turbo":
+                m_pattern = LEDPatterns.turbo();
+                break;
+            case "test":
+                m_pattern = LEDPatterns.test();
+                break;
+            default:
+                m_pattern = LEDPatterns.solid(0, 0, 180);
+                break;
+        }
+        m_ring = new LEDFrameRing(m_pattern, kLength);
+    }
+
+    @Benchmark
+    public int[] render(){
+        m_frame = (m_frame + 1) % m_pattern.getFrameCount();
+        m_pattern.render(m_frame, m_pixels);
+        return m_pixels;
+    }
+
+    @Benchmark
+    public AddressableLEDBuffer advanceAndWrite(){
+        m_ring.write(m_ring.advance(), m_buffer);
+        return m_buffer;
+    }
+}
@@ -0,0 +1,48 @@
+package frc.robot.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+
+import frc.robot.RobotContainer;
+import frc.robot.io.RobotIO;
+
+/**
+ * One CommandScheduler.run() for the whole robot, built by RobotContainer on the sim IOs and enabled in teleop,
+ * so every subsystem periodic(), every button binding and every default command (DefaultDrive,
+ * DefaultLimelightPipeline) runs, the same as robotPeriodic() does each loop.
+ */
+@State(Scope.Thread)
+public class SchedulerBenchmark {
+    private static final double kStartupTimeoutSeconds = 30;
+
+    private RobotIO m_io;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        SimRobot.initHAL();
+        m_io = RobotIO.sim();
+        RobotContainer container = new RobotContainer(m_io);
+
+        //Trajectory loading and the rest of startup happen on background threads
+        long timeout = System.nanoTime() + (long) (kStartupTimeoutSeconds * 1e9);
+        while(!container.isReady() && (System.nanoTime() < timeout)){
+            Thread.sleep(10);
+        }
+
+        //Schedule the default commands and let the sim settle
+        for(int i = 0; i < 50; i++){
+            CommandScheduler.getInstance().run();
+            m_io.simulation.update();
+        }
+    }
+
+    @Benchmark
+    public void schedulerRun(){
+        CommandScheduler.getInstance().run();
+    }
+}
@@ -0,0 +1,107 @@
+package frc.robot.benchmarks;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+
+import frc.robot.io.ChassisIOSim;
+import frc.robot.io.RobotIO;
+import frc.robot.io.VisionIOSim;
+import frc.robot.subsystems.ArmSubsystem;
+import frc.robot.subsystems.ChassisSubsystem;
+import frc.robot.subsystems.ClawSubsystem;
+import frc.robot.subsystems.LEDSubsystem;
+import frc.robot.subsystems.NavSubsystem;
+import frc.robot.subsystems.PoseEstimatorSubsystem;
+import frc.robot.subsystems.VisionSubsystem;
+
+//Constants
+import frc.robot.Constants.ArmConstants;
+
+/**
+ * Every subsystem built on the sim IOs, the same way RobotContainer wires them up, but without the dashboard
+ * choosers, startup threads, camera or match log. The benchmarks call the pieces they measure directly.
+ */
+final class SimRobot {
+    static final double kLoopSeconds = 0.02;
+
+    private static boolean s_halReady = false;
+
+    final RobotIO io = RobotIO.sim();
+    final ChassisSubsystem chassis;
+    final ArmSubsystem arm;
+    final ClawSubsystem claw;
+    final NavSubsystem nav;
+    final VisionSubsystem vision;
+    final PoseEstimatorSubsystem poseEstimator;
+    final LEDSubsystem led;
+
+    /**
+     * Starts the HAL with a paused clock and an enabled teleop driver station. Has to run before anything from
+     * WPILib gets made. Benchmarks only move the clock when they step it.
+     */
+    static synchronized void initHAL(){
+        if(s_halReady){
+            return;
+        }
+        if(!HAL.initialize(500, 0)){
+            throw new IllegalStateException("Failed to initialize the HAL");
+        }
+        SimHooks.pauseTiming();
+        DriverStationSim.setDsAttached(true);
+        DriverStationSim.setAutonomous(false);
+        DriverStationSim.setEnabled(true);
+        DriverStationSim.notifyNewData();
+        DriverStation.refreshData();
+        s_halReady = true;
+    }
+
+    SimRobot(){
+        initHAL();
+        chassis = new ChassisSubsystem(io.chassis);
+        arm = new ArmSubsystem(io.arm);
+        claw = new ClawSubsystem(io.claw);
+        nav = new NavSubsystem(io.nav, chassis::getAverageEncoderDistanceInches);
+        vision = new VisionSubsystem(io.vision, nav.getPoseHistory());
+        poseEstimator = new PoseEstimatorSubsystem(chassis, nav);
+        led = new LEDSubsystem(io.led, nav);
+    }
+
+    //Every periodic(), in the order the scheduler would run them
+    void periodic(){
+        chassis.periodic();
+        arm.periodic();
+        claw.periodic();
+        nav.periodic();
+        vision.periodic();
+        poseEstimator.periodic();
+        led.periodic();
+    }
+
+    //Steps the physics and the clock one loop, like Robot.simulationPeriodic() and TimedRobot do
+    void stepSimulation(){
+        io.simulation.update();
+        SimHooks.stepTiming(kLoopSeconds);
+    }
+
+    /**
+     * Drives a slow arc for a while so every sensor has real (non-zero, changing) values and every filter and history
+     * buffer is full before measuring. Stays facing the simulated Limelight target. The arm is left holding the
+     * middle goal, so its periodic() runs the closed loop like it does most of a match.
+     */
+    void warmUp(int loops){
+        arm.setGoal(ArmConstants.kMiddlePosition);
+        for(int i = 0; i < loops; i++){
+            periodic();
+            chassis.tankDriveVolts(1.5, 1.8);
+            stepSimulation();
+        }
+    }
+
+    //A new simulated Limelight frame, so the next vision periodic() has something to process
+    void newVisionFrame(double time){
+        ChassisIOSim chassisIO = (ChassisIOSim) io.chassis;
+        ((VisionIOSim) io.vision).update(chassisIO.getPose(), chassisIO.getHeading(), time);
+    }
+}
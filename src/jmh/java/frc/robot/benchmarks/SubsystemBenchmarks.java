@@ -0,0 +1,73 @@
+package frc.robot.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * Each subsystem's periodic() on its own, against the sim IOs after a few seconds of driving. The clock doesn't
+ * move between ops, so this is the steady state cost of one loop, not the cost of something changing.
+ */
+@State(Scope.Thread)
+public class SubsystemBenchmarks {
+    private SimRobot m_robot;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        m_robot = new SimRobot();
+        m_robot.warmUp(250);
+    }
+
+    @Benchmark
+    public void chassisPeriodic(){
+        m_robot.chassis.periodic();
+    }
+
+    @Benchmark
+    public void armPeriodic(){
+        m_robot.arm.periodic();
+    }
+
+    @Benchmark
+    public void clawPeriodic(){
+        m_robot.claw.periodic();
+    }
+
+    @Benchmark
+    public void navPeriodic(){
+        m_robot.nav.periodic();
+    }
+
+    //No new frame, which is most loops (the Limelight runs slower than we do)
+    @Benchmark
+    public void visionPeriodic(){
+        m_robot.vision.periodic();
+    }
+
+    //A new frame every op. Includes making the simulated frame, which is about as much work as reading it.
+    @Benchmark
+    public void visionPeriodicNewFrame(){
+        m_robot.newVisionFrame(Timer.getFPGATimestamp());
+        m_robot.vision.periodic();
+    }
+
+    @Benchmark
+    public void poseEstimatorPeriodic(){
+        m_robot.poseEstimator.periodic();
+    }
+
+    @Benchmark
+    public void ledPeriodic(){
+        m_robot.led.periodic();
+    }
+
+    //All of the above back to back, what the scheduler spends on subsystems each loop
+    @Benchmark
+    public void allPeriodic(){
+        m_robot.periodic();
+    }
+}
@@ -0,0 +1,20 @@
+package frc.robot.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import frc.robot.subsystems.VisionSubsystem;
+
+//The Limelight distance math, over both goals (positive ty is the top one)
+@State(Scope.Thread)
+public class VisionBenchmarks {
+    private final double[] m_ty = {-8.5, -3.2, -0.4, 0.6, 2.9, 7.1, 11.8, 16.3};
+    private int m_index = 0;
+
+    @Benchmark
+    public double calculateDistance(){
+        m_index = (m_index + 1) & 7;
+        return VisionSubsystem.calculateDistance(m_ty[m_index]);
+    }
+}
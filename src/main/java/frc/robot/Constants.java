@@ -27,6 +27,14 @@ public final class Constants {
         public static final int kLeftRearPort2 = 7;
 
         public static final int kCurrentLimit = 40; // 40A current limit for motors 
+        public static final double kOpenLoopRampRate = 0.25;
+
+        //A follower putting out more than this different from its leader isn't following
+        public static final double kFollowerOutputTolerance = 0.1;
+        //Fault flags get read every this many loops (0.5s)
+        public static final int kFollowerFaultCheckLoops = 25;
+        //A failed follower has to look fine for this many loops in a row (1s) before it counts as OK again
+        public static final int kFollowerHealthyLoops = 50;
 
         //public static final double kdriftOffset = 0; // account for drift when driving straight
 
@@ -46,6 +54,7 @@ public final class Constants {
         // 1 rotation = 2.025 inches
         // 1 inch = 0.493827 rotations
         public static final double kInchesToRotationsConversionFactor = 1/2.025;
+        public static final double kMetersPerInch = 0.0254;
 
         //((diameter of drive train * pi) / (diameter of wheels * pi)) / 360 = number of rotations for wheels for the robot to spin 1 degree
         public static final double kEndcoderRotationConversionFactor = ((23.5 * Math.PI) / (kWheelDiameter * Math.PI)/kGearRatio) / 360;
@@ -61,11 +70,56 @@ public final class Constants {
         //not leaving community: 2.4
         public static final double kAutoBalanceBackMultiplier = 2.4;
         public static final double kAutoBalanceFrontMultiplier = 2.9;
+
+        //Trajectory following (volts / volts per m/s / volts per m/s^2). These are starting guesses, the drivetrain
+        //hasn't been characterized yet, so replace them with measured values before trusting the feedforward.
+        public static final double kS = 0.18;
+        public static final double kV = 2.6;
+        public static final double kA = 0.45;
+        public static final double kPDriveVelocity = 0.8; //volts per m/s of error
+
+        //Distance between the left and right wheels
+        public static final double kTrackWidthMeters = 23.5 * kMetersPerInch;
+
+        public static final double kMaxSpeedMetersPerSecond = 2.5;
+        public static final double kMaxAccelerationMetersPerSecondSquared = 2.0;
+        //Slower over the charge station so we don't launch off it
+        public static final double kChargeStationMaxSpeedMetersPerSecond = 1.2;
+        //Keeps paths from asking for more than the battery can give mid-match
+        public static final double kMaxTrajectoryVoltage = 10;
+
+        //Closed loop teleop driving: full stick = this speed (free speed is about 4.8 m/s)
+        public static final double kMaxTeleopSpeedMetersPerSecond = 4.0;
+        //Spark Max onboard velocity PID (duty cycle per RPM of error), burned into every drive controller
+        public static final double kVelocityP = 0.0001;
+        public static final double kVelocityI = 0;
+        public static final double kVelocityD = 0;
+
+        //Ramsete defaults from the WPILib docs
+        public static final double kRamseteB = 2.0;
+        public static final double kRamseteZeta = 0.7;
+    }
+
+    public static final class BalanceConstants {
+        //BalanceController gains (volts per degree, volts per degree/second, volts per m/s), tuned in BalanceSimulation
+        public static final double kPitch = 0.5;
+        public static final double kPitchRate = 0.2;
+        public static final double kVelocity = 4.0;
+        //Keeps us slow enough on the ramp that the NavX sees the station tip before we're too far past the middle
+        public static final double kMaxVolts = 4.0;
+
+        //Within 2.5 degrees counts as balanced in the rulebook, so aim a bit inside that
+        public static final double kLevelDegrees = 2.0;
+        public static final double kLevelRateDegreesPerSecond = 3.0;
+
+        //The station falling back towards level faster than this means we're past the middle (dashboard only)
+        public static final double kTippingRateDegreesPerSecond = 6.0;
     }
 
     public static final class ArmConstants {
         public static final int kMotorPort = 21;
         public static final int kCurrentLimit = 60;
+        public static final double kOpenLoopRampRate = 0.2;
 
         public static final int kPotPort = 0;
 
@@ -89,6 +143,67 @@ public final class Constants {
         public static final double kMiddleSpeed = 0.5;//
         public static final double kTopSpeed = 0.65;//
         //public static final double kLoadingSpeed = 0.6;//
+
+        //Profiled position control (pot degrees, volts)
+        public static final double kP = 0.15; //volts per degree of error
+        public static final double kI = 0;
+        public static final double kD = 0.005;
+        public static final double kMaxVelocityDegreesPerSecond = 180;
+        public static final double kMaxAccelerationDegreesPerSecondSquared = 360;
+        //Close enough to call a setpoint reached (much tighter than kAngleTolerance since the PID keeps holding it)
+        public static final double kGoalTolerance = 3;
+        //ArmGotoAngle gives up waiting after this long, so an arm that can't quite get there doesn't stall an auton
+        //(a full 0 to 160 move takes about 1.4s on the profile)
+        public static final double kGotoTimeoutSeconds = 2.5;
+        public static final double kMaxVoltage = 10;
+
+        //Gravity feedforward. kG is the volts to hold the arm straight out, it's scaled by cos(angle from horizontal).
+        public static final double kS = 0.3; //volts
+        public static final double kG = 1.2; //volts
+        public static final double kV = 1.1; //volts per radian/second
+        //The pot isn't in real world degrees (see ArmIOSparkMax), so the feedforward needs both of these to turn a pot
+        //reading into an arm angle. Measure them on the robot: read the pot with the arm straight out, and again with
+        //it straight up, and kPotDegreesPerArmDegree = (straight up - straight out) / 90.
+        public static final double kPotAtHorizontal = 95;//
+        public static final double kPotDegreesPerArmDegree = 1;//
+        //Flip this once both of the above are measured. Until then the cos(angle) term would be at the wrong angle, so
+        //the arm holds with the old fixed kHoldSpeed instead, and moves get kHoldVolts in place of the cos term.
+        public static final boolean kGravityFeedforwardMeasured = false;
+        //Duty cycle that's always been enough to keep the arm from falling
+        public static final double kHoldSpeed = 0.3;
+        //kHoldSpeed at a full battery
+        public static final double kHoldVolts = kHoldSpeed * 12;
+        //Below this the arm is resting on the frame, so stop() lets it sit instead of holding it
+        public static final double kRestingAngle = 20;
+
+        //Pot filtering. The FPGA oversamples 2^bits readings and averages 2^bits of those before we ever see them,
+        //then the median throws out single bad readings and the low-pass smooths what's left.
+        public static final int kPotOversampleBits = 4;
+        public static final int kPotAverageBits = 2;
+        public static final int kPotMedianWindow = 3; //loops, 1 turns the median off
+        public static final double kPotFilterTimeConstant = 0.03; //seconds, 0 turns the low-pass off
+    }
+
+    public static final class NavConstants {
+        //Give up waiting for calibration after this long and just use whatever the NavX reads
+        public static final double kCalibrationTimeoutSeconds = 10;
+        public static final long kCalibrationPollMs = 20;
+
+        //The initial pitch offset is the average of this many readings
+        public static final int kPitchSampleCount = 25;
+        public static final long kPitchSamplePeriodMs = 10;
+
+        //How many loops of heading/distance to keep for lining up vision frames (50 loops = 1 second)
+        public static final int kPoseHistorySize = 50;
+
+        //The NavX can send updates a lot faster than our loop, 200Hz is the most it does over SPI
+        public static final int kUpdateRateHz = 200;
+        //A bit more than a loop's worth of updates at that rate
+        public static final int kGyroBufferSize = 64;
+        //The NavX clock going backwards by more than this means the NavX restarted, so the buffered samples get dropped
+        public static final long kGyroClockResetMs = 500;
+        //Pitch rate is fitted over this much of the newest data (20 samples at 200Hz)
+        public static final double kPitchRateWindowSeconds = 0.1;
     }
 
     public static final class ClawConstants {
@@ -111,5 +226,87 @@ public final class Constants {
 
         public static final double kRotationSpeed = 0.6;
         public static final double kRotationTolerance = 2;
+
+        //A frame older than this (from when the picture was taken) means the Limelight stopped sending
+        public static final double kStaleFrameSeconds = 0.25;
+
+        //How often forcePipeline() re-sends the pipeline while the Limelight is running a different one
+        public static final double kPipelineResendSeconds = 0.5;
+    }
+
+    public static final class SimConstants {
+        //Only used in simulation, none of these were measured
+        public static final double kRobotMassKg = 56;
+        public static final double kDrivetrainMOI = 5.0; //kg*m^2
+
+        public static final double kArmGearing = 150;
+        public static final double kArmLengthMeters = 0.9;
+        public static final double kArmMassKg = 5;
+
+        //Where the charge station is, relative to where the middle autons start (facing the grid is +x).
+        //The middle auton stops about here after backing out of the community and driving back on.
+        public static final double kChargeStationCenterX = -3.1;
+        public static final double kChargeStationCenterY = 0;
+        public static final double kChargeStationHalfDepthMeters = 0.97;
+        public static final double kChargeStationHalfWidthMeters = 1.24;
+
+        //The Limelight target (middle of the grid) and what the Limelight can see
+        public static final double kLimelightTargetX = 0.5;
+        public static final double kLimelightTargetY = 0;
+        public static final double kLimelightHalfFovDegrees = 29.8;
+        public static final double kLimelightRangeMeters = 6;
+    }
+
+    public static final class PoseConstants {
+        //The Field2d widget doesn't need 50 updates a second
+        public static final double kField2dPeriodSeconds = 0.1;
+
+        //DriveToPose
+        public static final double kDriveToPoseDriveP = 1.0; //speed per meter
+        public static final double kDriveToPoseTurnP = 1.5; //rotation per radian
+        public static final double kDriveToPoseMaxSpeed = 0.7;
+        public static final double kDriveToPoseMaxTurn = 0.6;
+        public static final double kDriveToPoseTolerance = 0.05; //meters
+        public static final double kDriveToPoseAngleTolerance = Math.toRadians(3);
+        //Adds "DriveToPoseTest" (drive 2m forward) to the auton chooser for tuning DriveToPose. Keep it off for matches.
+        public static final boolean kDriveToPoseTestAuton = false;
+    }
+
+    public static final class CANConstants {
+        //set() or setReference() frames per second for each controller we command every loop
+        public static final double kCommandFramesPerController = 50;
+    }
+
+    public static final class TelemetryConstants {
+        //How often the dashboard batch gets sent out (the robot loop is 0.02s)
+        public static final double kFlushPeriodSeconds = 0.1;
+
+        //Defaults for channels that don't pick their own
+        public static final double kDefaultDeadband = 0.001;
+        public static final double kDefaultMinPeriodSeconds = 0.1;
+    }
+
+    public static final class ProfilerConstants {
+        public static final int kMaxSections = 64; //subsystems + every command that has ever run
+        public static final int kWindowSize = 256; //samples kept per section (about 5 seconds of loops)
+
+        public static final double kLoopBudgetSeconds = 0.02;
+        public static final double kSummaryPeriodSeconds = 1.0;
+        public static final int kOverrunReportCount = 3; //how many sections get printed when a loop overruns
+
+        //Counts bytes allocated per section (two extra JVM calls per section, so off for matches).
+        //./gradlew checkAllocations turns it on by itself.
+        public static final boolean kTrackAllocations = false;
+    }
+
+    public static final class LogConstants {
+        //Logs go on the USB stick if there is one (the roboRIO's own flash is small), otherwise on the roboRIO
+        public static final String kUsbDirectory = "/u/logs";
+        public static final String kRioDirectory = "/home/lvuser/logs";
+        public static final String kSimDirectory = "logs";
+
+        public static final int kBufferFrames = 256; //about 5 seconds of loops before frames start getting dropped
+        public static final double kWriterPeriodSeconds = 0.1; //how often the log thread empties the ring
+        public static final double kFlushPeriodSeconds = 0.25; //how often the DataLog writes to the file
     }
 }
@@ -6,31 +6,120 @@ package frc.robot;
 
 
 //actually important stuff
+import java.util.function.Supplier;
+
+import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
 
+//Dashboard
+import frc.robot.util.Telemetry;
+import frc.robot.util.LoopProfiler;
+import frc.robot.util.TrackedSparkMax;
+import frc.robot.util.Telemetry.DoubleChannel;
+import frc.robot.util.Telemetry.BooleanChannel;
+
+import frc.robot.io.RobotIO;
+
 
 public class Robot extends TimedRobot {
   private Command m_autonomousCommand;
   private RobotContainer m_robotContainer;
 
+  //Makes the hardware in robotInit (real on the robot, physics models in simulation, the replay harness hands in a log)
+  private final Supplier<RobotIO> m_io;
+
+  //Lets us see how much dashboard traffic the deadbands are saving
+  private final DoubleChannel m_telemetrySentEntry = Telemetry.getInstance().addDouble("Telemetry values sent", 0, 1);
+  private final DoubleChannel m_telemetrySuppressedEntry = Telemetry.getInstance().addDouble("Telemetry values suppressed", 0, 1);
+
+  //Motor config frames (idle mode, inversion, etc.) that were sent vs. skipped because the controller already had them
+  private final DoubleChannel m_canConfigSentEntry = Telemetry.getInstance().addDouble("CAN config frames sent", 0, 1);
+  private final DoubleChannel m_canConfigSuppressedEntry = Telemetry.getInstance().addDouble("CAN config frames suppressed", 0, 1);
+
+  private final DoubleChannel m_canUtilizationEntry = Telemetry.getInstance().addDouble("CAN utilization estimate (%)", 0.1, 1);
+  private final DoubleChannel m_canDefaultUtilizationEntry = Telemetry.getInstance().addDouble("CAN utilization with REV defaults (%)", 0.1, 1);
+
+  private final LoopProfiler m_profiler = LoopProfiler.getInstance();
+  private final int m_telemetrySection = m_profiler.register("Telemetry.periodic()");
+  private final int m_countersSection = m_profiler.register("Robot dashboard counters");
+  private final int m_statusFramesSection = m_profiler.register("RobotContainer.updateStatusFrames()");
+
+  private final BooleanChannel m_readyEntry = Telemetry.getInstance().addBoolean("Robot ready");
+
+
+  public Robot() {
+    this(() -> RobotBase.isReal() ? RobotIO.real() : RobotIO.sim());
+  }
+
+  public Robot(Supplier<RobotIO> io) {
+    m_io = io;
+  }
 
   @Override
   public void robotInit() {
-    m_robotContainer = new RobotContainer();
+    //Has to be bound before any button so it runs first
+    m_profiler.installButtonTiming();
+    m_robotContainer = new RobotContainer(m_io.get());
+    //Every controller and command frame is registered by now, so this never changes
+    m_canDefaultUtilizationEntry.set(m_robotContainer.getStatusFrames().estimateUtilization(null) * 100);
+
+    //Has to happen after the bindings are made so the profiler's mark runs after every button is polled
+    m_profiler.install();
+  }
+
+  //Runs every loop before anything else (including the mode inits), so the match log has the time the loop started
+  @Override
+  protected void loopFunc() {
+    m_robotContainer.markLoopStart();
+    super.loopFunc();
   }
 
   @Override
   public void robotPeriodic() {
+    m_profiler.beginLoop();
+
     CommandScheduler.getInstance().run(); //Runs everything (subsystems, commands, controller inputs, etc)
+
+    //Sends whatever dashboard values changed this loop (only actually sends every TelemetryConstants.kFlushPeriodSeconds)
+    long countersStart = LoopProfiler.now();
+    m_telemetrySentEntry.set(Telemetry.getInstance().getSentCount());
+    m_telemetrySuppressedEntry.set(Telemetry.getInstance().getSuppressedCount());
+    m_canConfigSentEntry.set(TrackedSparkMax.getSentFrames());
+    m_canConfigSuppressedEntry.set(TrackedSparkMax.getSuppressedFrames());
+    m_profiler.record(m_countersSection, countersStart);
+
+    m_robotContainer.recordMatchLog();
+
+    long statusFramesStart = LoopProfiler.now();
+    m_robotContainer.updateStatusFrames();
+    m_canUtilizationEntry.set(m_robotContainer.getStatusFrames().getUtilization() * 100);
+    m_profiler.record(m_statusFramesSection, statusFramesStart);
+    long telemetryStart = LoopProfiler.now();
+    Telemetry.getInstance().periodic();
+    m_profiler.record(m_telemetrySection, telemetryStart);
+
+    m_profiler.endLoop();
+  }
+
+  protected RobotContainer getRobotContainer() {
+    return m_robotContainer;
+  }
+
+  @Override
+  public void simulationPeriodic() {
+    m_robotContainer.simulationPeriodic();
   }
 
   @Override
   public void disabledInit() {}
 
   @Override
-  public void disabledPeriodic() {}
+  public void disabledPeriodic() {
+    //Shows when the background startup (motor config, gyro calibration) is done
+    m_readyEntry.set(m_robotContainer.isReady());
+  }
 
   @Override
   public void disabledExit() {}
@@ -22,20 +22,20 @@ import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 //Camera library
 import edu.wpi.first.cameraserver.CameraServer;
 
-//NAVX libraries
-import com.kauailabs.navx.frc.AHRS;
-import edu.wpi.first.wpilibj.DriverStation;
-import edu.wpi.first.wpilibj.SPI;
-
 //Constants
 import frc.robot.Constants.IOConstants;
 import frc.robot.Constants.ArmConstants;
+import frc.robot.Constants.PoseConstants;
 
 //Commands
 import frc.robot.commands.chassis.DefaultDrive;
 import frc.robot.commands.chassis.AutoBalance;
 import frc.robot.commands.chassis.AutoBalanceSmooth;
+import frc.robot.commands.chassis.BalanceChargeStation;
 import frc.robot.commands.chassis.BrakeDrive;
+import frc.robot.commands.chassis.DriveToPose;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
 import frc.robot.commands.auton.AutonTest;
 import frc.robot.commands.auton.AutonSide;
 import frc.robot.commands.auton.AutonStartup;
@@ -45,6 +45,7 @@ import frc.robot.commands.auton.AutonOnePieceSide;
 import frc.robot.commands.auton.AutonOnePieceMiddle;
 import frc.robot.commands.auton.AutonOnePieceMiddle180;
 import frc.robot.commands.auton.AutonOnePieceMiddleNoCommunity;
+import frc.robot.commands.auton.AutonTrajectories;
 import frc.robot.commands.arm.ArmGotoAngle;
 import frc.robot.commands.arm.DefaultArmState;
 
@@ -60,6 +61,8 @@ import frc.robot.subsystems.LEDSubsystem;
 import frc.robot.subsystems.LEDSubsystem.LEDState;
 import frc.robot.subsystems.VisionSubsystem;
 import frc.robot.subsystems.NavSubsystem;
+import frc.robot.sim.RobotSimulation;
+import frc.robot.subsystems.PoseEstimatorSubsystem;
 
 //Command libraries
 import edu.wpi.first.wpilibj2.command.Command;
@@ -67,11 +70,26 @@ import edu.wpi.first.wpilibj2.command.Command;
 //import edu.wpi.first.wpilibj2.command.ScheduleCommand;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
 import edu.wpi.first.wpilibj2.command.ParallelCommandGroup;
+import edu.wpi.first.wpilibj2.command.ProxyCommand;
 import edu.wpi.first.wpilibj2.command.RepeatCommand;
 import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
+import edu.wpi.first.wpilibj2.command.WaitUntilCommand;
+
+//Startup
+import frc.robot.util.StartupPipeline;
+import frc.robot.util.MotorConfigurator;
+import frc.robot.util.StatusFrameManager;
+import frc.robot.util.StatusFrameProfile;
+
+//Logging
+import frc.robot.util.MatchLogger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
-import java.util.concurrent.TimeUnit;
+//Hardware
+import frc.robot.io.RobotIO;
 
 
 
@@ -87,54 +105,110 @@ import java.util.concurrent.TimeUnit;
 public class RobotContainer {
   
   //Subsystems:
-  private final ChassisSubsystem m_chassisSubsystem = new ChassisSubsystem();
-  private final ArmSubsystem m_armSubsystem = new ArmSubsystem();
-  private final ClawSubsystem m_clawSubsystem = new ClawSubsystem();
+  private final ChassisSubsystem m_chassisSubsystem;
+  private final ArmSubsystem m_armSubsystem;
+  private final ClawSubsystem m_clawSubsystem;
   private final NavSubsystem m_navSubsystem;
-  private final VisionSubsystem m_visionSubsystem = new VisionSubsystem();
+  private final VisionSubsystem m_visionSubsystem;
+  private final PoseEstimatorSubsystem m_poseEstimator;
   private final LEDSubsystem m_LEDSubsystem;
+
+  //Physics for the drivetrain, arm, NavX and Limelight, only when running in simulation (null on the robot and in replay)
+  private final RobotSimulation m_simulation;
+
+  //Writes every sensor, output and running command to a .wpilog file each loop (null when replaying a log)
+  private final MatchLogger m_matchLogger;
   
   
   //Controllers:
   XboxController m_driverController = new XboxController(IOConstants.kDriverPort);
   XboxController m_coDriverController = new XboxController(IOConstants.kCoDriverPort);
+
+  //The driver's trigger axes as buttons. Made once and shared by every binding on them (and DefaultDrive's turbo)
+  //instead of a new Trigger and lambda for each
+  private final Trigger m_leftTrigger = new Trigger(() -> m_driverController.getLeftTriggerAxis() > IOConstants.kTriggerThreshold);
+  private final Trigger m_rightTrigger = new Trigger(() -> m_driverController.getRightTriggerAxis() > IOConstants.kTriggerThreshold);
   
-  //NavX:
-  public AHRS ahrs;
-  public double kInitialPitchOffset = 0;
+  //Slow startup work (motor config, camera, gyro calibration) runs in the background so robotInit returns quickly
+  private final StartupPipeline m_startup = new StartupPipeline();
+  private final CompletableFuture<Void> m_motorsReady;
+  private final CompletableFuture<Void> m_cameraReady;
+  private final CompletableFuture<Double> m_pitchOffsetReady;
 
   SendableChooser<Command> m_autonChooser = new SendableChooser<>();
+  //Same options as the chooser, in order, so the log can record which one was picked as a number
+  private final List<String> m_autonNames = new ArrayList<>();
+  private final List<Command> m_autonCommands = new ArrayList<>();
+  //Set by replay to whatever auton the log picked, overrides the chooser (-1 = use the chooser)
+  private int m_autonOverride = -1;
+
+  //CAN status frame rates for every Spark Max, switchable from the dashboard
+  private final StatusFrameManager m_statusFrames = new StatusFrameManager();
+  SendableChooser<StatusFrameProfile> m_statusFrameChooser = new SendableChooser<>();
 
 
   /** The container for the robot. Contains subsystems, IO devices, and commands. */
   public RobotContainer() {
-    
-    //Enable the NavX
-    try {
-      ahrs = new AHRS(SPI.Port.kMXP);
-      ahrs.enableLogging(true);
-    } 
-    catch (RuntimeException ex) {
-      DriverStation.reportError("Error instantiating navX MXP:  " + ex.getMessage(), true);
-    }
-
-    //Get the initial pitch of the NavX (Since the robot will be slightly tilted)
-    try {
-      TimeUnit.SECONDS.sleep(2);
-      kInitialPitchOffset = ahrs.getPitch();
-    } 
-    catch (InterruptedException e) {
-      DriverStation.reportError("An error in getting the navX Pitch: " + e.getMessage(), true);
-    }
+    this(RobotIO.real());
+  }
 
-    //Pass NavX and initial pitch into Nav subsystem
-    m_navSubsystem = new NavSubsystem(ahrs, kInitialPitchOffset);
+  /**
+   * Builds the robot on top of the given IO. The real robot (and simulation) use {@link RobotIO#real()}, the replay
+   * harness passes in a log.
+   */
+  public RobotContainer(RobotIO io) {
+    m_chassisSubsystem = new ChassisSubsystem(io.chassis);
+    m_armSubsystem = new ArmSubsystem(io.arm);
+    m_clawSubsystem = new ClawSubsystem(io.claw);
+
+    //The NavX gets read at a high rate in the background by its IO
+    m_navSubsystem = new NavSubsystem(io.nav, m_chassisSubsystem::getAverageEncoderDistanceInches);
+
+    //Vision uses the Nav subsystem's heading/distance history to make up for camera latency
+    m_visionSubsystem = new VisionSubsystem(io.vision, m_navSubsystem.getPoseHistory());
+
+    //Position from the encoders + NavX, relative to wherever the auton said we started
+    m_poseEstimator = new PoseEstimatorSubsystem(m_chassisSubsystem, m_navSubsystem);
     
-    //Pass NavX into LED subsystem so we can have the cool rainbow effect
-    m_LEDSubsystem = new LEDSubsystem(ahrs);
+    //Pass the Nav subsystem into LED subsystem so we can have the cool rainbow effect
+    m_LEDSubsystem = new LEDSubsystem(io.led, m_navSubsystem);
+
+    //Replay doesn't write a new log, the log already has everything
+    m_matchLogger = io.replay ? null : new MatchLogger(m_chassisSubsystem, m_armSubsystem, m_clawSubsystem, m_navSubsystem, m_visionSubsystem, m_poseEstimator);
+    m_simulation = io.simulation;
+
+    //Configure every motor controller in the background (chassis and arm at the same time).
+    //Controllers that already have their config burned in get skipped.
+    MotorConfigurator configurator = new MotorConfigurator();
+    CompletableFuture<Void> chassisReady = m_startup.runStage("Chassis motors", () -> m_chassisSubsystem.configureMotors(configurator));
+    CompletableFuture<Void> armReady = m_startup.runStage("Arm motor", () -> m_armSubsystem.configureMotors(configurator));
+    m_motorsReady = CompletableFuture.allOf(chassisReady, armReady).thenRun(configurator::save);
+
+    //Status frame periods get sent once the motors are configured (see updateStatusFrames())
+    m_chassisSubsystem.registerStatusFrames(m_statusFrames);
+    m_armSubsystem.registerStatusFrames(m_statusFrames);
+    m_statusFrameChooser.setDefaultOption("Match", StatusFrameProfile.MATCH);
+    m_statusFrameChooser.addOption("Debug", StatusFrameProfile.DEBUG);
+    Shuffleboard.getTab("CAN").add("Status frames", m_statusFrameChooser).withSize(2,1);
 
     //Start-up of USB cameras for drivers
-    CameraServer.startAutomaticCapture();
+    m_cameraReady = io.replay ? CompletableFuture.completedFuture(null) : m_startup.runStage("Camera", () -> CameraServer.startAutomaticCapture());
+
+    //Get the initial pitch of the NavX (Since the robot will be slightly tilted) once it's done calibrating
+    m_pitchOffsetReady = m_startup.supplyStage("NavX pitch offset", () -> {
+      double pitchOffset = m_navSubsystem.measureInitialPitch();
+      m_navSubsystem.setInitialPitchOffset(pitchOffset);
+      return pitchOffset;
+    });
+
+    //Load every auton path out of deploy/trajectories (generating any that are out of date) so auton never has to,
+    //then put how long each one takes to drive on the dashboard
+    m_startup.runStage("Auton trajectories", () -> {
+      AutonTrajectories.preload();
+      AutonTrajectories.preview();
+    });
+
+    m_startup.finish();
 
     //Configure the button bindings
     configureBindings();
@@ -143,7 +217,7 @@ public class RobotContainer {
       new DefaultDrive(m_chassisSubsystem,
       () -> -m_driverController.getLeftY(),
       () -> m_driverController.getRightX(),
-      () -> m_driverController.getRightTriggerAxis() > IOConstants.kTriggerThreshold)
+      m_rightTrigger)
     );
 
     m_visionSubsystem.setDefaultCommand(new DefaultLimelightPipeline(m_visionSubsystem));
@@ -153,13 +227,54 @@ public class RobotContainer {
     () -> m_driverController.getRightX()));*/
     
     //Make it so we can select the auton mode from shuffleboard
-    m_autonChooser.setDefaultOption("AutonDoNothing",new AutonDoNothing());
-    m_autonChooser.addOption("AutonMiddle",new AutonOnePieceMiddleNoCommunity(m_chassisSubsystem, m_clawSubsystem, m_armSubsystem, ahrs, kInitialPitchOffset));
-    m_autonChooser.addOption("AutonSide",new AutonOnePieceSide(m_chassisSubsystem, m_clawSubsystem, m_armSubsystem));
-    m_autonChooser.addOption("AutonTest",new AutonTest(m_chassisSubsystem, m_clawSubsystem, m_armSubsystem));
-    m_autonChooser.addOption("AutonMiddleLeaveCommunity",new AutonOnePieceMiddle(m_chassisSubsystem, m_clawSubsystem, m_armSubsystem, ahrs, kInitialPitchOffset));
+    addAuton("AutonDoNothing",new AutonDoNothing());
+    addAuton("AutonMiddle",new AutonOnePieceMiddleNoCommunity(m_chassisSubsystem, m_clawSubsystem, m_armSubsystem, m_navSubsystem, m_navSubsystem::getInitialPitchOffset));
+    addAuton("AutonSide",new AutonOnePieceSide(m_chassisSubsystem, m_clawSubsystem, m_armSubsystem, m_poseEstimator));
+    addAuton("AutonTest",new AutonTest(m_chassisSubsystem, m_clawSubsystem, m_armSubsystem));
+    if(PoseConstants.kDriveToPoseTestAuton){
+      addAuton("DriveToPoseTest",
+        new InstantCommand(() -> m_poseEstimator.resetPose(new Pose2d()))
+        .andThen(new DriveToPose(new Pose2d(2, 0, new Rotation2d()), m_chassisSubsystem, m_poseEstimator)));
+    }
+    addAuton("AutonMiddleLeaveCommunity",new AutonOnePieceMiddle(m_chassisSubsystem, m_clawSubsystem, m_armSubsystem, m_navSubsystem, m_navSubsystem::getInitialPitchOffset, m_poseEstimator));
 
     Shuffleboard.getTab("Autonomous").add(m_autonChooser).withSize(2,1);
+
+    //Started last so every field (including the auton chooser) is registered first
+    if(m_matchLogger != null){
+      m_matchLogger.addAutonChooser(m_autonNames, this::getSelectedAutonIndex);
+      m_matchLogger.start();
+    }
+  }
+
+  //The first one added is the default
+  private void addAuton(String name, Command command) {
+    if(m_autonNames.isEmpty()){
+      m_autonChooser.setDefaultOption(name, command);
+    }
+    else{
+      m_autonChooser.addOption(name, command);
+    }
+    m_autonNames.add(name);
+    m_autonCommands.add(command);
+  }
+
+  //Index of the picked auton in the order they were added, or -1 if nothing is picked
+  public int getSelectedAutonIndex() {
+    if(m_autonOverride >= 0){
+      return m_autonOverride;
+    }
+    return m_autonCommands.indexOf(m_autonChooser.getSelected());
+  }
+
+  /**
+   * Picks the auton by name instead of using the dashboard chooser (replay uses this to run what the log ran).
+   *
+   * @return false if there's no auton with that name
+   */
+  public boolean selectAuton(String name) {
+    m_autonOverride = m_autonNames.indexOf(name);
+    return m_autonOverride >= 0;
   }
 
   /**
@@ -182,14 +297,24 @@ public class RobotContainer {
     */
 
 
+    //Commands used by more than one binding only get made once
+    Command showRainbow = new InstantCommand(() -> m_LEDSubsystem.changeLEDState(LEDState.RAINBOW));
+    Command stopArm = new InstantCommand(m_armSubsystem::stop, m_armSubsystem);
+
     //left trigger: brake mode
-    new Trigger(() -> m_driverController.getLeftTriggerAxis() > IOConstants.kTriggerThreshold)
+    m_leftTrigger
       .whileTrue(
         new BrakeDrive(m_chassisSubsystem,
         () -> -m_driverController.getLeftY(),
         () -> m_driverController.getRightX())
       );
 
+    //Back button: switch teleop driving between open loop (duty cycle) and closed loop (Spark Max velocity PID)
+    new JoystickButton(m_driverController, Button.kBack.value)
+      .onTrue(
+        new InstantCommand(m_chassisSubsystem::toggleClosedLoop)
+      );
+
     //Y button: auto aim (high pole) (i set it to be on a button press, not held)
     new JoystickButton(m_coDriverController, Button.kB.value)
     .toggleOnTrue(
@@ -215,34 +340,27 @@ public class RobotContainer {
       .whileTrue(
         //I think if we create a command similar to an autonomous command, we could shove this entire composition into a single file.
         //However, autobalancing is the last thing we do in autonomous, so that probably wont be necessary.
-        //Even though it's a repeating command, all autonomous commands should automatically be canceled once teleop is enabled.
-        new RepeatCommand(
-          new AutoBalance(m_chassisSubsystem, ahrs, kInitialPitchOffset).withTimeout(0.7)
-          .andThen(
-            new BrakeDrive(m_chassisSubsystem,
-            () -> 0,
-            () -> 0).withTimeout(0.5)
-            )
-          )
-          //new AutoBalanceSmooth(m_chassisSubsystem, ahrs, kInitialPitchOffset)
+        //It never finishes on its own, all autonomous commands should automatically be canceled once teleop is enabled.
+        new BalanceChargeStation(m_chassisSubsystem, m_navSubsystem, m_navSubsystem::getInitialPitchOffset)
+          //new AutoBalanceSmooth(m_chassisSubsystem, m_navSubsystem, m_navSubsystem::getInitialPitchOffset)
     );
 
     //Right trigger: Change LED mode for turbo mode (the actual code for turbo mode is handled within DefaultDrive itself).
-    new Trigger(() -> m_driverController.getRightTriggerAxis() > IOConstants.kTriggerThreshold)
+    m_rightTrigger
       .onTrue(
         new InstantCommand(() -> m_LEDSubsystem.changeLEDState(LEDState.TURBO)) 
       )
       .onFalse(
-        new InstantCommand(() -> m_LEDSubsystem.changeLEDState(LEDState.RAINBOW)) 
+        showRainbow
     );
 
     //Left trigger: Change LED mode for Brake mode (the actual code for brake mode is handled within BrakeDrive).
-    new Trigger(() -> m_driverController.getLeftTriggerAxis() > IOConstants.kTriggerThreshold)
+    m_leftTrigger
       .onTrue(
         new InstantCommand(() -> m_LEDSubsystem.changeLEDState(LEDState.TEAL)) 
       )
       .onFalse(
-        new InstantCommand(() -> m_LEDSubsystem.changeLEDState(LEDState.RAINBOW)) 
+        showRainbow
     );
 
 
@@ -255,21 +373,21 @@ public class RobotContainer {
     //Dpad left: Set arm to bottom
     new POVButton(m_coDriverController, 270)
       .onTrue(
-        new ArmGotoAngle(ArmConstants.kBottomPosition, ArmConstants.kBottomSpeed, m_armSubsystem)
+        new ArmGotoAngle(ArmConstants.kBottomPosition, m_armSubsystem)
       );
     
     
     //Dpad up: Set arm to middle goal
     new POVButton(m_coDriverController, 0)
       .onTrue(
-        new ArmGotoAngle(ArmConstants.kMiddlePosition, ArmConstants.kMiddleSpeed, m_armSubsystem)
+        new ArmGotoAngle(ArmConstants.kMiddlePosition, m_armSubsystem)
       );
 
     
     //Dpad right: Set arm to top goal
     new POVButton(m_coDriverController, 90)
       .onTrue(
-        new ArmGotoAngle(ArmConstants.kTopPositionCone, ArmConstants.kTopSpeed, m_armSubsystem)
+        new ArmGotoAngle(ArmConstants.kTopPositionCone, m_armSubsystem)
       );
 
     //Right bumper: Raise the arm up manually
@@ -278,7 +396,7 @@ public class RobotContainer {
        new InstantCommand(m_armSubsystem::up, m_armSubsystem)
       )
       .onFalse(
-       new InstantCommand(m_armSubsystem::stop, m_armSubsystem)
+       stopArm
       );
 
     //Left bumper: Lower the arm down manually
@@ -287,7 +405,7 @@ public class RobotContainer {
         new InstantCommand(m_armSubsystem::down, m_armSubsystem)
       )
       .onFalse(
-        new InstantCommand(m_armSubsystem::stop, m_armSubsystem)
+        stopArm
       );
 
     //A button: Toggle claw 
@@ -317,8 +435,88 @@ public class RobotContainer {
      */
   public Command getAutonomousCommand() {
     //TODO: add a shuffleboard selector that doesn't break the robot
-    return m_autonChooser.getSelected();
-    //return new AutonOnePieceMiddleNoCommunity(m_chassisSubsystem, m_clawSubsystem, m_armSubsystem, ahrs, kInitialPitchOffset);
+    int index = getSelectedAutonIndex();
+    if(index < 0){
+      return null;
+    }
+    Command selected = m_autonCommands.get(index);
+
+    //Wait for the background startup to finish (usually long done by the time auton starts).
+    //ProxyCommand schedules the chooser's command instead of composing it, so it can be picked again next time.
+    return new WaitUntilCommand(m_startup::isReady).andThen(new ProxyCommand(selected));
+    //return new AutonOnePieceMiddleNoCommunity(m_chassisSubsystem, m_clawSubsystem, m_armSubsystem, m_navSubsystem, m_navSubsystem::getInitialPitchOffset);
     //return new AutonOnePieceSide(m_chassisSubsystem, m_clawSubsystem, m_armSubsystem);
   }
+
+  //True once all the background startup stages are done
+  public boolean isReady(){
+    return m_startup.isReady();
+  }
+
+  //Called every loop by Robot. Switches status frame profiles when the dashboard chooser changes, and puts them back on
+  //any controller that rebooted.
+  public void updateStatusFrames(){
+    //Configuring a controller factory resets it, so wait until that's done
+    if(!m_motorsReady.isDone()){
+      return;
+    }
+    StatusFrameProfile profile = m_statusFrameChooser.getSelected();
+    if(profile != null){
+      m_statusFrames.apply(profile);
+    }
+    m_statusFrames.resendAfterResets();
+  }
+
+  //Called by Robot at the very start of every loop, before the mode inits and the scheduler
+  public void markLoopStart(){
+    if(m_matchLogger != null){
+      m_matchLogger.markLoopStart();
+    }
+  }
+
+  //Called every loop by Robot after the scheduler, so the log gets this loop's values
+  public void recordMatchLog(){
+    if(m_matchLogger != null){
+      m_matchLogger.record();
+    }
+  }
+
+  //Called from Robot.simulationPeriodic(), after the loop, so the subsystems read the new values next loop
+  public void simulationPeriodic(){
+    if(m_simulation != null){
+      m_simulation.update();
+    }
+  }
+
+  public StatusFrameManager getStatusFrames(){
+    return m_statusFrames;
+  }
+
+  public CompletableFuture<Void> getMotorsReady(){
+    return m_motorsReady;
+  }
+
+  public CompletableFuture<Void> getCameraReady(){
+    return m_cameraReady;
+  }
+
+  public CompletableFuture<Double> getPitchOffsetReady(){
+    return m_pitchOffsetReady;
+  }
+
+  public ChassisSubsystem getChassisSubsystem(){
+    return m_chassisSubsystem;
+  }
+
+  public ArmSubsystem getArmSubsystem(){
+    return m_armSubsystem;
+  }
+
+  public NavSubsystem getNavSubsystem(){
+    return m_navSubsystem;
+  }
+
+  public PoseEstimatorSubsystem getPoseEstimator(){
+    return m_poseEstimator;
+  }
 }
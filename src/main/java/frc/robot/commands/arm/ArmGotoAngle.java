@@ -3,22 +3,26 @@ package frc.robot.commands.arm;
 //Subsystem
 import frc.robot.subsystems.ArmSubsystem;
 
-//Constants
-import frc.robot.Constants.ArmConstants;
-
 
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 
+//Constants
+import frc.robot.Constants.ArmConstants;
+
+/**
+ * Sends the arm to an angle and finishes once it's close (within kAngleTolerance), or after kGotoTimeoutSeconds if
+ * it never gets there. The arm subsystem runs the motion profile and keeps holding the angle after this ends, so
+ * nothing has to keep running to stop the arm from falling, and it keeps pulling in the last few degrees.
+ */
 public class ArmGotoAngle extends CommandBase {
     private final ArmSubsystem m_armSubsystem;
-    private boolean m_complete = false;
-    private double m_speed;
     private double m_degrees;
+    private final Timer m_timer = new Timer();
 
     //Class Constructor
-    public ArmGotoAngle(double degrees, double speed, ArmSubsystem subsystem){
+    public ArmGotoAngle(double degrees, ArmSubsystem subsystem){
         m_degrees = degrees;
-        m_speed = speed;
         m_armSubsystem = subsystem;
 
         addRequirements(m_armSubsystem);
@@ -26,35 +30,24 @@ public class ArmGotoAngle extends CommandBase {
 
     @Override
     public void initialize(){
-        m_armSubsystem.setCoast();
-        m_complete = false;
+        m_armSubsystem.setGoal(m_degrees);
+        m_timer.reset();
+        m_timer.start();
     }
 
     @Override
     public void execute(){
-        if((m_armSubsystem.getPot() < m_degrees+ArmConstants.kAngleTolerance) && (m_armSubsystem.getPot() > m_degrees-ArmConstants.kAngleTolerance)){
-            m_armSubsystem.stop();
-            m_complete = true;
-        }
-
-        else if(m_armSubsystem.getPot() < m_degrees-ArmConstants.kAngleTolerance){
-            m_armSubsystem.setSafe(m_speed);
-        }
-        
-        else if(m_armSubsystem.getPot() > m_degrees+ArmConstants.kAngleTolerance){
-            m_armSubsystem.setSafe(-0.15);
-        }
     }
 
     //This function is called once when the command ends.
     @Override
     public void end(boolean interrupted){
-        
+        m_timer.stop();
     }
 
     //This fuction is used to tell the robot when the command has ended.
     @Override
     public boolean isFinished(){
-        return m_complete;
+        return m_armSubsystem.nearGoal() || m_timer.hasElapsed(ArmConstants.kGotoTimeoutSeconds);
     }
-}
\ No newline at end of file
+}
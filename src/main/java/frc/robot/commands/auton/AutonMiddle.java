@@ -17,16 +17,16 @@ import edu.wpi.first.wpilibj2.command.RepeatCommand;
 import frc.robot.commands.chassis.DriveDistance;
 import frc.robot.commands.chassis.AutoBalance;
 import frc.robot.commands.chassis.BrakeDrive;
-import com.kauailabs.navx.frc.AHRS;
 
 //Subsystems
 import frc.robot.subsystems.ChassisSubsystem;
+import frc.robot.subsystems.NavSubsystem;
 import frc.robot.subsystems.ClawSubsystem;
 import frc.robot.subsystems.ArmSubsystem;
 
 public class AutonMiddle extends SequentialCommandGroup{
  
-    public AutonMiddle(ChassisSubsystem chassisSubsystem, ClawSubsystem clawSubsystem, ArmSubsystem armSubsystem, AHRS ahrs){
+    public AutonMiddle(ChassisSubsystem chassisSubsystem, ClawSubsystem clawSubsystem, ArmSubsystem armSubsystem, NavSubsystem navSubsystem){
         addCommands(
             new SequentialCommandGroup(
                 //move backwards
@@ -39,7 +39,7 @@ public class AutonMiddle extends SequentialCommandGroup{
 
                 //engage autobalance
                 new RepeatCommand(
-                    new AutoBalance(chassisSubsystem, ahrs, 1.6).withTimeout(0.7)
+                    new AutoBalance(chassisSubsystem, navSubsystem, 1.6).withTimeout(0.7)
                     .andThen(
                     new BrakeDrive(chassisSubsystem,
                         () -> 0,
@@ -8,30 +8,30 @@ package frc.robot.commands.auton;
 import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
-import edu.wpi.first.wpilibj2.command.RepeatCommand;
 import edu.wpi.first.wpilibj2.command.ParallelCommandGroup;
 //import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 //import frc.robot.commands.chassis.AutoTurnRotations;
 
 //Commands
 //import frc.robot.commands.chassis.DriveDistanceInches;
-import frc.robot.commands.chassis.DriveDistance;
-import frc.robot.commands.chassis.BrakeDrive;
+import frc.robot.commands.chassis.FollowTrajectory;
 import frc.robot.commands.arm.ArmGotoAngle;
-import frc.robot.commands.chassis.AutoBalance;
-import com.kauailabs.navx.frc.AHRS;
+import frc.robot.commands.chassis.BalanceChargeStation;
+import java.util.function.DoubleSupplier;
 
 //Constants
 import frc.robot.Constants.ArmConstants;
 
 //subsystems
 import frc.robot.subsystems.ChassisSubsystem;
+import frc.robot.subsystems.NavSubsystem;
 import frc.robot.subsystems.ClawSubsystem;
 import frc.robot.subsystems.ArmSubsystem;
+import frc.robot.subsystems.PoseEstimatorSubsystem;
 
 public class AutonOnePieceMiddle extends SequentialCommandGroup{
 
-    public AutonOnePieceMiddle(ChassisSubsystem chassisSubsystem, ClawSubsystem clawSubsystem, ArmSubsystem armSubsystem, AHRS ahrs, double kInitialPitchOffset){
+    public AutonOnePieceMiddle(ChassisSubsystem chassisSubsystem, ClawSubsystem clawSubsystem, ArmSubsystem armSubsystem, NavSubsystem navSubsystem, DoubleSupplier kInitialPitchOffset, PoseEstimatorSubsystem poseEstimator){
         addCommands(
             new SequentialCommandGroup(
                 //Startup processes:
@@ -42,15 +42,14 @@ public class AutonOnePieceMiddle extends SequentialCommandGroup{
 
                 //move arm to high level and put wrist down
                 new ParallelCommandGroup(
-                    new ArmGotoAngle(80, 0.9, armSubsystem),
+                    new ArmGotoAngle(80, armSubsystem),
                     new WaitCommand(0.18).andThen(new InstantCommand(clawSubsystem::wristDown, clawSubsystem))
                 ),
                 new WaitCommand(0.3),
-                new ArmGotoAngle(ArmConstants.kTopPositionCube, ArmConstants.kTopSpeed, armSubsystem),
+                new ArmGotoAngle(ArmConstants.kTopPositionCube, armSubsystem),
 
-                //move forward
-                new DriveDistance(15, 0.8, chassisSubsystem),
-                new WaitCommand(0.25),
+                //move forward (this path sets where the robot starts on the field)
+                new FollowTrajectory(() -> AutonTrajectories.get(AutonTrajectories.kMiddleApproach), true, chassisSubsystem, poseEstimator),
 
                 //open claw 
                 new InstantCommand(clawSubsystem::openClaw, clawSubsystem),
@@ -58,26 +57,19 @@ public class AutonOnePieceMiddle extends SequentialCommandGroup{
                 
                 //move backwards, put wrist up, and lower arm while moving backwards.
                 new ParallelCommandGroup(
-                    new DriveDistance(123, -1, chassisSubsystem),
+                    new FollowTrajectory(() -> AutonTrajectories.get(AutonTrajectories.kMiddleLeaveCommunity), false, chassisSubsystem, poseEstimator),
                     new InstantCommand(clawSubsystem::wristUp, clawSubsystem),
                     new WaitCommand(2)
-                    .andThen(new ArmGotoAngle(ArmConstants.kBottomPosition, ArmConstants.kBottomPosition, armSubsystem))
+                    .andThen(new ArmGotoAngle(ArmConstants.kBottomPosition, armSubsystem))
                 ),
+                //let the charge station settle before driving back onto it
                 new WaitCommand(0.7),
 
                 //move forwards
-                new DriveDistance(47, 0.75, chassisSubsystem),
-                new WaitCommand(0.25),
+                new FollowTrajectory(() -> AutonTrajectories.get(AutonTrajectories.kMiddleToChargeStation), false, chassisSubsystem, poseEstimator),
 
                 //engage autobalance
-                new RepeatCommand(
-                    new AutoBalance(chassisSubsystem, ahrs, kInitialPitchOffset).withTimeout(0.7)
-                    .andThen(
-                    new BrakeDrive(chassisSubsystem,
-                        () -> 0,
-                        () -> 0).withTimeout(0.5)
-                  )
-                )
+                new BalanceChargeStation(chassisSubsystem, navSubsystem, kInitialPitchOffset)
             )
         );
     }
@@ -8,7 +8,6 @@ package frc.robot.commands.auton;
 import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
-import edu.wpi.first.wpilibj2.command.RepeatCommand;
 import edu.wpi.first.wpilibj2.command.ParallelCommandGroup;
 //import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 //import frc.robot.commands.chassis.AutoTurnRotations;
@@ -16,24 +15,24 @@ import edu.wpi.first.wpilibj2.command.ParallelCommandGroup;
 //Commands
 //import frc.robot.commands.chassis.DriveDistanceInches;
 import frc.robot.commands.chassis.DriveDistance;
-import frc.robot.commands.chassis.BrakeDrive;
 import frc.robot.commands.arm.ArmGotoAngle;
-import frc.robot.commands.chassis.AutoBalance;
+import frc.robot.commands.chassis.BalanceChargeStation;
 import frc.robot.commands.chassis.AutoTurn;
 
-import com.kauailabs.navx.frc.AHRS;
+import java.util.function.DoubleSupplier;
 
 //Constants
 import frc.robot.Constants.ArmConstants;
 
 //subsystems
 import frc.robot.subsystems.ChassisSubsystem;
+import frc.robot.subsystems.NavSubsystem;
 import frc.robot.subsystems.ClawSubsystem;
 import frc.robot.subsystems.ArmSubsystem;
 
 public class AutonOnePieceMiddle180 extends SequentialCommandGroup{
 
-    public AutonOnePieceMiddle180(ChassisSubsystem chassisSubsystem, ClawSubsystem clawSubsystem, ArmSubsystem armSubsystem, AHRS ahrs, double kInitialPitchOffset){
+    public AutonOnePieceMiddle180(ChassisSubsystem chassisSubsystem, ClawSubsystem clawSubsystem, ArmSubsystem armSubsystem, NavSubsystem navSubsystem, DoubleSupplier kInitialPitchOffset){
         addCommands(
             new SequentialCommandGroup(
                 //Startup processes:
@@ -44,7 +43,7 @@ public class AutonOnePieceMiddle180 extends SequentialCommandGroup{
 
                 //move arm to high level and put wrist down
                 new ParallelCommandGroup(
-                    new ArmGotoAngle(ArmConstants.kTopPositionCube, ArmConstants.kTopSpeed, armSubsystem),
+                    new ArmGotoAngle(ArmConstants.kTopPositionCube, armSubsystem),
                     new WaitCommand(0.1).andThen(new InstantCommand(clawSubsystem::wristDown, clawSubsystem))
                 ),
 
@@ -61,7 +60,7 @@ public class AutonOnePieceMiddle180 extends SequentialCommandGroup{
                     new DriveDistance(123, -1, chassisSubsystem),
                     new InstantCommand(clawSubsystem::wristUp, clawSubsystem),
                     new WaitCommand(2)
-                    .andThen(new ArmGotoAngle(ArmConstants.kBottomPosition, ArmConstants.kBottomPosition, armSubsystem))
+                    .andThen(new ArmGotoAngle(ArmConstants.kBottomPosition, armSubsystem))
                 ),
                 new WaitCommand(0.25),
 
@@ -74,14 +73,7 @@ public class AutonOnePieceMiddle180 extends SequentialCommandGroup{
                 new WaitCommand(0.25),
 
                 //engage autobalance
-                new RepeatCommand(
-                    new AutoBalance(chassisSubsystem, ahrs, kInitialPitchOffset).withTimeout(0.7)
-                    .andThen(
-                    new BrakeDrive(chassisSubsystem,
-                        () -> 0,
-                        () -> 0).withTimeout(0.5)
-                  )
-                )
+                new BalanceChargeStation(chassisSubsystem, navSubsystem, kInitialPitchOffset)
             )
         );
     }
@@ -8,7 +8,6 @@ package frc.robot.commands.auton;
 import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
-import edu.wpi.first.wpilibj2.command.RepeatCommand;
 import edu.wpi.first.wpilibj2.command.ParallelCommandGroup;
 //import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 //import frc.robot.commands.chassis.AutoTurnRotations;
@@ -16,23 +15,23 @@ import edu.wpi.first.wpilibj2.command.ParallelCommandGroup;
 //Commands
 //import frc.robot.commands.chassis.DriveDistanceInches;
 import frc.robot.commands.chassis.DriveDistance;
-import frc.robot.commands.chassis.BrakeDrive;
 import frc.robot.commands.arm.ArmGotoAngle;
-import frc.robot.commands.chassis.AutoBalance;
+import frc.robot.commands.chassis.BalanceChargeStation;
 
-import com.kauailabs.navx.frc.AHRS;
+import java.util.function.DoubleSupplier;
 
 //Constants
 import frc.robot.Constants.ArmConstants;
 
 //subsystems
 import frc.robot.subsystems.ChassisSubsystem;
+import frc.robot.subsystems.NavSubsystem;
 import frc.robot.subsystems.ClawSubsystem;
 import frc.robot.subsystems.ArmSubsystem;
 
 public class AutonOnePieceMiddleNoCommunity extends SequentialCommandGroup{
 
-    public AutonOnePieceMiddleNoCommunity(ChassisSubsystem chassisSubsystem, ClawSubsystem clawSubsystem, ArmSubsystem armSubsystem, AHRS ahrs, double kInitialPitchOffset){
+    public AutonOnePieceMiddleNoCommunity(ChassisSubsystem chassisSubsystem, ClawSubsystem clawSubsystem, ArmSubsystem armSubsystem, NavSubsystem navSubsystem, DoubleSupplier kInitialPitchOffset){
         addCommands(
             new SequentialCommandGroup(
                 //Startup processes:
@@ -42,11 +41,11 @@ public class AutonOnePieceMiddleNoCommunity extends SequentialCommandGroup{
 
                 //move arm to high level and put wrist down
                 new ParallelCommandGroup(
-                    new ArmGotoAngle(80, 0.9, armSubsystem),
+                    new ArmGotoAngle(80, armSubsystem),
                     new WaitCommand(0.18).andThen(new InstantCommand(clawSubsystem::wristDown, clawSubsystem))
                 ),
                 new WaitCommand(0.3),
-                new ArmGotoAngle(ArmConstants.kTopPositionCube, ArmConstants.kTopSpeed, armSubsystem),
+                new ArmGotoAngle(ArmConstants.kTopPositionCube, armSubsystem),
 
                 //move forward
                 new DriveDistance(15, 0.65, chassisSubsystem),
@@ -61,19 +60,12 @@ public class AutonOnePieceMiddleNoCommunity extends SequentialCommandGroup{
                     new DriveDistance(66, -1, chassisSubsystem),
                     new InstantCommand(clawSubsystem::wristUp, clawSubsystem),
                     new WaitCommand(2)
-                    .andThen(new ArmGotoAngle(ArmConstants.kBottomPosition, ArmConstants.kBottomPosition, armSubsystem))
+                    .andThen(new ArmGotoAngle(ArmConstants.kBottomPosition, armSubsystem))
                 ),
                 new WaitCommand(0.25),
 
                 //engage autobalance
-                new RepeatCommand(
-                    new AutoBalance(chassisSubsystem, ahrs, kInitialPitchOffset).withTimeout(0.6)
-                    .andThen(
-                    new BrakeDrive(chassisSubsystem,
-                        () -> 0,
-                        () -> 0).withTimeout(0.5)
-                  )
-                )
+                new BalanceChargeStation(chassisSubsystem, navSubsystem, kInitialPitchOffset)
             )
         );
     }
@@ -10,10 +10,9 @@ import edu.wpi.first.wpilibj2.command.WaitCommand;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
 import edu.wpi.first.wpilibj2.command.ParallelCommandGroup;
 //import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
-import frc.robot.commands.chassis.AutoTurn;
 //Commands
 //import frc.robot.commands.chassis.DriveDistanceInches;
-import frc.robot.commands.chassis.DriveDistance;
+import frc.robot.commands.chassis.FollowTrajectory;
 import frc.robot.commands.arm.ArmGotoAngle;
 
 //Constants
@@ -23,10 +22,11 @@ import frc.robot.Constants.ArmConstants;
 import frc.robot.subsystems.ChassisSubsystem;
 import frc.robot.subsystems.ClawSubsystem;
 import frc.robot.subsystems.ArmSubsystem;
+import frc.robot.subsystems.PoseEstimatorSubsystem;
 
 public class AutonOnePieceSide extends SequentialCommandGroup{
 
-    public AutonOnePieceSide(ChassisSubsystem chassisSubsystem, ClawSubsystem clawSubsystem, ArmSubsystem armSubsystem){
+    public AutonOnePieceSide(ChassisSubsystem chassisSubsystem, ClawSubsystem clawSubsystem, ArmSubsystem armSubsystem, PoseEstimatorSubsystem poseEstimator){
         addCommands(
             new SequentialCommandGroup(
                 //Startup processes:
@@ -36,34 +36,26 @@ public class AutonOnePieceSide extends SequentialCommandGroup{
 
                 //move arm to high level and put wrist down
                 new ParallelCommandGroup(
-                    new ArmGotoAngle(80, 0.9, armSubsystem),
+                    new ArmGotoAngle(80, armSubsystem),
                     new WaitCommand(0.18).andThen(new InstantCommand(clawSubsystem::wristDown, clawSubsystem))
                 ),
                 new WaitCommand(0.3),
-                new ArmGotoAngle(ArmConstants.kTopPositionCube, ArmConstants.kTopSpeed, armSubsystem),
+                new ArmGotoAngle(ArmConstants.kTopPositionCube, armSubsystem),
 
-                //move forward
-                new DriveDistance(15, 0.7, chassisSubsystem),
-                new WaitCommand(0.25),
+                //move forward (this path sets where the robot starts on the field)
+                new FollowTrajectory(() -> AutonTrajectories.get(AutonTrajectories.kSideApproach), true, chassisSubsystem, poseEstimator),
 
                 //open claw 
                 new InstantCommand(clawSubsystem::openClaw, clawSubsystem),
                 new WaitCommand(0.2),
 
-                //backup so the arm won't hit the goal
-                new DriveDistance(15, -0.7, chassisSubsystem),
-
-                //backup out of community zone while lowering arm and putting the claw up
+                //backup out of community zone while lowering arm and putting the claw up, turning towards the game pieces on the way
+                //(this used to be two DriveDistances, a wait and an AutoTurn)
                 new ParallelCommandGroup(
-                    new DriveDistance(85, -0.8, chassisSubsystem),
+                    new FollowTrajectory(() -> AutonTrajectories.get(AutonTrajectories.kSideLeaveCommunity), false, chassisSubsystem, poseEstimator),
                     new InstantCommand(clawSubsystem::wristUp, clawSubsystem),
-                    new ArmGotoAngle(ArmConstants.kBottomPosition, ArmConstants.kBottomSpeed, armSubsystem)
-                ),
-                new WaitCommand(0.7),
-                
-                //rotate towards game pieces
-                //new AutoTurn(chassisSubsystem, 64, 0.8)
-                new AutoTurn(chassisSubsystem, 64, 0.8)
+                    new ArmGotoAngle(ArmConstants.kBottomPosition, armSubsystem)
+                )
             )
         );
     }
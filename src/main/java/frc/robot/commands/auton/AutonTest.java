@@ -31,11 +31,11 @@ public class AutonTest extends SequentialCommandGroup{
 
                 //move arm to high level and put wrist down
                 new ParallelCommandGroup(
-                    new ArmGotoAngle(80, 0.9, armSubsystem),
+                    new ArmGotoAngle(80, armSubsystem),
                     new WaitCommand(0.18).andThen(new InstantCommand(clawSubsystem::wristDown, clawSubsystem))
                 ),
                 new WaitCommand(0.3),
-                new ArmGotoAngle(ArmConstants.kTopPositionCube, ArmConstants.kTopSpeed, armSubsystem)
+                new ArmGotoAngle(ArmConstants.kTopPositionCube, armSubsystem)
 
                 */
                 new SequentialCommandGroup(
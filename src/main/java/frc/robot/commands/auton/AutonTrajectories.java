@@ -0,0 +1,220 @@
+package frc.robot.commands.auton;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.DifferentialDriveKinematics;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.TrajectoryConfig;
+import edu.wpi.first.math.trajectory.TrajectoryGenerator;
+import edu.wpi.first.math.trajectory.constraint.DifferentialDriveVoltageConstraint;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+
+import frc.robot.util.TrajectoryFile;
+
+//Constants
+import frc.robot.Constants.ChassisConstants;
+
+/**
+ * Every path our autons drive, by name. Poses are in meters from where the robot starts (facing the grid is +x),
+ * and every path in one auton continues from where the last one ended.
+ *
+ * <p>Distances are the same ones the old DriveDistance steps used (those were in motor rotations), so the autos end up
+ * in the same places, just without stopping in between.
+ *
+ * <p>Generating a path takes a few milliseconds, which is a big chunk of a 20ms loop, so paths are saved as binary
+ * files in deploy/trajectories. On boot {@link #preload()} runs on a startup thread and reads them back (or generates
+ * any that are missing or out of date), and commands only ask for them by name once auton starts.
+ * {@code ./gradlew deploy} runs {@link #main} (the {@code generateTrajectories} task) first, so the files are always current.
+ */
+public final class AutonTrajectories {
+    //Side auton: score, then back out of the community while turning towards the game pieces (AutoTurn used 64 degrees clockwise)
+    public static final String kSideApproach = "SideApproach";
+    public static final String kSideLeaveCommunity = "SideLeaveCommunity";
+
+    //Middle auton: score, back over the charge station out of the community, then drive back onto it
+    public static final String kMiddleApproach = "MiddleApproach";
+    public static final String kMiddleLeaveCommunity = "MiddleLeaveCommunity";
+    public static final String kMiddleToChargeStation = "MiddleToChargeStation";
+
+    private static final String kDirectoryName = "trajectories";
+    private static final String kExtension = ".traj";
+
+    private static final Pose2d kStart = new Pose2d();
+    //DriveDistance(15) forward to score
+    private static final Pose2d kScoring = new Pose2d(rotations(15), 0, new Rotation2d());
+    //DriveDistance(15) + DriveDistance(85) backwards, then AutoTurn 64 degrees clockwise. The sideways offset is
+    //just where the curve ends up, check it on the field.
+    private static final Pose2d kSideEnd = new Pose2d(rotations(15 - 100), 0.6, Rotation2d.fromDegrees(-64));
+    //DriveDistance(123) backwards, then DriveDistance(47) forwards
+    private static final Pose2d kMiddleOutsideCommunity = new Pose2d(rotations(15 - 123), 0, new Rotation2d());
+    private static final Pose2d kMiddleChargeStation = new Pose2d(rotations(15 - 123 + 47), 0, new Rotation2d());
+
+    //Every path, in the order the autons drive them
+    private static final Map<String, PathSpec> kPaths = new LinkedHashMap<>();
+    static {
+        kPaths.put(kSideApproach, new PathSpec(kStart, kScoring, ChassisConstants.kMaxSpeedMetersPerSecond, false));
+        kPaths.put(kSideLeaveCommunity, new PathSpec(kScoring, kSideEnd, ChassisConstants.kMaxSpeedMetersPerSecond, true));
+        kPaths.put(kMiddleApproach, new PathSpec(kStart, kScoring, ChassisConstants.kMaxSpeedMetersPerSecond, false));
+        kPaths.put(kMiddleLeaveCommunity, new PathSpec(kScoring, kMiddleOutsideCommunity, ChassisConstants.kChargeStationMaxSpeedMetersPerSecond, true));
+        kPaths.put(kMiddleToChargeStation, new PathSpec(kMiddleOutsideCommunity, kMiddleChargeStation, ChassisConstants.kChargeStationMaxSpeedMetersPerSecond, false));
+    }
+
+    private static final Map<String, Trajectory> s_trajectories = new HashMap<>();
+
+    private AutonTrajectories(){}
+
+    //Motor rotations (what DriveDistance used) to meters
+    private static double rotations(double rotations){
+        return (rotations / ChassisConstants.kInchesToRotationsConversionFactor) * ChassisConstants.kMetersPerInch;
+    }
+
+    public static List<String> getNames(){
+        return List.copyOf(kPaths.keySet());
+    }
+
+    private static File getFile(File directory, String name){
+        return new File(directory, name + kExtension);
+    }
+
+    private static File getDeployDirectory(){
+        return new File(Filesystem.getDeployDirectory(), kDirectoryName);
+    }
+
+    /**
+     * Returns a path by name. Loads it from deploy/trajectories the first time (or generates and saves it if the file
+     * is missing or was made from an older version of the path). Call {@link #preload()} at startup so this never
+     * has to do that in the middle of auton.
+     */
+    public static synchronized Trajectory get(String name){
+        Trajectory trajectory = s_trajectories.get(name);
+        if(trajectory == null){
+            trajectory = loadOrGenerate(getDeployDirectory(), name);
+            s_trajectories.put(name, trajectory);
+        }
+        return trajectory;
+    }
+
+    private static Trajectory loadOrGenerate(File directory, String name){
+        PathSpec spec = kPaths.get(name);
+        if(spec == null){
+            throw new IllegalArgumentException("No auton trajectory called " + name);
+        }
+
+        File file = getFile(directory, name);
+        try {
+            Trajectory cached = TrajectoryFile.read(file, spec.getHash());
+            if(cached != null){
+                return cached;
+            }
+        }
+        catch (IOException e) {
+            DriverStation.reportWarning("Couldn't read " + file + ", regenerating it: " + e.getMessage(), false);
+        }
+
+        DriverStation.reportWarning("Generating auton path " + name + " (no up to date file in " + directory + ")", false);
+        Trajectory trajectory = spec.generate();
+        try {
+            TrajectoryFile.write(file, trajectory, spec.getHash());
+        }
+        catch (IOException e) {
+            DriverStation.reportWarning("Couldn't save " + file + ": " + e.getMessage(), false);
+        }
+        return trajectory;
+    }
+
+    //Loads every path. RobotContainer runs this on a startup thread so the first auton loop never has to.
+    public static void preload(){
+        for(String name : getNames()){
+            get(name);
+        }
+    }
+
+    /**
+     * Puts how long every path takes to drive on the dashboard ("Auton path time/<name>"). Driving time only, waits
+     * and arm moves aren't included. Only runs once at startup, so it uses SmartDashboard directly.
+     *
+     * @return seconds for each path, by name
+     */
+    public static Map<String, Double> preview(){
+        Map<String, Double> times = new LinkedHashMap<>();
+        for(String name : getNames()){
+            Trajectory trajectory = get(name);
+            times.put(name, trajectory.getTotalTimeSeconds());
+            SmartDashboard.putNumber("Auton path time/" + name, trajectory.getTotalTimeSeconds());
+        }
+        return times;
+    }
+
+    /**
+     * Regenerates every path file and prints the path times. Runs on a laptop, no robot needed.
+     *
+     * @param args optionally the directory to write to (defaults to src/main/deploy/trajectories)
+     */
+    public static void main(String[] args){
+        File directory = (args.length > 0) ? new File(args[0]) : new File("src/main/deploy", kDirectoryName);
+        for(String name : getNames()){
+            PathSpec spec = kPaths.get(name);
+            Trajectory trajectory = spec.generate();
+            try {
+                TrajectoryFile.write(getFile(directory, name), trajectory, spec.getHash());
+            }
+            catch (IOException e) {
+                throw new RuntimeException("Couldn't write " + name, e);
+            }
+            System.out.println(String.format("Auton path %-24s %.2fs  -> %s", name, trajectory.getTotalTimeSeconds(), getFile(directory, name)));
+        }
+    }
+
+    //Everything a path gets generated from. Its hash tells us whether a saved file is still up to date.
+    private static final class PathSpec {
+        private final Pose2d m_start;
+        private final Pose2d m_end;
+        private final double m_maxSpeed;
+        private final boolean m_reversed;
+
+        PathSpec(Pose2d start, Pose2d end, double maxSpeed, boolean reversed){
+            m_start = start;
+            m_end = end;
+            m_maxSpeed = maxSpeed;
+            m_reversed = reversed;
+        }
+
+        Trajectory generate(){
+            DifferentialDriveKinematics kinematics = new DifferentialDriveKinematics(ChassisConstants.kTrackWidthMeters);
+            TrajectoryConfig config = new TrajectoryConfig(m_maxSpeed, ChassisConstants.kMaxAccelerationMetersPerSecondSquared)
+                .setKinematics(kinematics)
+                .addConstraint(new DifferentialDriveVoltageConstraint(
+                    new SimpleMotorFeedforward(ChassisConstants.kS, ChassisConstants.kV, ChassisConstants.kA),
+                    kinematics,
+                    ChassisConstants.kMaxTrajectoryVoltage));
+            config.setReversed(m_reversed);
+            return TrajectoryGenerator.generateTrajectory(m_start, List.of(), m_end, config);
+        }
+
+        //Includes the drivetrain constants too, since changing those changes the path timing
+        long getHash(){
+            String description = "start=" + m_start.getX() + "," + m_start.getY() + "," + m_start.getRotation().getRadians()
+                + " end=" + m_end.getX() + "," + m_end.getY() + "," + m_end.getRotation().getRadians()
+                + " max=" + m_maxSpeed + " reversed=" + m_reversed
+                + " accel=" + ChassisConstants.kMaxAccelerationMetersPerSecondSquared
+                + " track=" + ChassisConstants.kTrackWidthMeters
+                + " ff=" + ChassisConstants.kS + "/" + ChassisConstants.kV + "/" + ChassisConstants.kA
+                + " volts=" + ChassisConstants.kMaxTrajectoryVoltage;
+            CRC32 crc = new CRC32();
+            crc.update(description.getBytes(StandardCharsets.UTF_8));
+            return crc.getValue();
+        }
+    }
+}
@@ -5,13 +5,15 @@
 package frc.robot.commands.chassis;
 
 //ShuffleBoard library
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.DoubleChannel;
 
-//NAVX library
-import com.kauailabs.navx.frc.AHRS;
+//Suppliers (for lambda functions)
+import java.util.function.DoubleSupplier;
 
 //Subsystem
 import frc.robot.subsystems.ChassisSubsystem;
+import frc.robot.subsystems.NavSubsystem;
 
 //Constants
 import frc.robot.Constants.ChassisConstants;
@@ -21,13 +23,22 @@ import edu.wpi.first.wpilibj2.command.CommandBase;
 
 public class AutoBalance extends CommandBase {
     private final ChassisSubsystem m_drive;
-    private AHRS NavX2;
-    private final double kInitialPitchOffset;
+    private final NavSubsystem m_nav;
+    private final DoubleSupplier kInitialPitchOffset;
+
+    //Dashboard channels
+    private final DoubleChannel m_speedEntry = Telemetry.getInstance().addDouble("AutoBalanceSpeed");
+
     boolean autoBalanceXMode = false;
 
-    public AutoBalance(ChassisSubsystem subsystem, AHRS Nav, double pitchOffset){
+    public AutoBalance(ChassisSubsystem subsystem, NavSubsystem nav, double pitchOffset){
+        this(subsystem, nav, () -> pitchOffset);
+    }
+
+    //The pitch offset is measured in the background after startup, so it's read when the command runs instead of when it's made
+    public AutoBalance(ChassisSubsystem subsystem, NavSubsystem nav, DoubleSupplier pitchOffset){
         this.m_drive = subsystem;
-        this.NavX2 = Nav;
+        this.m_nav = nav;
         this.kInitialPitchOffset = pitchOffset; 
 
         addRequirements(m_drive);
@@ -41,7 +52,7 @@ public class AutoBalance extends CommandBase {
     @Override
     public void execute() {
         //NOTE: when the robot lifts upwards by the front, the pitch is negative
-        double pitchAngleDegrees = -NavX2.getPitch() - kInitialPitchOffset;
+        double pitchAngleDegrees = -m_nav.getSnapshot().getPitch() - kInitialPitchOffset.getAsDouble();
 
         if ( !autoBalanceXMode && 
             (Math.abs(pitchAngleDegrees) >= 
@@ -78,7 +89,7 @@ public class AutoBalance extends CommandBase {
             
             m_drive.drive(xAxisSpeed, 0);
 
-            SmartDashboard.putNumber("AutoBalanceSpeed", xAxisSpeed);
+            m_speedEntry.set(xAxisSpeed);
         }
 
         //If the robot is balanced, it should tell the motors to stop moving.
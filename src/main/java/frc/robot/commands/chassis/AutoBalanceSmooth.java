@@ -5,13 +5,16 @@
 package frc.robot.commands.chassis;
 
 //ShuffleBoard library
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.DoubleChannel;
+import frc.robot.util.Telemetry.BooleanChannel;
 
-//NAVX library
-import com.kauailabs.navx.frc.AHRS;
+//Suppliers (for lambda functions)
+import java.util.function.DoubleSupplier;
 
 //Subsystem
 import frc.robot.subsystems.ChassisSubsystem;
+import frc.robot.subsystems.NavSubsystem;
 
 //Constants
 import frc.robot.Constants.ChassisConstants;
@@ -21,14 +24,23 @@ import edu.wpi.first.wpilibj2.command.CommandBase;
 
 public class AutoBalanceSmooth extends CommandBase {
     private final ChassisSubsystem m_drive;
-    private AHRS NavX2;
-    private final double kInitialPitchOffset;
+    private final NavSubsystem m_nav;
+    private final DoubleSupplier kInitialPitchOffset;
+
+    //Dashboard channels
+    private final DoubleChannel m_speedEntry = Telemetry.getInstance().addDouble("AutoBalanceSpeed");
+    private final BooleanChannel m_balancingEntry = Telemetry.getInstance().addBoolean("IsAutobalancing?");
+
     boolean autoBalanceMode = false;
-    private double previousPitch = 0;
 
-    public AutoBalanceSmooth(ChassisSubsystem subsystem, AHRS Nav, double pitchOffset){
+    public AutoBalanceSmooth(ChassisSubsystem subsystem, NavSubsystem nav, double pitchOffset){
+        this(subsystem, nav, () -> pitchOffset);
+    }
+
+    //The pitch offset is measured in the background after startup, so it's read when the command runs instead of when it's made
+    public AutoBalanceSmooth(ChassisSubsystem subsystem, NavSubsystem nav, DoubleSupplier pitchOffset){
         this.m_drive = subsystem;
-        this.NavX2 = Nav;
+        this.m_nav = nav;
         this.kInitialPitchOffset = pitchOffset; 
 
         addRequirements(m_drive);
@@ -37,15 +49,15 @@ public class AutoBalanceSmooth extends CommandBase {
     @Override
     public void initialize(){
         m_drive.setBrakeMode();
-        previousPitch = -NavX2.getPitch() - kInitialPitchOffset;
     }
 
     @Override
     public void execute() {
-        double pitchAngleDegrees = -NavX2.getPitch() - kInitialPitchOffset;
+        double pitchAngleDegrees = -m_nav.getSnapshot().getPitch() - kInitialPitchOffset.getAsDouble();
 
-        double changeInPitch = pitchAngleDegrees-previousPitch;
-        previousPitch = pitchAngleDegrees;
+        //How much the pitch moves in one loop. Comes from the NavX's fitted pitch rate instead of the difference
+        //between two 20ms samples, which was mostly noise. (Negated like the pitch is.)
+        double changeInPitch = -m_nav.getSnapshot().getPitchRate() * 0.02;
 
         //This pseudocode relies on the idea that the sign of the pitch and the sign of the changeinpitch will be the same
 
@@ -77,7 +89,7 @@ public class AutoBalanceSmooth extends CommandBase {
         else{
             autoBalanceMode = false;
         }
-        SmartDashboard.putBoolean("IsAutobalancing?", autoBalanceMode);
+        m_balancingEntry.set(autoBalanceMode);
         
 
         /*if (!autoBalanceXMode && 
@@ -108,7 +120,7 @@ public class AutoBalanceSmooth extends CommandBase {
             
             m_drive.drive(xAxisSpeed, 0);
 
-            SmartDashboard.putNumber("AutoBalanceSpeed", xAxisSpeed);
+            m_speedEntry.set(xAxisSpeed);
         }
 
         //If the robot is balanced, it should tell the motors to stop moving.
@@ -0,0 +1,70 @@
+package frc.robot.commands.chassis;
+
+//ShuffleBoard library
+import frc.robot.util.BalanceController;
+import frc.robot.util.GyroSnapshot;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.BooleanChannel;
+import frc.robot.util.Telemetry.DoubleChannel;
+
+//Suppliers (for lambda functions)
+import java.util.function.DoubleSupplier;
+
+//Subsystems
+import frc.robot.subsystems.ChassisSubsystem;
+import frc.robot.subsystems.NavSubsystem;
+
+
+import edu.wpi.first.wpilibj2.command.CommandBase;
+
+/**
+ * Balances on the charge station in one approach using {@link BalanceController} (pitch, pitch rate and wheel speed),
+ * instead of AutoBalance's drive/brake pulses. Holds still once it's level and keeps correcting if the station moves,
+ * so it never finishes on its own. Run it at the end of auton or while a button is held.
+ */
+public class BalanceChargeStation extends CommandBase {
+    private final ChassisSubsystem m_drive;
+    private final NavSubsystem m_nav;
+    private final DoubleSupplier m_initialPitchOffset;
+    private final BalanceController m_controller = new BalanceController();
+
+    //Dashboard channels
+    private final DoubleChannel m_voltsEntry = Telemetry.getInstance().addDouble("Balance volts", 0.05, 0.05);
+    private final BooleanChannel m_tippingEntry = Telemetry.getInstance().addBoolean("Balance tipping");
+    private final BooleanChannel m_levelEntry = Telemetry.getInstance().addBoolean("Balance level");
+
+    //The pitch offset is measured in the background after startup, so it's read when the command runs instead of when it's made
+    public BalanceChargeStation(ChassisSubsystem subsystem, NavSubsystem nav, DoubleSupplier pitchOffset){
+        m_drive = subsystem;
+        m_nav = nav;
+        m_initialPitchOffset = pitchOffset;
+
+        addRequirements(m_drive);
+    }
+
+    @Override
+    public void initialize(){
+        m_drive.setBrakeMode();
+    }
+
+    @Override
+    public void execute(){
+        GyroSnapshot gyro = m_nav.getSnapshot();
+        //NOTE: when the robot lifts upwards by the front, the NavX pitch is negative
+        double pitch = -gyro.getPitch() - m_initialPitchOffset.getAsDouble();
+        double pitchRate = -gyro.getPitchRate();
+        double velocity = (m_drive.getLeftVelocityMetersPerSecond() + m_drive.getRightVelocityMetersPerSecond()) / 2;
+
+        double volts = m_controller.calculate(pitch, pitchRate, velocity);
+        m_drive.tankDriveVolts(volts, volts);
+
+        m_voltsEntry.set(volts);
+        m_tippingEntry.set(m_controller.isTipping());
+        m_levelEntry.set(m_controller.isLevel());
+    }
+
+    @Override
+    public void end(boolean interrupted){
+        m_drive.tankDriveVolts(0, 0);
+    }
+}
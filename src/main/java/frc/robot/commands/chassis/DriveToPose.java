@@ -0,0 +1,79 @@
+package frc.robot.commands.chassis;
+
+import frc.robot.subsystems.ChassisSubsystem;
+import frc.robot.subsystems.PoseEstimatorSubsystem;
+
+import frc.robot.Constants.PoseConstants;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+
+//Drives to a spot on the field (turning towards it on the way), then turns to face the pose's heading
+public class DriveToPose extends CommandBase{
+    private final ChassisSubsystem m_drive;
+    private final PoseEstimatorSubsystem m_poseEstimator;
+    private final double m_targetX;
+    private final double m_targetY;
+    private final double m_targetHeading;
+    private boolean m_complete = false;
+
+    public DriveToPose(Pose2d target, ChassisSubsystem drive, PoseEstimatorSubsystem poseEstimator){
+        m_targetX = target.getX();
+        m_targetY = target.getY();
+        m_targetHeading = target.getRotation().getRadians();
+        m_drive = drive;
+        m_poseEstimator = poseEstimator;
+
+        //The pose estimator is only read from, so it isn't a requirement
+        addRequirements(m_drive);
+    }
+
+    @Override
+    public void initialize(){
+        m_complete = false;
+
+        m_drive.setBrakeMode();
+    }
+
+    @Override
+    public void execute(){
+        double dx = m_targetX - m_poseEstimator.getX();
+        double dy = m_targetY - m_poseEstimator.getY();
+        double distance = Math.hypot(dx, dy);
+
+        double forwardSpeed = 0;
+        double headingError;
+
+        if(distance > PoseConstants.kDriveToPoseTolerance){
+            //Still driving: point at the target and slow down the further off we're pointing
+            headingError = PoseEstimatorSubsystem.angleDifference(Math.atan2(dy, dx), m_poseEstimator.getHeading());
+            forwardSpeed = MathUtil.clamp(distance * PoseConstants.kDriveToPoseDriveP, 0, PoseConstants.kDriveToPoseMaxSpeed)
+                * Math.max(0, Math.cos(headingError));
+        }
+        else{
+            //At the spot: just turn to the final heading
+            headingError = PoseEstimatorSubsystem.angleDifference(m_targetHeading, m_poseEstimator.getHeading());
+            if(Math.abs(headingError) < PoseConstants.kDriveToPoseAngleTolerance){
+                m_drive.drive(0.0, 0.0);
+                m_complete = true;
+                return;
+            }
+        }
+
+        double rotation = MathUtil.clamp(headingError * PoseConstants.kDriveToPoseTurnP, -PoseConstants.kDriveToPoseMaxTurn, PoseConstants.kDriveToPoseMaxTurn);
+
+        //drive() takes clockwise rotation (like the joystick), the heading error is counterclockwise
+        m_drive.drive(forwardSpeed, -rotation);
+    }
+
+    @Override
+    public void end(boolean interrupted){
+        m_drive.drive(0.0, 0.0);
+    }
+
+    @Override
+    public boolean isFinished(){
+        return m_complete;
+    }
+}
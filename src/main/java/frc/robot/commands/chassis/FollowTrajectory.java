@@ -0,0 +1,225 @@
+package frc.robot.commands.chassis;
+
+import frc.robot.subsystems.ChassisSubsystem;
+import frc.robot.subsystems.PoseEstimatorSubsystem;
+
+import frc.robot.Constants.ChassisConstants;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Drives along a time-parameterized trajectory. Each loop it looks up where we should be, uses a Ramsete controller
+ * to correct for where the pose estimator says we actually are, then turns the wheel speeds into volts with
+ * feedforward (kS/kV/kA) plus a P loop on each side's measured velocity.
+ *
+ * <p>Unlike DriveDistance + AutoTurn this never stops between steps, so a whole path is one smooth motion.
+ *
+ * <p>The Ramsete and kinematics math is the same as RamseteController and DifferentialDriveKinematics, just done on
+ * plain doubles. Those make a handful of new Pose2d/State/ChassisSpeeds objects every loop, and this runs every loop
+ * for most of auton. Sampling is an approximation of Trajectory.sample(): the pose between two states is on the
+ * straight line between them instead of WPILib's arc. With how close together the generated states are (at most
+ * 0.127m and 5 degrees apart) that's off by about a millimeter at most.
+ */
+public class FollowTrajectory extends CommandBase{
+    private final ChassisSubsystem m_drive;
+    private final PoseEstimatorSubsystem m_poseEstimator;
+    //Looked up when the command starts, so building an auton doesn't load or generate anything
+    private final Supplier<Trajectory> m_trajectorySupplier;
+    private Trajectory m_trajectory;
+    //Only the first path of an auton should reset the pose, later ones start wherever the last one ended
+    private final boolean m_resetPose;
+
+    private final SimpleMotorFeedforward m_feedforward = new SimpleMotorFeedforward(ChassisConstants.kS, ChassisConstants.kV, ChassisConstants.kA);
+    private final PIDController m_leftController = new PIDController(ChassisConstants.kPDriveVelocity, 0, 0);
+    private final PIDController m_rightController = new PIDController(ChassisConstants.kPDriveVelocity, 0, 0);
+
+    private final Timer m_timer = new Timer();
+    private double m_previousTime;
+    private double m_previousLeftSpeed;
+    private double m_previousRightSpeed;
+
+    //Where the path says we should be this loop (filled in by sample())
+    private int m_sampleIndex;
+    private double m_targetX;
+    private double m_targetY;
+    private double m_targetHeading;
+    private double m_targetVelocity;
+    private double m_targetCurvature;
+
+    //Wheel speeds (m/s) from toWheelSpeeds()
+    private double m_leftSpeed;
+    private double m_rightSpeed;
+
+    public FollowTrajectory(Trajectory trajectory, boolean resetPose, ChassisSubsystem drive, PoseEstimatorSubsystem poseEstimator){
+        this(() -> trajectory, resetPose, drive, poseEstimator);
+    }
+
+    //Usually called with AutonTrajectories.get("name") as the supplier
+    public FollowTrajectory(Supplier<Trajectory> trajectory, boolean resetPose, ChassisSubsystem drive, PoseEstimatorSubsystem poseEstimator){
+        m_trajectorySupplier = trajectory;
+        m_resetPose = resetPose;
+        m_drive = drive;
+        m_poseEstimator = poseEstimator;
+
+        addRequirements(m_drive);
+    }
+
+    @Override
+    public void initialize(){
+        m_trajectory = m_trajectorySupplier.get();
+        m_drive.setBrakeMode();
+
+        if(m_resetPose){
+            m_poseEstimator.resetPose(m_trajectory.getInitialPose());
+        }
+
+        //Start from the speeds the path starts with so the first loop doesn't see a huge acceleration
+        m_sampleIndex = 0;
+        sample(0);
+        toWheelSpeeds(m_targetVelocity, m_targetCurvature * m_targetVelocity);
+        m_previousLeftSpeed = m_leftSpeed;
+        m_previousRightSpeed = m_rightSpeed;
+        m_previousTime = -1;
+
+        m_leftController.reset();
+        m_rightController.reset();
+        m_timer.reset();
+        m_timer.start();
+    }
+
+    @Override
+    public void execute(){
+        double time = m_timer.get();
+        double dt = time - m_previousTime;
+
+        if(m_previousTime < 0){
+            //First loop, nothing to take a derivative of yet
+            m_drive.tankDriveVolts(0, 0);
+            m_previousTime = time;
+            return;
+        }
+
+        sample(time);
+        ramsete();
+        double leftSpeed = m_leftSpeed;
+        double rightSpeed = m_rightSpeed;
+
+        double leftFeedforward = m_feedforward.calculate(leftSpeed, (leftSpeed - m_previousLeftSpeed) / dt);
+        double rightFeedforward = m_feedforward.calculate(rightSpeed, (rightSpeed - m_previousRightSpeed) / dt);
+
+        double leftOutput = leftFeedforward + m_leftController.calculate(m_drive.getLeftVelocityMetersPerSecond(), leftSpeed);
+        double rightOutput = rightFeedforward + m_rightController.calculate(m_drive.getRightVelocityMetersPerSecond(), rightSpeed);
+
+        m_drive.tankDriveVolts(leftOutput, rightOutput);
+
+        m_previousTime = time;
+        m_previousLeftSpeed = leftSpeed;
+        m_previousRightSpeed = rightSpeed;
+    }
+
+    //Close to Trajectory.sample() (see the class comment): fills in the m_target values for a time along the path
+    private void sample(double time){
+        List<Trajectory.State> states = m_trajectory.getStates();
+        int last = states.size() - 1;
+
+        //Time only goes forward, so carry on from the state we used last loop instead of searching from the start
+        while((m_sampleIndex < last) && (states.get(m_sampleIndex + 1).timeSeconds <= time)){
+            m_sampleIndex++;
+        }
+        Trajectory.State previous = states.get(m_sampleIndex);
+        if((m_sampleIndex == last) || (time <= previous.timeSeconds)){
+            setTarget(previous);
+            return;
+        }
+        Trajectory.State next = states.get(m_sampleIndex + 1);
+
+        //Like State.interpolate(): constant acceleration from the previous state, then find how far along the
+        //straight line between the two poses that puts us
+        double deltaT = time - previous.timeSeconds;
+        boolean reversing = (previous.velocityMetersPerSecond < 0)
+            || ((Math.abs(previous.velocityMetersPerSecond) < 1e-9) && (previous.accelerationMetersPerSecondSq < 0));
+        double velocity = previous.velocityMetersPerSecond + (previous.accelerationMetersPerSecondSq * deltaT);
+        double distance = (previous.velocityMetersPerSecond * deltaT + 0.5 * previous.accelerationMetersPerSecondSq * deltaT * deltaT)
+            * (reversing ? -1.0 : 1.0);
+
+        Pose2d start = previous.poseMeters;
+        Pose2d end = next.poseMeters;
+        double dx = end.getX() - start.getX();
+        double dy = end.getY() - start.getY();
+        double length = Math.hypot(dx, dy);
+        //Clamped like WPILib (Pose2d.interpolate() and MathUtil.interpolate() both stop at the two states), so when
+        //the constant acceleration guess overshoots the next state we don't run past it
+        double fraction = MathUtil.clamp((length > 0) ? (distance / length) : 0, 0, 1);
+
+        double startHeading = start.getRotation().getRadians();
+        m_targetX = start.getX() + (dx * fraction);
+        m_targetY = start.getY() + (dy * fraction);
+        m_targetHeading = startHeading + (PoseEstimatorSubsystem.angleDifference(end.getRotation().getRadians(), startHeading) * fraction);
+        m_targetVelocity = velocity;
+        m_targetCurvature = previous.curvatureRadPerMeter + ((next.curvatureRadPerMeter - previous.curvatureRadPerMeter) * fraction);
+    }
+
+    private void setTarget(Trajectory.State state){
+        m_targetX = state.poseMeters.getX();
+        m_targetY = state.poseMeters.getY();
+        m_targetHeading = state.poseMeters.getRotation().getRadians();
+        m_targetVelocity = state.velocityMetersPerSecond;
+        m_targetCurvature = state.curvatureRadPerMeter;
+    }
+
+    //RamseteController.calculate(): corrects the path's speeds for how far off the path the pose estimator says we are
+    private void ramsete(){
+        double heading = m_poseEstimator.getHeading();
+        double dx = m_targetX - m_poseEstimator.getX();
+        double dy = m_targetY - m_poseEstimator.getY();
+
+        //The error in the robot's own frame (x is forwards)
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        double errorX = (dx * cos) + (dy * sin);
+        double errorY = (-dx * sin) + (dy * cos);
+        double errorHeading = PoseEstimatorSubsystem.angleDifference(m_targetHeading, heading);
+
+        double velocityRef = m_targetVelocity;
+        double angularVelocityRef = velocityRef * m_targetCurvature;
+        double k = 2.0 * ChassisConstants.kRamseteZeta
+            * Math.sqrt((angularVelocityRef * angularVelocityRef) + (ChassisConstants.kRamseteB * velocityRef * velocityRef));
+
+        double velocity = (velocityRef * Math.cos(errorHeading)) + (k * errorX);
+        double angularVelocity = angularVelocityRef + (k * errorHeading) + (ChassisConstants.kRamseteB * velocityRef * sinc(errorHeading) * errorY);
+        toWheelSpeeds(velocity, angularVelocity);
+    }
+
+    private static double sinc(double x){
+        if(Math.abs(x) < 1e-9){
+            return 1.0 - ((x * x) / 6.0);
+        }
+        return Math.sin(x) / x;
+    }
+
+    //DifferentialDriveKinematics.toWheelSpeeds()
+    private void toWheelSpeeds(double velocity, double angularVelocity){
+        m_leftSpeed = velocity - (ChassisConstants.kTrackWidthMeters / 2 * angularVelocity);
+        m_rightSpeed = velocity + (ChassisConstants.kTrackWidthMeters / 2 * angularVelocity);
+    }
+
+    @Override
+    public void end(boolean interrupted){
+        m_timer.stop();
+        m_drive.tankDriveVolts(0, 0);
+    }
+
+    @Override
+    public boolean isFinished(){
+        return m_timer.hasElapsed(m_trajectory.getTotalTimeSeconds());
+    }
+}
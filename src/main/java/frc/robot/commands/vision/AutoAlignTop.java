@@ -6,7 +6,8 @@ import frc.robot.subsystems.ChassisSubsystem;
 
 import frc.robot.subsystems.VisionSubsystem;
 import frc.robot.subsystems.LEDSubsystem.LEDState;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.DoubleChannel;
 import frc.robot.subsystems.LEDSubsystem;
 
 import frc.robot.Constants.VisionConstants;
@@ -24,6 +25,10 @@ public class AutoAlignTop extends CommandBase {
     boolean isAlignDistacne = false;
     boolean isAlignRotation = false;
 
+    //Dashboard channels
+    private final DoubleChannel m_forwardSpeedEntry = Telemetry.getInstance().addDouble("motor speed align forwardspeed");
+    private final DoubleChannel m_rotationEntry = Telemetry.getInstance().addDouble("motor speed align rotation");
+
 
     //If you want to contoll whether or not the command has ended, you should store it in some sort of variable:
     private boolean m_complete = false;
@@ -65,7 +70,8 @@ public class AutoAlignTop extends CommandBase {
     @Override
     public void execute(){
         double y = m_visionSubsystem.getY();
-        double x = m_visionSubsystem.getX();
+        //Compensated values account for how much we've moved since the camera took the picture
+        double x = m_visionSubsystem.getCompensatedX();
         double targets = m_visionSubsystem.getTV();
         double forwardSpeed = 0;
         double rotation = 0;
@@ -88,13 +94,13 @@ public class AutoAlignTop extends CommandBase {
             }
 
             //Move forwards/backwards
-            double distanceFromTarget = m_visionSubsystem.getDistance();
+            double distanceFromTarget = m_visionSubsystem.getCompensatedDistance();
 
             //P controller for distance (fred)
             //forwardSpeed = (currentPosition - desiredPosition) * Pconstant
             if ((distanceFromTarget < VisionConstants.kTopPoleDesiredDistance - VisionConstants.kDistanceTolerance) 
             || (distanceFromTarget > VisionConstants.kTopPoleDesiredDistance + VisionConstants.kDistanceTolerance)){
-                forwardSpeed = (m_visionSubsystem.getDistance() - VisionConstants.kTopPoleDesiredDistance) * VisionConstants.kForwardSpeedPConstant;
+                forwardSpeed = (distanceFromTarget - VisionConstants.kTopPoleDesiredDistance) * VisionConstants.kForwardSpeedPConstant;
             }
             else{
                 forwardSpeed = 0;
@@ -148,8 +154,8 @@ public class AutoAlignTop extends CommandBase {
                 m_ledSubsystem.changeLEDState(LEDState.RED);
             }*/
 
-        SmartDashboard.putNumber("motor speed align forwardspeed", forwardSpeed);
-        SmartDashboard.putNumber("motor speed align rotation", rotation);
+        m_forwardSpeedEntry.set(forwardSpeed);
+        m_rotationEntry.set(rotation);
 
         if (forwardSpeed > VisionConstants.kMaxForwardSpeed){
             forwardSpeed = VisionConstants.kMaxForwardSpeed;
@@ -42,6 +42,7 @@ public class DefaultLimelightPipeline extends CommandBase {
     //When not overridden, this function is blank.
     @Override
     public void initialize(){
+        m_visionSubsystem.setPipeline(3);
     }
 
     /*This function is called repeatedly when the schedueler's "run()" function is called.
@@ -49,8 +50,9 @@ public class DefaultLimelightPipeline extends CommandBase {
      */
     @Override
     public void execute(){
-        if((int)m_visionSubsystem.getPipeline() != 3){
-            m_visionSubsystem.setPipeline(3);
+        //Forced, since we probably already asked for 3 and the Limelight went back to something else (like after a reboot)
+        if(!m_visionSubsystem.isStale() && ((int)m_visionSubsystem.getPipeline() != 3)){
+            m_visionSubsystem.forcePipeline(3);
         }
     }
 
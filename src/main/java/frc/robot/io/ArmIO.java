@@ -0,0 +1,35 @@
+package frc.robot.io;
+
+import frc.robot.util.MotorConfigurator;
+import frc.robot.util.StatusFrameManager;
+
+/**
+ * The arm motor and its pot. ArmSubsystem does all the filtering and control, this is just the hardware
+ * ({@link ArmIOSparkMax}), the simulation ({@link ArmIOSim}) or a match log ({@link ArmIOReplay}).
+ */
+public interface ArmIO {
+    //Filled once per loop by updateInputs()
+    final class Inputs {
+        //Raw pot reading in pot degrees, before any filtering
+        public double potAngle = 0;
+        //What the controller is actually putting out (-1 to 1)
+        public double appliedOutput = 0;
+        //Last duty cycle we set
+        public double setSpeed = 0;
+        public double busVoltage = 0;
+        public double current = 0;
+    }
+
+    void updateInputs(Inputs inputs);
+
+    default void setDutyCycle(double speed){}
+
+    default void setVoltage(double volts){}
+
+    default void setBrakeMode(boolean brake){}
+
+    //Startup only (runs on a startup thread)
+    default void configureMotors(MotorConfigurator configurator){}
+
+    default void registerStatusFrames(StatusFrameManager manager){}
+}
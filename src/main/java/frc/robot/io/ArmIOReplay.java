@@ -0,0 +1,32 @@
+package frc.robot.io;
+
+import frc.robot.replay.ReplayLog;
+import frc.robot.util.MatchLogger;
+
+//Plays the arm back from a match log. Commands go nowhere, ReplayMain compares them against the log instead.
+public class ArmIOReplay implements ArmIO {
+    private final ReplayLog m_log;
+    private final int m_potField;
+    private final int m_appliedOutputField;
+    private final int m_setSpeedField;
+    private final int m_busVoltageField;
+    private final int m_currentField;
+
+    public ArmIOReplay(ReplayLog log){
+        m_log = log;
+        m_potField = log.getField(MatchLogger.kArmPotKey);
+        m_appliedOutputField = log.getField(MatchLogger.kArmAppliedOutputKey);
+        m_setSpeedField = log.getField(MatchLogger.kArmSetSpeedKey);
+        m_busVoltageField = log.getField(MatchLogger.kArmBusVoltageKey);
+        m_currentField = log.getField(MatchLogger.kArmCurrentKey);
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs){
+        inputs.potAngle = m_log.get(m_potField);
+        inputs.appliedOutput = m_log.get(m_appliedOutputField);
+        inputs.setSpeed = m_log.get(m_setSpeedField);
+        inputs.busVoltage = m_log.get(m_busVoltageField);
+        inputs.current = m_log.get(m_currentField);
+    }
+}
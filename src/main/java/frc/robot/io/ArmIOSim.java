@@ -0,0 +1,56 @@
+package frc.robot.io;
+
+import edu.wpi.first.math.MathUtil;
+
+import frc.robot.sim.ArmSimulation;
+
+//The arm in simulation. RobotSimulation steps the physics after each loop, and the pot reads the simulated angle.
+public class ArmIOSim implements ArmIO {
+    private final ArmSimulation m_arm = new ArmSimulation();
+
+    //Last command, either a duty cycle or volts
+    private boolean m_voltageMode = false;
+    private double m_command = 0;
+
+    private double m_output = 0;
+    private double m_batteryVolts = 12;
+
+    @Override
+    public void updateInputs(Inputs inputs){
+        inputs.potAngle = m_arm.getAngle();
+        inputs.appliedOutput = m_output;
+        //The Spark Max turns setVoltage() into a duty cycle, and that's what get() returns
+        inputs.setSpeed = m_voltageMode ? (m_command / m_batteryVolts) : m_command;
+        inputs.busVoltage = m_batteryVolts;
+        inputs.current = m_arm.getCurrentDrawAmps();
+    }
+
+    @Override
+    public void setDutyCycle(double speed){
+        m_voltageMode = false;
+        m_command = speed;
+    }
+
+    @Override
+    public void setVoltage(double volts){
+        m_voltageMode = true;
+        m_command = volts;
+    }
+
+    //Called by RobotSimulation after each loop
+    public void update(double batteryVolts, double dt){
+        m_batteryVolts = batteryVolts;
+        double output = m_voltageMode ? (m_command / batteryVolts) : m_command;
+        m_output = MathUtil.clamp(output, -1, 1);
+        m_arm.update(m_output * batteryVolts, dt);
+    }
+
+    //In pot degrees
+    public double getAngle(){
+        return m_arm.getAngle();
+    }
+
+    public double getCurrentDrawAmps(){
+        return m_arm.getCurrentDrawAmps();
+    }
+}
@@ -0,0 +1,77 @@
+package frc.robot.io;
+
+//Motor libraries
+import com.revrobotics.CANSparkMax.IdleMode;
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+
+//Potentiometer library
+import edu.wpi.first.wpilibj.AnalogInput;
+import edu.wpi.first.wpilibj.AnalogPotentiometer;
+
+import frc.robot.util.MotorConfigurator;
+import frc.robot.util.SparkMaxConfig;
+import frc.robot.util.StatusFrameManager;
+import frc.robot.util.StatusFramePeriods;
+import frc.robot.util.TrackedSparkMax;
+
+//Constants
+import frc.robot.Constants.ArmConstants;
+import frc.robot.Constants.CANConstants;
+
+//The real arm: a brushed motor on a Spark Max, with the pot plugged into the roboRIO
+public class ArmIOSparkMax implements ArmIO {
+    private static final SparkMaxConfig kArmConfig = new SparkMaxConfig(ArmConstants.kOpenLoopRampRate, ArmConstants.kCurrentLimit, IdleMode.kBrake, false);
+
+    //Brushed motor with the pot plugged into the roboRIO, so the encoder (status 2), analog (status 3) and alternate
+    //encoder (status 4) frames are never read. Current and bus voltage (status 1) are only for the dashboard.
+    private static final StatusFramePeriods kArmMatchFrames = new StatusFramePeriods(20, 100, StatusFramePeriods.kUnused, StatusFramePeriods.kUnused, StatusFramePeriods.kUnused);
+
+    private final TrackedSparkMax m_armMotor = new TrackedSparkMax(ArmConstants.kMotorPort, MotorType.kBrushed);
+
+    //Set with a range of angles so we don't have to deal with long decimels, even though the output won't be the same as real-world angles
+    //Reads through an AnalogInput so we can turn on the FPGA's oversampling/averaging (the pot uses the averaged value)
+    private final AnalogInput m_potInput = new AnalogInput(ArmConstants.kPotPort);
+    private final AnalogPotentiometer pot = new AnalogPotentiometer(m_potInput, 333, -88);
+
+    public ArmIOSparkMax(){
+        m_potInput.setOversampleBits(ArmConstants.kPotOversampleBits);
+        m_potInput.setAverageBits(ArmConstants.kPotAverageBits);
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs){
+        inputs.potAngle = pot.get();
+        inputs.appliedOutput = m_armMotor.getAppliedOutput();
+        inputs.setSpeed = m_armMotor.get();
+        inputs.busVoltage = m_armMotor.getBusVoltage();
+        inputs.current = m_armMotor.getOutputCurrent();
+    }
+
+    @Override
+    public void setDutyCycle(double speed){
+        m_armMotor.set(speed);
+    }
+
+    @Override
+    public void setVoltage(double volts){
+        m_armMotor.setVoltage(volts);
+    }
+
+    //TrackedSparkMax drops the frame if the mode is already set
+    @Override
+    public void setBrakeMode(boolean brake){
+        m_armMotor.setIdleMode(brake ? IdleMode.kBrake : IdleMode.kCoast);
+    }
+
+    //Skips the flash write if the controller already has this config
+    @Override
+    public void configureMotors(MotorConfigurator configurator){
+        configurator.apply(m_armMotor, kArmConfig);
+    }
+
+    @Override
+    public void registerStatusFrames(StatusFrameManager manager){
+        manager.register(m_armMotor, kArmMatchFrames, StatusFramePeriods.kRevDefaults);
+        manager.addCommandFrames(CANConstants.kCommandFramesPerController);
+    }
+}
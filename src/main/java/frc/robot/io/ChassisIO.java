@@ -0,0 +1,55 @@
+package frc.robot.io;
+
+import frc.robot.util.MotorConfigurator;
+import frc.robot.util.StatusFrameManager;
+
+/**
+ * Everything ChassisSubsystem reads from and sends to the six drive Spark Maxes. ChassisSubsystem only ever talks to
+ * the motors through this, so it can run on real hardware ({@link ChassisIOSparkMax}), in simulation
+ * ({@link ChassisIOSim}) or off a match log ({@link ChassisIOReplay}).
+ *
+ * <p>Only the two front motors get commands, the rear ones follow them.
+ */
+public interface ChassisIO {
+    //Slots in the Inputs arrays
+    int kLeftFront = 0;
+    int kLeftRear1 = 1;
+    int kLeftRear2 = 2;
+    int kRightFront = 3;
+    int kRightRear1 = 4;
+    int kRightRear2 = 5;
+    int kMotorCount = 6;
+
+    //Filled once per loop by updateInputs(). Positions are motor rotations, velocities RPM, outputs duty cycle, currents amps.
+    final class Inputs {
+        public final double[] positions = new double[kMotorCount];
+        public final double[] velocities = new double[kMotorCount];
+        public final double[] outputs = new double[kMotorCount];
+        public final double[] currents = new double[kMotorCount];
+        //Fault bits, only refreshed by updateFaults()
+        public final short[] faults = new short[kMotorCount];
+        //REVLib calls the last update made (0 when there's no real hardware)
+        public int nativeReads = 0;
+    }
+
+    void updateInputs(Inputs inputs);
+
+    //Fault flags are an extra CAN read per motor, so these are only read every few loops
+    default void updateFaults(Inputs inputs){}
+
+    default void setDutyCycle(double left, double right){}
+
+    default void setVoltage(double leftVolts, double rightVolts){}
+
+    //Runs the Spark Maxes' own velocity PID, with our feedforward added on in volts
+    default void setVelocity(double leftRpm, double rightRpm, double leftFeedforwardVolts, double rightFeedforwardVolts){}
+
+    default void setBrakeMode(boolean brake){}
+
+    default void resetEncoders(){}
+
+    //Startup only (runs on a startup thread)
+    default void configureMotors(MotorConfigurator configurator){}
+
+    default void registerStatusFrames(StatusFrameManager manager){}
+}
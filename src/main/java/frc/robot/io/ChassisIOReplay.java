@@ -0,0 +1,34 @@
+package frc.robot.io;
+
+import frc.robot.replay.ReplayLog;
+import frc.robot.util.MatchLogger;
+
+//Plays the drive motors back from a match log. Commands go nowhere, ReplayMain compares them against the log instead.
+public class ChassisIOReplay implements ChassisIO {
+    private final ReplayLog m_log;
+    private final int[] m_positionFields = new int[kMotorCount];
+    private final int[] m_velocityFields = new int[kMotorCount];
+    private final int[] m_outputFields = new int[kMotorCount];
+    private final int[] m_currentFields = new int[kMotorCount];
+
+    public ChassisIOReplay(ReplayLog log){
+        m_log = log;
+        for(int i = 0; i < kMotorCount; i++){
+            m_positionFields[i] = log.getField(MatchLogger.chassisKey(i, "Position"));
+            m_velocityFields[i] = log.getField(MatchLogger.chassisKey(i, "Velocity"));
+            m_outputFields[i] = log.getField(MatchLogger.chassisKey(i, "Output"));
+            m_currentFields[i] = log.getField(MatchLogger.chassisKey(i, "Current"));
+        }
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs){
+        for(int i = 0; i < kMotorCount; i++){
+            inputs.positions[i] = m_log.get(m_positionFields[i]);
+            inputs.velocities[i] = m_log.get(m_velocityFields[i]);
+            inputs.outputs[i] = m_log.get(m_outputFields[i]);
+            inputs.currents[i] = m_log.get(m_currentFields[i]);
+        }
+        inputs.nativeReads = 0;
+    }
+}
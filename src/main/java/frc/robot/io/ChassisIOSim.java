@@ -0,0 +1,115 @@
+package frc.robot.io;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+
+import frc.robot.sim.DrivetrainSimulation;
+
+//Constants
+import frc.robot.Constants.ChassisConstants;
+
+/**
+ * The drivetrain in simulation. Commands get turned into volts the way the Spark Maxes would (including a P-only
+ * version of their velocity PID), and RobotSimulation steps the physics after each loop.
+ * All three motors on a side read the same, since they're geared together.
+ */
+public class ChassisIOSim implements ChassisIO {
+    private final DrivetrainSimulation m_drivetrain = new DrivetrainSimulation();
+
+    //Last command, in whatever units the mode uses
+    private OutputMode m_mode = OutputMode.NONE;
+    private double m_leftCommand = 0;
+    private double m_rightCommand = 0;
+    private double m_leftFeedforwardVolts = 0;
+    private double m_rightFeedforwardVolts = 0;
+
+    //What the motors put out last step (duty cycle)
+    private double m_leftOutput = 0;
+    private double m_rightOutput = 0;
+
+    //resetEncoders() zeroes the encoders, not the simulated wheels
+    private double m_leftZero = 0;
+    private double m_rightZero = 0;
+
+    @Override
+    public void updateInputs(Inputs inputs){
+        double leftPosition = m_drivetrain.getLeftRotations() - m_leftZero;
+        double rightPosition = m_drivetrain.getRightRotations() - m_rightZero;
+        for(int i = 0; i < kMotorCount; i++){
+            boolean left = i < kRightFront;
+            inputs.positions[i] = left ? leftPosition : rightPosition;
+            inputs.velocities[i] = left ? m_drivetrain.getLeftRpm() : m_drivetrain.getRightRpm();
+            inputs.outputs[i] = left ? m_leftOutput : m_rightOutput;
+            inputs.currents[i] = left ? m_drivetrain.getLeftMotorCurrent() : m_drivetrain.getRightMotorCurrent();
+        }
+        inputs.nativeReads = 0;
+    }
+
+    @Override
+    public void setDutyCycle(double left, double right){
+        setCommand(OutputMode.DUTY_CYCLE, left, right, 0, 0);
+    }
+
+    @Override
+    public void setVoltage(double leftVolts, double rightVolts){
+        setCommand(OutputMode.VOLTAGE, leftVolts, rightVolts, 0, 0);
+    }
+
+    @Override
+    public void setVelocity(double leftRpm, double rightRpm, double leftFeedforwardVolts, double rightFeedforwardVolts){
+        setCommand(OutputMode.VELOCITY, leftRpm, rightRpm, leftFeedforwardVolts, rightFeedforwardVolts);
+    }
+
+    private void setCommand(OutputMode mode, double left, double right, double leftFeedforwardVolts, double rightFeedforwardVolts){
+        m_mode = mode;
+        m_leftCommand = left;
+        m_rightCommand = right;
+        m_leftFeedforwardVolts = leftFeedforwardVolts;
+        m_rightFeedforwardVolts = rightFeedforwardVolts;
+    }
+
+    @Override
+    public void resetEncoders(){
+        m_leftZero = m_drivetrain.getLeftRotations();
+        m_rightZero = m_drivetrain.getRightRotations();
+    }
+
+    //Duty cycle a Spark Max would put out for the last command
+    private double output(double command, double feedforwardVolts, double rpm, double batteryVolts){
+        switch(m_mode){
+            case DUTY_CYCLE:
+                return MathUtil.clamp(command, -1, 1);
+            case VOLTAGE:
+                return MathUtil.clamp(command / batteryVolts, -1, 1);
+            case VELOCITY:
+                return MathUtil.clamp(((command - rpm) * ChassisConstants.kVelocityP) + (feedforwardVolts / batteryVolts), -1, 1);
+            default:
+                return 0;
+        }
+    }
+
+    //Called by RobotSimulation after each loop
+    public void update(double batteryVolts, double dt){
+        m_leftOutput = output(m_leftCommand, m_leftFeedforwardVolts, m_drivetrain.getLeftRpm(), batteryVolts);
+        m_rightOutput = output(m_rightCommand, m_rightFeedforwardVolts, m_drivetrain.getRightRpm(), batteryVolts);
+        m_drivetrain.update(m_leftOutput * batteryVolts, m_rightOutput * batteryVolts, dt);
+    }
+
+    public void resetPose(Pose2d pose){
+        m_drivetrain.resetPose(pose);
+    }
+
+    //Where the robot actually is (not where odometry thinks it is)
+    public Pose2d getPose(){
+        return m_drivetrain.getPose();
+    }
+
+    //Radians, counterclockwise positive
+    public double getHeading(){
+        return m_drivetrain.getHeading();
+    }
+
+    public double getCurrentDrawAmps(){
+        return m_drivetrain.getCurrentDrawAmps();
+    }
+}
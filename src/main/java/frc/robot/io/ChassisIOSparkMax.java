@@ -0,0 +1,152 @@
+package frc.robot.io;
+
+//Motor libraries
+import com.revrobotics.CANSparkMax.ControlType;
+import com.revrobotics.CANSparkMax.IdleMode;
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+import com.revrobotics.RelativeEncoder;
+import com.revrobotics.SparkMaxPIDController;
+import com.revrobotics.SparkMaxPIDController.ArbFFUnits;
+
+import edu.wpi.first.wpilibj.drive.DifferentialDrive;
+
+import frc.robot.util.MotorConfigurator;
+import frc.robot.util.SparkMaxConfig;
+import frc.robot.util.StatusFrameManager;
+import frc.robot.util.StatusFramePeriods;
+import frc.robot.util.TrackedSparkMax;
+
+//Constants
+import frc.robot.Constants.CANConstants;
+import frc.robot.Constants.ChassisConstants;
+
+//The real drivetrain: three NEOs per side on Spark Maxes, rear motors following the front ones in hardware
+public class ChassisIOSparkMax implements ChassisIO {
+    //What gets burned into each side's controllers. The right side is mounted mirrored so it's inverted.
+    private static final SparkMaxConfig kLeftConfig = new SparkMaxConfig(ChassisConstants.kOpenLoopRampRate, ChassisConstants.kCurrentLimit, IdleMode.kCoast, false,
+        ChassisConstants.kVelocityP, ChassisConstants.kVelocityI, ChassisConstants.kVelocityD);
+    private static final SparkMaxConfig kRightConfig = new SparkMaxConfig(ChassisConstants.kOpenLoopRampRate, ChassisConstants.kCurrentLimit, IdleMode.kCoast, true,
+        ChassisConstants.kVelocityP, ChassisConstants.kVelocityI, ChassisConstants.kVelocityD);
+    //The rear motors follow their side's front motor in hardware, so each loop only sends 2 commands instead of 6
+    private static final SparkMaxConfig kLeftFollowerConfig = kLeftConfig.following(ChassisConstants.kLeftFrontPort);
+    private static final SparkMaxConfig kRightFollowerConfig = kRightConfig.following(ChassisConstants.kRightFrontPort);
+
+    //Leaders: status 0 stays fast since the followers copy it, position (status 2) goes faster for odometry,
+    //and nothing reads the analog input or alternate encoder
+    private static final StatusFramePeriods kLeaderMatchFrames = new StatusFramePeriods(10, 20, 10, StatusFramePeriods.kUnused, StatusFramePeriods.kUnused);
+    //Followers: output gets compared to the leader's every loop to check they're following, so status 0 has to be as
+    //new as a loop. Velocity and position still go into the averages.
+    private static final StatusFramePeriods kFollowerMatchFrames = new StatusFramePeriods(20, 20, 20, StatusFramePeriods.kUnused, StatusFramePeriods.kUnused);
+
+    //In the same order as the ChassisIO slots
+    private final TrackedSparkMax[] m_motors = {
+        new TrackedSparkMax(ChassisConstants.kLeftFrontPort, MotorType.kBrushless),
+        new TrackedSparkMax(ChassisConstants.kLeftRearPort1, MotorType.kBrushless),
+        new TrackedSparkMax(ChassisConstants.kLeftRearPort2, MotorType.kBrushless),
+        new TrackedSparkMax(ChassisConstants.kRightFrontPort, MotorType.kBrushless),
+        new TrackedSparkMax(ChassisConstants.kRightRearPort1, MotorType.kBrushless),
+        new TrackedSparkMax(ChassisConstants.kRightRearPort2, MotorType.kBrushless)
+    };
+    private final RelativeEncoder[] m_encoders = new RelativeEncoder[kMotorCount];
+
+    private final TrackedSparkMax m_leftFront = m_motors[kLeftFront];
+    private final TrackedSparkMax m_rightFront = m_motors[kRightFront];
+
+    //Only used for its motor safety watchdog now, ChassisSubsystem does the arcade drive math itself
+    private final DifferentialDrive m_drive = new DifferentialDrive(m_leftFront, m_rightFront);
+
+    //Onboard PID controllers, for closed loop driving
+    private final SparkMaxPIDController m_leftPID = m_leftFront.getPIDController();
+    private final SparkMaxPIDController m_rightPID = m_rightFront.getPIDController();
+
+    public ChassisIOSparkMax(){
+        for(int i = 0; i < kMotorCount; i++){
+            m_encoders[i] = m_motors[i].getEncoder();
+        }
+    }
+
+    //Every REVLib read is a JNI call (and a CAN status lookup), so this is the only place that does them
+    @Override
+    public void updateInputs(Inputs inputs){
+        for(int i = 0; i < kMotorCount; i++){
+            inputs.positions[i] = m_encoders[i].getPosition();
+            inputs.velocities[i] = m_encoders[i].getVelocity();
+            inputs.outputs[i] = m_motors[i].getAppliedOutput();
+            inputs.currents[i] = m_motors[i].getOutputCurrent();
+        }
+        inputs.nativeReads = 4 * kMotorCount;
+    }
+
+    //Only the followers, since nothing would notice them dropping out otherwise
+    @Override
+    public void updateFaults(Inputs inputs){
+        for(int i = 0; i < kMotorCount; i++){
+            if((i != kLeftFront) && (i != kRightFront)){
+                inputs.faults[i] = m_motors[i].getFaults();
+                inputs.nativeReads++;
+            }
+        }
+    }
+
+    @Override
+    public void setDutyCycle(double left, double right){
+        m_leftFront.set(left);
+        m_rightFront.set(right);
+        m_drive.feed();
+    }
+
+    @Override
+    public void setVoltage(double leftVolts, double rightVolts){
+        m_leftFront.setVoltage(leftVolts);
+        m_rightFront.setVoltage(rightVolts);
+        m_drive.feed();
+    }
+
+    @Override
+    public void setVelocity(double leftRpm, double rightRpm, double leftFeedforwardVolts, double rightFeedforwardVolts){
+        m_leftPID.setReference(leftRpm, ControlType.kVelocity, 0, leftFeedforwardVolts, ArbFFUnits.kVoltage);
+        m_rightPID.setReference(rightRpm, ControlType.kVelocity, 0, rightFeedforwardVolts, ArbFFUnits.kVoltage);
+        m_drive.feed();
+    }
+
+    //TrackedSparkMax drops the frames if the mode is already set
+    @Override
+    public void setBrakeMode(boolean brake){
+        IdleMode mode = brake ? IdleMode.kBrake : IdleMode.kCoast;
+        for(TrackedSparkMax motor : m_motors){
+            motor.setIdleMode(mode);
+        }
+    }
+
+    @Override
+    public void resetEncoders(){
+        for(RelativeEncoder encoder : m_encoders){
+            encoder.setPosition(0.0);
+        }
+    }
+
+    /**
+     * Makes sure all six Spark Maxes have their settings burned. Controllers that already have them are skipped,
+     * so a normal boot doesn't re-flash anything.
+     */
+    @Override
+    public void configureMotors(MotorConfigurator configurator){
+        configurator.apply(m_motors[kLeftFront], kLeftConfig);
+        configurator.apply(m_motors[kLeftRear1], kLeftFollowerConfig);
+        configurator.apply(m_motors[kLeftRear2], kLeftFollowerConfig);
+        configurator.apply(m_motors[kRightFront], kRightConfig);
+        configurator.apply(m_motors[kRightRear1], kRightFollowerConfig);
+        configurator.apply(m_motors[kRightRear2], kRightFollowerConfig);
+    }
+
+    //Tells the status frame manager what each controller's frames should be in each profile
+    @Override
+    public void registerStatusFrames(StatusFrameManager manager){
+        for(int i = 0; i < kMotorCount; i++){
+            boolean leader = (i == kLeftFront) || (i == kRightFront);
+            manager.register(m_motors[i], leader ? kLeaderMatchFrames : kFollowerMatchFrames, StatusFramePeriods.kRevDefaults);
+        }
+        //Only the two leaders get commanded
+        manager.addCommandFrames(2 * CANConstants.kCommandFramesPerController);
+    }
+}
@@ -0,0 +1,19 @@
+package frc.robot.io;
+
+/**
+ * The claw and wrist pistons. ClawSubsystem keeps track of what it asked for, this is just the solenoids
+ * ({@link ClawIOSolenoid}), the simulation ({@link ClawIOSim}) or a match log ({@link ClawIOReplay}).
+ */
+public interface ClawIO {
+    //Filled once per loop by updateInputs(). What the PCM says each solenoid is doing.
+    final class Inputs {
+        public boolean clawClosed = false;
+        public boolean wristDown = false;
+    }
+
+    void updateInputs(Inputs inputs);
+
+    default void setClaw(boolean closed){}
+
+    default void setWrist(boolean down){}
+}
@@ -0,0 +1,23 @@
+package frc.robot.io;
+
+import frc.robot.replay.ReplayLog;
+import frc.robot.util.MatchLogger;
+
+//Plays the claw back from a match log
+public class ClawIOReplay implements ClawIO {
+    private final ReplayLog m_log;
+    private final int m_clawField;
+    private final int m_wristField;
+
+    public ClawIOReplay(ReplayLog log){
+        m_log = log;
+        m_clawField = log.getField(MatchLogger.kClawClosedKey);
+        m_wristField = log.getField(MatchLogger.kWristDownKey);
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs){
+        inputs.clawClosed = m_log.getBoolean(m_clawField);
+        inputs.wristDown = m_log.getBoolean(m_wristField);
+    }
+}
@@ -0,0 +1,23 @@
+package frc.robot.io;
+
+//The claw in simulation. Pistons don't need physics, they just end up wherever they were told to go.
+public class ClawIOSim implements ClawIO {
+    private boolean m_clawClosed = false;
+    private boolean m_wristDown = false;
+
+    @Override
+    public void updateInputs(Inputs inputs){
+        inputs.clawClosed = m_clawClosed;
+        inputs.wristDown = m_wristDown;
+    }
+
+    @Override
+    public void setClaw(boolean closed){
+        m_clawClosed = closed;
+    }
+
+    @Override
+    public void setWrist(boolean down){
+        m_wristDown = down;
+    }
+}
@@ -0,0 +1,32 @@
+package frc.robot.io;
+
+//pneumatic libraries
+import edu.wpi.first.wpilibj.PneumaticsModuleType;
+import edu.wpi.first.wpilibj.Solenoid;
+
+//Constants
+import frc.robot.Constants.ClawConstants;
+
+//The real claw: two single solenoids on the CTRE PCM
+public class ClawIOSolenoid implements ClawIO {
+    //Defining the compressor might not be necessary for using it. It's also not giving out values when calling getPressure() on it
+    //Compressor m_compressor = new Compressor(ClawConstants.kModuleID, PneumaticsModuleType.CTREPCM);
+    private final Solenoid m_claw = new Solenoid(ClawConstants.kModuleID, PneumaticsModuleType.CTREPCM, ClawConstants.kClawPistonChannel);
+    private final Solenoid m_wrist = new Solenoid(ClawConstants.kModuleID, PneumaticsModuleType.CTREPCM, ClawConstants.kWristPistonChannel);
+
+    @Override
+    public void updateInputs(Inputs inputs){
+        inputs.clawClosed = m_claw.get();
+        inputs.wristDown = m_wrist.get();
+    }
+
+    @Override
+    public void setClaw(boolean closed){
+        m_claw.set(closed);
+    }
+
+    @Override
+    public void setWrist(boolean down){
+        m_wrist.set(down);
+    }
+}
@@ -0,0 +1,16 @@
+package frc.robot.io;
+
+import edu.wpi.first.wpilibj.AddressableLEDBuffer;
+
+/**
+ * The LED strip. It's output only, so there are no inputs to read, and replay just doesn't send anything.
+ * The real strip is {@link LEDIOAddressable}, the simulation is {@link LEDIOSim}.
+ */
+public interface LEDIO {
+    //Expensive, only call it once at startup
+    default void setLength(int length){}
+
+    default void setData(AddressableLEDBuffer buffer){}
+
+    default void start(){}
+}
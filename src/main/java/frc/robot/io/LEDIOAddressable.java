@@ -0,0 +1,25 @@
+package frc.robot.io;
+
+import edu.wpi.first.wpilibj.AddressableLED;
+import edu.wpi.first.wpilibj.AddressableLEDBuffer;
+
+//The real strip
+public class LEDIOAddressable implements LEDIO {
+    // Must be a PWM header, not MXP or DIO
+    private final AddressableLED m_led = new AddressableLED(0);
+
+    @Override
+    public void setLength(int length){
+        m_led.setLength(length);
+    }
+
+    @Override
+    public void setData(AddressableLEDBuffer buffer){
+        m_led.setData(buffer);
+    }
+
+    @Override
+    public void start(){
+        m_led.start();
+    }
+}
@@ -0,0 +1,17 @@
+package frc.robot.io;
+
+import edu.wpi.first.wpilibj.AddressableLEDBuffer;
+
+//The strip in simulation. Just counts frames, so benchmarks and the sim can see how often it would really send one.
+public class LEDIOSim implements LEDIO {
+    private long m_framesSent = 0;
+
+    @Override
+    public void setData(AddressableLEDBuffer buffer){
+        m_framesSent++;
+    }
+
+    public long getFramesSent(){
+        return m_framesSent;
+    }
+}
@@ -0,0 +1,20 @@
+package frc.robot.io;
+
+import frc.robot.util.GyroSnapshot;
+
+/**
+ * The NavX. NavSubsystem reads it through this once per loop, so the same code runs off the real NavX
+ * ({@link NavIONavX}), the simulation ({@link NavIOSim}) or a match log ({@link NavIOReplay}).
+ */
+public interface NavIO {
+    //Copies this loop's readings into the snapshot (degrees, the NavX's own sign conventions)
+    void updateInputs(GyroSnapshot inputs);
+
+    /**
+     * Waits for the NavX to finish calibrating and measures how tilted the robot is sitting. This blocks, so only
+     * ever call it from a startup thread.
+     */
+    default double measureInitialPitch(){
+        return 0;
+    }
+}
@@ -0,0 +1,80 @@
+package frc.robot.io;
+
+//NAVX
+import com.kauailabs.navx.AHRSProtocol.AHRSUpdateBase;
+import com.kauailabs.navx.frc.AHRS;
+import com.kauailabs.navx.frc.ITimestampedDataSubscriber;
+
+import edu.wpi.first.math.filter.LinearFilter;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.SPI;
+import edu.wpi.first.wpilibj.Timer;
+
+import frc.robot.util.GyroBuffer;
+import frc.robot.util.GyroSnapshot;
+
+//Constants
+import frc.robot.Constants.NavConstants;
+
+/**
+ * The real NavX. It runs at kUpdateRateHz and pushes every update into a {@link GyroBuffer} from its own thread,
+ * and updateInputs() copies the newest one (plus a fitted pitch rate) out once per loop.
+ */
+public class NavIONavX implements NavIO, ITimestampedDataSubscriber {
+    //Null if the NavX couldn't be created, then the snapshot just stays at 0
+    private AHRS NavX2;
+    private final GyroBuffer m_buffer = new GyroBuffer(NavConstants.kGyroBufferSize);
+
+    public NavIONavX(){
+        //Enable the NavX
+        try {
+            NavX2 = new AHRS(SPI.Port.kMXP, (byte) NavConstants.kUpdateRateHz);
+            NavX2.enableLogging(true);
+            NavX2.registerCallback(this, null);
+        } 
+        catch (RuntimeException ex) {
+            DriverStation.reportError("Error instantiating navX MXP:  " + ex.getMessage(), true);
+        }
+    }
+
+    //Called on the NavX's thread for every update, so keep it short
+    @Override
+    public void timestampedDataReceived(long systemTimestamp, long sensorTimestamp, AHRSUpdateBase data, Object context){
+        m_buffer.add(Timer.getFPGATimestamp(), sensorTimestamp, data.yaw, data.pitch, data.roll);
+    }
+
+    @Override
+    public void updateInputs(GyroSnapshot inputs){
+        m_buffer.copyLatest(inputs, NavConstants.kPitchRateWindowSeconds);
+    }
+
+    //Averages a set of pitch readings once the NavX is connected and done calibrating
+    @Override
+    public double measureInitialPitch(){
+        if(NavX2 == null){
+            return 0;
+        }
+        double deadline = Timer.getFPGATimestamp() + NavConstants.kCalibrationTimeoutSeconds;
+        try {
+            while((!NavX2.isConnected() || NavX2.isCalibrating()) && (Timer.getFPGATimestamp() < deadline)){
+                Thread.sleep(NavConstants.kCalibrationPollMs);
+            }
+            if(Timer.getFPGATimestamp() >= deadline){
+                DriverStation.reportWarning("NavX still calibrating after " + NavConstants.kCalibrationTimeoutSeconds + "s, measuring pitch anyway", false);
+            }
+
+            //Average a few readings so one noisy sample doesn't become the offset for the whole match
+            LinearFilter average = LinearFilter.movingAverage(NavConstants.kPitchSampleCount);
+            double pitch = 0;
+            for(int i = 0; i < NavConstants.kPitchSampleCount; i++){
+                pitch = average.calculate(NavX2.getPitch());
+                Thread.sleep(NavConstants.kPitchSamplePeriodMs);
+            }
+            return pitch;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return NavX2.getPitch();
+        }
+    }
+}
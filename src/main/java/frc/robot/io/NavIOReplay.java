@@ -0,0 +1,41 @@
+package frc.robot.io;
+
+import frc.robot.replay.ReplayLog;
+import frc.robot.util.GyroSnapshot;
+import frc.robot.util.MatchLogger;
+
+//Plays the NavX back from a match log
+public class NavIOReplay implements NavIO {
+    private final ReplayLog m_log;
+    private final int m_yawField;
+    private final int m_pitchField;
+    private final int m_rollField;
+    private final int m_angleField;
+    private final int m_pitchRateField;
+    private final int m_sampleCountField;
+    private final int m_initialPitchField;
+
+    public NavIOReplay(ReplayLog log){
+        m_log = log;
+        m_yawField = log.getField(MatchLogger.kYawKey);
+        m_pitchField = log.getField(MatchLogger.kPitchKey);
+        m_rollField = log.getField(MatchLogger.kRollKey);
+        m_angleField = log.getField(MatchLogger.kAngleKey);
+        m_pitchRateField = log.getField(MatchLogger.kPitchRateKey);
+        m_sampleCountField = log.getField(MatchLogger.kGyroSampleCountKey);
+        m_initialPitchField = log.getField(MatchLogger.kInitialPitchKey);
+    }
+
+    @Override
+    public void updateInputs(GyroSnapshot inputs){
+        //The NavX's own clock isn't logged, nothing in the robot code uses it
+        inputs.set(m_log.getTimestamp(), 0, m_log.get(m_yawField), m_log.get(m_pitchField), m_log.get(m_rollField),
+            m_log.get(m_angleField), m_log.get(m_pitchRateField), (long) m_log.get(m_sampleCountField));
+    }
+
+    //The startup thread measured this a few seconds into the match, by the end of the log it's always there
+    @Override
+    public double measureInitialPitch(){
+        return m_log.getLast(m_initialPitchField);
+    }
+}
@@ -0,0 +1,40 @@
+package frc.robot.io;
+
+import edu.wpi.first.math.geometry.Pose2d;
+
+import frc.robot.sim.NavXSimulation;
+import frc.robot.util.GyroBuffer;
+import frc.robot.util.GyroSnapshot;
+
+//Constants
+import frc.robot.Constants.NavConstants;
+
+/**
+ * The NavX in simulation. RobotSimulation steps it after each loop and every simulated reading goes through a
+ * {@link GyroBuffer}, same as the real NavX's callback, so the pitch rate fit works the same.
+ */
+public class NavIOSim implements NavIO {
+    private final NavXSimulation m_navx = new NavXSimulation();
+    private final GyroBuffer m_buffer = new GyroBuffer(NavConstants.kGyroBufferSize);
+
+    @Override
+    public void updateInputs(GyroSnapshot inputs){
+        m_buffer.copyLatest(inputs, NavConstants.kPitchRateWindowSeconds);
+    }
+
+    /**
+     * Called by RobotSimulation after each loop.
+     *
+     * @param heading radians, counterclockwise positive
+     * @param time simulated FPGA time in seconds
+     */
+    public void update(Pose2d pose, double heading, double time, double dt){
+        m_navx.update(pose, heading, dt);
+        m_buffer.add(time, (long) (time * 1000), m_navx.getYaw(), m_navx.getPitch(), m_navx.getRoll());
+    }
+
+    //Nose up pitch of the charge station itself
+    public double getStationPitch(){
+        return m_navx.getStationPitch();
+    }
+}
@@ -0,0 +1,9 @@
+package frc.robot.io;
+
+//What kind of value a subsystem last sent its motors, so the match log (and replay) know how to read the command
+public enum OutputMode {
+    NONE,
+    DUTY_CYCLE,
+    VOLTAGE,
+    VELOCITY
+}
@@ -0,0 +1,58 @@
+package frc.robot.io;
+
+import frc.robot.replay.ReplayLog;
+import frc.robot.sim.RobotSimulation;
+
+/**
+ * Which hardware the robot code talks to. RobotContainer builds the subsystems out of one of these, so the same
+ * code runs on the real robot, in simulation or off a match log.
+ *
+ * <p>Every IO fills a plain inputs object once per loop, so the subsystems can also be built straight on the sim
+ * IOs for benchmarks and tests, with nothing plugged in.
+ */
+public final class RobotIO {
+    public final ChassisIO chassis;
+    public final ArmIO arm;
+    public final ClawIO claw;
+    public final NavIO nav;
+    public final VisionIO vision;
+    public final LEDIO led;
+    //The physics behind the sim IOs, stepped after every loop (null unless simulating)
+    public final RobotSimulation simulation;
+    //True when the inputs come from a log, so nothing should be written to the (nonexistent) hardware or a new log
+    public final boolean replay;
+
+    private RobotIO(ChassisIO chassis, ArmIO arm, ClawIO claw, NavIO nav, VisionIO vision, LEDIO led,
+        RobotSimulation simulation, boolean replay){
+        this.chassis = chassis;
+        this.arm = arm;
+        this.claw = claw;
+        this.nav = nav;
+        this.vision = vision;
+        this.led = led;
+        this.simulation = simulation;
+        this.replay = replay;
+    }
+
+    //The real motors, pistons, NavX, Limelight and LEDs
+    public static RobotIO real(){
+        return new RobotIO(new ChassisIOSparkMax(), new ArmIOSparkMax(), new ClawIOSolenoid(), new NavIONavX(),
+            new VisionIOLimelight(), new LEDIOAddressable(), null, false);
+    }
+
+    //Physics models instead of hardware (./gradlew simulateJava, benchmarks)
+    public static RobotIO sim(){
+        ChassisIOSim chassis = new ChassisIOSim();
+        ArmIOSim arm = new ArmIOSim();
+        NavIOSim nav = new NavIOSim();
+        VisionIOSim vision = new VisionIOSim();
+        RobotSimulation simulation = new RobotSimulation(chassis, arm, nav, vision);
+        return new RobotIO(chassis, arm, new ClawIOSim(), nav, vision, new LEDIOSim(), simulation, false);
+    }
+
+    //The LEDs don't have anything to replay, so they just don't send anything
+    public static RobotIO replay(ReplayLog log){
+        return new RobotIO(new ChassisIOReplay(log), new ArmIOReplay(log), new ClawIOReplay(log), new NavIOReplay(log),
+            new VisionIOReplay(log), new LEDIO() {}, null, true);
+    }
+}
@@ -0,0 +1,33 @@
+package frc.robot.io;
+
+/**
+ * The Limelight's NetworkTables values. VisionSubsystem reads the newest frame through this once per loop and does
+ * all the math (distance, latency, botpose checks) itself, so it runs the same off the real camera
+ * ({@link VisionIOLimelight}), the simulation ({@link VisionIOSim}) or a match log ({@link VisionIOReplay}).
+ */
+public interface VisionIO {
+    //The newest frame the Limelight finished, copied once per loop by updateInputs()
+    final class Inputs {
+        //Goes up by one for every new frame, so the subsystem knows when something changed
+        public long frameCount = 0;
+        //NetworkTables server time (seconds) the frame came in at, which is the FPGA clock on the robot
+        public double frameTime = Double.NEGATIVE_INFINITY;
+
+        public double tx = 0;
+        public double ty = 0;
+        public boolean tv = false;
+        //Pipeline (tl) and capture (cl) latency in ms
+        public double pipelineLatencyMs = 0;
+        public double captureLatencyMs = 0;
+        public int pipeline = -1;
+
+        //Field position from AprilTags, false if the Limelight sent all zeros
+        public boolean hasBotPose = false;
+        public double botPoseX = 0;
+        public double botPoseY = 0;
+    }
+
+    void updateInputs(Inputs inputs);
+
+    default void setPipeline(int pipeline){}
+}
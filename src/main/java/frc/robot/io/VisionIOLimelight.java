@@ -0,0 +1,172 @@
+package frc.robot.io;
+
+import java.util.EnumSet;
+
+import edu.wpi.first.networktables.DoubleArraySubscriber;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.DoubleSubscriber;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEvent;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.PubSubOption;
+import edu.wpi.first.networktables.TimestampedDouble;
+import edu.wpi.first.networktables.TimestampedDoubleArray;
+
+/**
+ * The real Limelight. A NetworkTables listener copies each frame as it comes in (on the NetworkTables thread),
+ * and updateInputs() hands the newest one to the robot loop.
+ *
+ * <p>Every value of a frame gets lined up with that frame's tl by its timestamp (from each topic's queue), instead of
+ * just taking whatever each topic holds when tl shows up. Otherwise tx could already be from the next frame, or
+ * still from the last one.
+ */
+public class VisionIOLimelight implements VisionIO {
+    //How far apart (microseconds) the Limelight's values from one frame can be stamped and still count as that frame
+    private static final long kFrameToleranceMicros = 5000;
+    //Every update, even unchanged ones (tv stays 1 for a lot of frames), queued until the listener reads them
+    private static final PubSubOption[] kFrameOptions = {
+        PubSubOption.sendAll(true), PubSubOption.keepDuplicates(true), PubSubOption.pollStorage(10)};
+
+    private final NetworkTable m_table = NetworkTableInstance.getDefault().getTable("limelight");
+    private final FrameDouble m_tx = new FrameDouble(m_table.getDoubleTopic("tx").subscribe(0.0, kFrameOptions), 0.0);
+    private final FrameDouble m_ty = new FrameDouble(m_table.getDoubleTopic("ty").subscribe(0.0, kFrameOptions), 0.0);
+    private final FrameDouble m_tv = new FrameDouble(m_table.getDoubleTopic("tv").subscribe(0.0, kFrameOptions), 0.0);
+    private final FrameDouble m_cl = new FrameDouble(m_table.getDoubleTopic("cl").subscribe(0.0, kFrameOptions), 0.0);
+    private final FrameDouble m_getpipe = new FrameDouble(m_table.getDoubleTopic("getpipe").subscribe(-1, kFrameOptions), -1);
+    //Field position from AprilTags: x, y, z, roll, pitch, yaw (meters/degrees, blue alliance origin)
+    private final FrameDoubleArray m_botPose = new FrameDoubleArray(
+        m_table.getDoubleArrayTopic("botpose_wpiblue").subscribe(new double[0], kFrameOptions), new double[0]);
+    //Only used for its listener, the event has the value
+    private final DoubleSubscriber m_tlSub = m_table.getDoubleTopic("tl").subscribe(0.0,
+        PubSubOption.sendAll(true), PubSubOption.keepDuplicates(true));
+    //Duplicates go out too, so asking for the same pipeline again actually gets sent (see VisionSubsystem.forcePipeline())
+    private final DoublePublisher m_pipelinePub = m_table.getDoubleTopic("pipeline").publish(PubSubOption.keepDuplicates(true));
+
+    //Written by the listener, copied out by updateInputs(). Both lock this object.
+    private final Inputs m_latest = new Inputs();
+
+    public VisionIOLimelight(){
+        //The Limelight publishes tl once per processed frame, so that's our "new frame" event
+        NetworkTableInstance.getDefault().addListener(
+            m_tlSub,
+            EnumSet.of(NetworkTableEvent.Kind.kValueAll),
+            this::onNewFrame);
+    }
+
+    //Runs on the NetworkTables listener thread whenever the Limelight finishes a frame
+    private void onNewFrame(NetworkTableEvent event){
+        if(event.valueData == null){
+            return;
+        }
+
+        long frameTime = event.valueData.value.getServerTime();
+        double tx = m_tx.read(frameTime);
+        double ty = m_ty.read(frameTime);
+        boolean tv = m_tv.read(frameTime) >= 1;
+        double cl = m_cl.read(frameTime);
+        int pipeline = (int) m_getpipe.read(frameTime);
+
+        //The Limelight sends all zeros when it can't see a tag
+        double[] botPose = m_botPose.read(frameTime);
+        boolean hasBotPose = (botPose.length >= 6) && ((botPose[0] != 0) || (botPose[1] != 0));
+
+        synchronized(m_latest){
+            m_latest.frameCount++;
+            m_latest.frameTime = frameTime / 1e6;
+            m_latest.tx = tx;
+            m_latest.ty = ty;
+            m_latest.tv = tv;
+            m_latest.pipelineLatencyMs = event.valueData.value.getDouble();
+            m_latest.captureLatencyMs = cl;
+            m_latest.pipeline = pipeline;
+            m_latest.hasBotPose = hasBotPose;
+            m_latest.botPoseX = hasBotPose ? botPose[0] : 0;
+            m_latest.botPoseY = hasBotPose ? botPose[1] : 0;
+        }
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs){
+        synchronized(m_latest){
+            inputs.frameCount = m_latest.frameCount;
+            inputs.frameTime = m_latest.frameTime;
+            inputs.tx = m_latest.tx;
+            inputs.ty = m_latest.ty;
+            inputs.tv = m_latest.tv;
+            inputs.pipelineLatencyMs = m_latest.pipelineLatencyMs;
+            inputs.captureLatencyMs = m_latest.captureLatencyMs;
+            inputs.pipeline = m_latest.pipeline;
+            inputs.hasBotPose = m_latest.hasBotPose;
+            inputs.botPoseX = m_latest.botPoseX;
+            inputs.botPoseY = m_latest.botPoseY;
+        }
+    }
+
+    @Override
+    public void setPipeline(int pipeline){
+        m_pipelinePub.set(pipeline);
+    }
+
+    /**
+     * One Limelight number, matched to the frame it was sent with. Only used on the listener thread.
+     *
+     * <p>read() takes the newest queued update stamped at or before the frame. An update that's already from the next
+     * frame gets held onto and used then. Anything past that (the listener falling two frames behind) is dropped.
+     */
+    private static final class FrameDouble {
+        private final DoubleSubscriber m_sub;
+        private double m_value;
+        private TimestampedDouble m_next = null;
+
+        FrameDouble(DoubleSubscriber sub, double defaultValue){
+            m_sub = sub;
+            m_value = defaultValue;
+        }
+
+        double read(long frameTime){
+            long latest = frameTime + kFrameToleranceMicros;
+            if((m_next != null) && (m_next.serverTime <= latest)){
+                m_value = m_next.value;
+                m_next = null;
+            }
+            for(TimestampedDouble update : m_sub.readQueue()){
+                if(update.serverTime <= latest){
+                    m_value = update.value;
+                }
+                else if(m_next == null){
+                    m_next = update;
+                }
+            }
+            return m_value;
+        }
+    }
+
+    //FrameDouble for botpose
+    private static final class FrameDoubleArray {
+        private final DoubleArraySubscriber m_sub;
+        private double[] m_value;
+        private TimestampedDoubleArray m_next = null;
+
+        FrameDoubleArray(DoubleArraySubscriber sub, double[] defaultValue){
+            m_sub = sub;
+            m_value = defaultValue;
+        }
+
+        double[] read(long frameTime){
+            long latest = frameTime + kFrameToleranceMicros;
+            if((m_next != null) && (m_next.serverTime <= latest)){
+                m_value = m_next.value;
+                m_next = null;
+            }
+            for(TimestampedDoubleArray update : m_sub.readQueue()){
+                if(update.serverTime <= latest){
+                    m_value = update.value;
+                }
+                else if(m_next == null){
+                    m_next = update;
+                }
+            }
+            return m_value;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package frc.robot.io;
+
+import frc.robot.replay.ReplayLog;
+import frc.robot.util.MatchLogger;
+
+//Plays the Limelight back from a match log
+public class VisionIOReplay implements VisionIO {
+    private final ReplayLog m_log;
+    private final int m_frameCountField;
+    private final int m_frameTimeField;
+    private final int m_txField;
+    private final int m_tyField;
+    private final int m_tvField;
+    private final int m_tlField;
+    private final int m_clField;
+    private final int m_pipelineField;
+    private final int m_hasBotPoseField;
+    private final int m_botPoseXField;
+    private final int m_botPoseYField;
+
+    public VisionIOReplay(ReplayLog log){
+        m_log = log;
+        m_frameCountField = log.getField(MatchLogger.kFrameCountKey);
+        m_frameTimeField = log.getField(MatchLogger.kFrameTimeKey);
+        m_txField = log.getField(MatchLogger.kTxKey);
+        m_tyField = log.getField(MatchLogger.kTyKey);
+        m_tvField = log.getField(MatchLogger.kTvKey);
+        m_tlField = log.getField(MatchLogger.kTlKey);
+        m_clField = log.getField(MatchLogger.kClKey);
+        m_pipelineField = log.getField(MatchLogger.kPipelineKey);
+        m_hasBotPoseField = log.getField(MatchLogger.kHasBotPoseKey);
+        m_botPoseXField = log.getField(MatchLogger.kBotPoseXKey);
+        m_botPoseYField = log.getField(MatchLogger.kBotPoseYKey);
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs){
+        inputs.frameCount = (long) m_log.get(m_frameCountField);
+        inputs.frameTime = m_log.get(m_frameTimeField);
+        inputs.tx = m_log.get(m_txField);
+        inputs.ty = m_log.get(m_tyField);
+        inputs.tv = m_log.getBoolean(m_tvField);
+        inputs.pipelineLatencyMs = m_log.get(m_tlField);
+        inputs.captureLatencyMs = m_log.get(m_clField);
+        inputs.pipeline = (int) m_log.get(m_pipelineField);
+        inputs.hasBotPose = m_log.getBoolean(m_hasBotPoseField);
+        inputs.botPoseX = m_log.get(m_botPoseXField);
+        inputs.botPoseY = m_log.get(m_botPoseYField);
+    }
+}
@@ -0,0 +1,42 @@
+package frc.robot.io;
+
+import edu.wpi.first.math.geometry.Pose2d;
+
+import frc.robot.sim.LimelightSimulation;
+
+//The Limelight in simulation. RobotSimulation makes one frame after each loop.
+public class VisionIOSim implements VisionIO {
+    private final LimelightSimulation m_limelight = new LimelightSimulation();
+    private final Inputs m_latest = new Inputs();
+    private int m_pipeline = 0;
+
+    @Override
+    public void updateInputs(Inputs inputs){
+        inputs.frameCount = m_latest.frameCount;
+        inputs.frameTime = m_latest.frameTime;
+        inputs.tx = m_latest.tx;
+        inputs.ty = m_latest.ty;
+        inputs.tv = m_latest.tv;
+        inputs.pipelineLatencyMs = m_latest.pipelineLatencyMs;
+        inputs.captureLatencyMs = m_latest.captureLatencyMs;
+        inputs.pipeline = m_latest.pipeline;
+        inputs.hasBotPose = m_latest.hasBotPose;
+        inputs.botPoseX = m_latest.botPoseX;
+        inputs.botPoseY = m_latest.botPoseY;
+    }
+
+    @Override
+    public void setPipeline(int pipeline){
+        m_pipeline = pipeline;
+    }
+
+    /**
+     * Called by RobotSimulation after each loop.
+     *
+     * @param heading radians, counterclockwise positive
+     * @param time simulated FPGA time in seconds
+     */
+    public void update(Pose2d pose, double heading, double time){
+        m_limelight.update(pose, heading, time, m_pipeline, m_latest);
+    }
+}
@@ -0,0 +1,190 @@
+package frc.robot.replay;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import edu.wpi.first.util.datalog.DataLogRecord.StartRecordData;
+
+import frc.robot.util.MatchLogger;
+
+/**
+ * A match log (.wpilog written by {@link MatchLogger}) read back into one row per robot loop.
+ *
+ * <p>The logger only writes values that changed, so every field just holds its last value until the next time it
+ * shows up. Rows come from the loop counter, which changes every loop. The replay IOs look their fields up once
+ * with {@link #getField(String)} and then read {@link #get(int)} every loop for whatever row {@link #setLoop(int)}
+ * picked.
+ */
+public final class ReplayLog {
+    private final String m_path;
+    private final double[] m_loopTimes;
+    private final Map<String, double[]> m_values = new HashMap<>();
+    private final Map<String, String> m_metadata = new HashMap<>();
+
+    //Index returned by getField() -> that field's values (one per loop)
+    private final ArrayList<double[]> m_fields = new ArrayList<>();
+    private final Set<String> m_missing = new HashSet<>();
+
+    private int m_loop = 0;
+
+    private ReplayLog(String path, double[] loopTimes){
+        m_path = path;
+        m_loopTimes = loopTimes;
+    }
+
+    /**
+     * Reads the whole log into memory. A full match is about 7500 loops, so this is a few MB at most.
+     *
+     * @throws IOException if the file can't be read or isn't a .wpilog
+     */
+    public static ReplayLog read(String path) throws IOException {
+        DataLogReader reader = new DataLogReader(path);
+        if(!reader.isValid()){
+            throw new IOException(path + " isn't a WPILib data log");
+        }
+
+        //Every (time, value) pair for every numeric entry, by name
+        Map<Integer, String> names = new HashMap<>();
+        Map<Integer, String> types = new HashMap<>();
+        Map<String, String> metadata = new HashMap<>();
+        Map<String, ArrayList<double[]>> records = new HashMap<>();
+
+        for(DataLogRecord record : reader){
+            if(record.isStart()){
+                StartRecordData start = record.getStartData();
+                names.put(start.entry, start.name);
+                types.put(start.entry, start.type);
+                metadata.put(start.name, start.metadata);
+                continue;
+            }
+            if(record.isControl()){
+                continue;
+            }
+
+            String name = names.get(record.getEntry());
+            String type = types.get(record.getEntry());
+            if((name == null) || (type == null)){
+                continue;
+            }
+            double value;
+            switch(type){
+                case "double":
+                    value = record.getDouble();
+                    break;
+                case "int64":
+                    value = record.getInteger();
+                    break;
+                case "boolean":
+                    value = record.getBoolean() ? 1 : 0;
+                    break;
+                default:
+                    //Strings (command names) are only there for people looking at the log
+                    continue;
+            }
+            records.computeIfAbsent(name, key -> new ArrayList<>()).add(new double[] {record.getTimestamp() / 1e6, value});
+        }
+
+        ArrayList<double[]> loops = records.get(MatchLogger.kLoopKey);
+        if((loops == null) || loops.isEmpty()){
+            throw new IOException(path + " doesn't have a " + MatchLogger.kLoopKey + " entry, so it isn't a match log");
+        }
+        double[] loopTimes = new double[loops.size()];
+        for(int i = 0; i < loopTimes.length; i++){
+            loopTimes[i] = loops.get(i)[0];
+        }
+
+        ReplayLog log = new ReplayLog(path, loopTimes);
+        log.m_metadata.putAll(metadata);
+        for(Map.Entry<String, ArrayList<double[]>> entry : records.entrySet()){
+            log.m_values.put(entry.getKey(), holdPerLoop(entry.getValue(), loopTimes));
+        }
+        return log;
+    }
+
+    //Each loop gets the newest value written at or before that loop's time (0 until the first one)
+    private static double[] holdPerLoop(ArrayList<double[]> records, double[] loopTimes){
+        double[] values = new double[loopTimes.length];
+        int next = 0;
+        double value = 0;
+        for(int loop = 0; loop < loopTimes.length; loop++){
+            while((next < records.size()) && (records.get(next)[0] <= loopTimes[loop])){
+                value = records.get(next)[1];
+                next++;
+            }
+            values[loop] = value;
+        }
+        return values;
+    }
+
+    public String getPath(){
+        return m_path;
+    }
+
+    public int getLoopCount(){
+        return m_loopTimes.length;
+    }
+
+    public void setLoop(int loop){
+        m_loop = loop;
+    }
+
+    public int getLoop(){
+        return m_loop;
+    }
+
+    //FPGA time (seconds) the current loop started at
+    public double getTimestamp(){
+        return m_loopTimes[m_loop];
+    }
+
+    public double getTimestamp(int loop){
+        return m_loopTimes[loop];
+    }
+
+    /**
+     * Looks up a field by its log name. Call this once (in a constructor), then read it with {@link #get(int)}.
+     * Fields that aren't in the log (like ones added after it was recorded) read as 0.
+     */
+    public int getField(String name){
+        double[] values = m_values.get(name);
+        if(values == null){
+            if(m_missing.add(name)){
+                System.out.println("Replay: " + name + " isn't in " + m_path + ", using 0");
+            }
+            values = new double[m_loopTimes.length];
+        }
+        m_fields.add(values);
+        return m_fields.size() - 1;
+    }
+
+    public boolean hasField(String name){
+        return m_values.containsKey(name);
+    }
+
+    //The field's value in the current loop
+    public double get(int field){
+        return m_fields.get(field)[m_loop];
+    }
+
+    public boolean getBoolean(int field){
+        return get(field) != 0;
+    }
+
+    //The field's value in the last loop of the log
+    public double getLast(int field){
+        double[] values = m_fields.get(field);
+        return values[values.length - 1];
+    }
+
+    //Whatever the logger put in an entry's metadata (like the auton chooser's option names), or "" if nothing
+    public String getMetadata(String name){
+        String metadata = m_metadata.get(name);
+        return (metadata == null) ? "" : metadata;
+    }
+}
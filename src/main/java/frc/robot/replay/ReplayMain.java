@@ -0,0 +1,232 @@
+package frc.robot.replay;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+
+import frc.robot.RobotContainer;
+import frc.robot.io.OutputMode;
+import frc.robot.subsystems.ArmSubsystem;
+import frc.robot.subsystems.ChassisSubsystem;
+import frc.robot.util.MatchLogger;
+
+/**
+ * Plays a match log back through the robot code and checks it does the same thing it did in the match. Run it
+ * with {@code ./gradlew replay -Plog=path/to/FRC_xxx.wpilog}.
+ *
+ * <p>Every loop gets the logged IO inputs (encoders, pot, NavX, Limelight), driver station state and both
+ * controllers, then runs one normal robot loop. The chassis and arm commands that come out get compared against the
+ * ones in the log. The clock is paused and stepped to the time each logged loop started at (MatchLogger stamps frames
+ * with the start of the loop, not the end), so timers, WaitCommands and motion profiles see the times they saw in
+ * the match, and a whole match replays in a few seconds.
+ *
+ * <p>Any mismatch means the robot code (or something it depends on) changed behavior since the log was recorded.
+ * Exits with 1 if anything didn't match, so it can be used as a check before a merge.
+ */
+public final class ReplayMain {
+    //Commands are doubles copied straight into the log, so anything past rounding noise is a real difference
+    private static final double kTolerance = 1e-9;
+    //Only the first few get printed, one change usually throws off every loop after it
+    private static final int kMaxPrintedMismatches = 20;
+    //XboxController buttons (the log has the whole bitmask, this is just how many the DS reports)
+    private static final int kJoystickButtons = 10;
+    private static final double kStartupTimeoutSeconds = 30;
+
+    private final ReplayLog m_log;
+    private final ReplayRobot m_robot;
+
+    private final int m_enabledField;
+    private final int m_autonomousField;
+    private final int m_testField;
+    private final int m_initialPitchField;
+    private final int[][] m_axisFields = new int[MatchLogger.kJoysticks.length][MatchLogger.kJoystickAxes];
+    private final int[] m_buttonFields = new int[MatchLogger.kJoysticks.length];
+    private final int[] m_povFields = new int[MatchLogger.kJoysticks.length];
+
+    private final int m_chassisModeField;
+    private final int m_chassisLeftField;
+    private final int m_chassisRightField;
+    private final int m_armModeField;
+    private final int m_armCommandField;
+
+    private int m_mismatches = 0;
+
+    private ReplayMain(ReplayLog log){
+        m_log = log;
+
+        m_enabledField = log.getField(MatchLogger.kEnabledKey);
+        m_autonomousField = log.getField(MatchLogger.kAutonomousKey);
+        m_testField = log.getField(MatchLogger.kTestKey);
+        m_initialPitchField = log.getField(MatchLogger.kInitialPitchKey);
+        for(int i = 0; i < MatchLogger.kJoysticks.length; i++){
+            int port = MatchLogger.kJoysticks[i];
+            for(int axis = 0; axis < MatchLogger.kJoystickAxes; axis++){
+                m_axisFields[i][axis] = log.getField(MatchLogger.joystickAxisKey(port, axis));
+            }
+            m_buttonFields[i] = log.getField(MatchLogger.joystickButtonsKey(port));
+            m_povFields[i] = log.getField(MatchLogger.joystickPOVKey(port));
+        }
+
+        m_chassisModeField = log.getField(MatchLogger.kChassisOutputModeKey);
+        m_chassisLeftField = log.getField(MatchLogger.kChassisLeftCommandKey);
+        m_chassisRightField = log.getField(MatchLogger.kChassisRightCommandKey);
+        m_armModeField = log.getField(MatchLogger.kArmOutputModeKey);
+        m_armCommandField = log.getField(MatchLogger.kArmCommandKey);
+
+        m_robot = new ReplayRobot(log);
+    }
+
+    public static void main(String... args) throws IOException, InterruptedException {
+        if(args.length != 1){
+            System.err.println("Usage: ./gradlew replay -Plog=<path to .wpilog>");
+            System.exit(2);
+        }
+        ReplayLog log = ReplayLog.read(args[0]);
+
+        if(!HAL.initialize(500, 0)){
+            throw new IllegalStateException("Failed to initialize the HAL");
+        }
+        //Time only moves when we step it
+        SimHooks.pauseTiming();
+        DriverStationSim.setDsAttached(true);
+        DriverStationSim.setEnabled(false);
+        DriverStationSim.notifyNewData();
+
+        ReplayMain replay = new ReplayMain(log);
+        boolean passed = replay.run();
+        //NetworkTables and the startup threads would keep the JVM alive otherwise
+        System.exit(passed ? 0 : 1);
+    }
+
+    private boolean run() throws InterruptedException {
+        long start = System.nanoTime();
+
+        m_robot.robotInit();
+        RobotContainer container = m_robot.getContainer();
+        selectAuton(container);
+
+        //The startup stages (trajectory loading etc) run on their own threads, which don't care about the paused clock
+        long timeout = System.nanoTime() + (long) (kStartupTimeoutSeconds * 1e9);
+        while(!container.isReady()){
+            if(System.nanoTime() > timeout){
+                System.err.println("Replay: startup didn't finish in " + kStartupTimeoutSeconds + "s");
+                return false;
+            }
+            Thread.sleep(10);
+        }
+
+        for(int loop = 0; loop < m_log.getLoopCount(); loop++){
+            m_log.setLoop(loop);
+
+            //Everything in the loop sees this time, since the clock doesn't move while the loop runs
+            double wait = m_log.getTimestamp() - Timer.getFPGATimestamp();
+            if(wait > 0){
+                SimHooks.stepTiming(wait);
+            }
+            setDriverStation();
+            //The NavX startup thread set this partway into the match, so follow the log instead of using the final value
+            container.getNavSubsystem().setInitialPitchOffset(m_log.get(m_initialPitchField));
+
+            m_robot.step();
+
+            compare(container.getChassisSubsystem(), container.getArmSubsystem());
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double matchSeconds = m_log.getTimestamp() - m_log.getTimestamp(0);
+        System.out.printf("Replayed %d loops (%.1fs of robot time) in %.1fs%n", m_log.getLoopCount(), matchSeconds, seconds);
+        if(m_mismatches == 0){
+            System.out.println("Every chassis and arm command matched the log");
+            return true;
+        }
+        System.out.println(m_mismatches + " commands didn't match the log");
+        return false;
+    }
+
+    //The auton chooser's options are in the entry's metadata, pick whichever one was selected when auton started
+    private void selectAuton(RobotContainer container){
+        List<String> names = Arrays.asList(m_log.getMetadata(MatchLogger.kAutonKey).split(","));
+        int autonField = m_log.getField(MatchLogger.kAutonKey);
+
+        int index = -1;
+        for(int loop = 0; loop < m_log.getLoopCount(); loop++){
+            m_log.setLoop(loop);
+            index = (int) m_log.get(autonField);
+            if(m_log.getBoolean(m_enabledField) && m_log.getBoolean(m_autonomousField)){
+                break;
+            }
+        }
+        m_log.setLoop(0);
+
+        if((index < 0) || (index >= names.size())){
+            System.out.println("Replay: no auton was selected in the log");
+            return;
+        }
+        String name = names.get(index);
+        if(container.selectAuton(name)){
+            System.out.println("Replay: running auton " + name);
+        }
+        else{
+            System.out.println("Replay: the log ran auton " + name + ", which doesn't exist anymore");
+        }
+    }
+
+    private void setDriverStation(){
+        DriverStationSim.setEnabled(m_log.getBoolean(m_enabledField));
+        DriverStationSim.setAutonomous(m_log.getBoolean(m_autonomousField));
+        DriverStationSim.setTest(m_log.getBoolean(m_testField));
+
+        for(int i = 0; i < MatchLogger.kJoysticks.length; i++){
+            int port = MatchLogger.kJoysticks[i];
+            DriverStationSim.setJoystickAxisCount(port, MatchLogger.kJoystickAxes);
+            for(int axis = 0; axis < MatchLogger.kJoystickAxes; axis++){
+                DriverStationSim.setJoystickAxis(port, axis, m_log.get(m_axisFields[i][axis]));
+            }
+            DriverStationSim.setJoystickButtonCount(port, kJoystickButtons);
+            DriverStationSim.setJoystickButtons(port, (int) m_log.get(m_buttonFields[i]));
+            DriverStationSim.setJoystickPOVCount(port, 1);
+            DriverStationSim.setJoystickPOV(port, 0, (int) m_log.get(m_povFields[i]));
+        }
+        DriverStationSim.notifyNewData();
+    }
+
+    private void compare(ChassisSubsystem chassis, ArmSubsystem arm){
+        compareMode("Chassis output mode", chassis.getOutputMode(), m_chassisModeField);
+        compareValue("Chassis left command", chassis.getLeftCommand(), m_chassisLeftField);
+        compareValue("Chassis right command", chassis.getRightCommand(), m_chassisRightField);
+        compareMode("Arm output mode", arm.getOutputMode(), m_armModeField);
+        compareValue("Arm command", arm.getCommand(), m_armCommandField);
+    }
+
+    private void compareMode(String name, OutputMode mode, int field){
+        int logged = (int) m_log.get(field);
+        if(mode.ordinal() != logged){
+            OutputMode[] modes = OutputMode.values();
+            String loggedName = ((logged >= 0) && (logged < modes.length)) ? modes[logged].name() : Integer.toString(logged);
+            mismatch(name, loggedName, mode.name());
+        }
+    }
+
+    private void compareValue(String name, double value, int field){
+        double logged = m_log.get(field);
+        if(Math.abs(value - logged) > kTolerance){
+            mismatch(name, Double.toString(logged), Double.toString(value));
+        }
+    }
+
+    private void mismatch(String name, String logged, String replayed){
+        m_mismatches++;
+        if(m_mismatches <= kMaxPrintedMismatches){
+            System.out.printf("Loop %d (t=%.3f): %s was %s in the log, %s in replay%n",
+                m_log.getLoop(), m_log.getTimestamp(), name, logged, replayed);
+        }
+        else if(m_mismatches == kMaxPrintedMismatches + 1){
+            System.out.println("(only printing the first " + kMaxPrintedMismatches + ")");
+        }
+    }
+}
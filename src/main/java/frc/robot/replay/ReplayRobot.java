@@ -0,0 +1,21 @@
+package frc.robot.replay;
+
+import frc.robot.Robot;
+import frc.robot.RobotContainer;
+import frc.robot.io.RobotIO;
+
+//The normal robot code, built on the replay IOs, run one loop at a time by ReplayMain instead of by TimedRobot's timer
+public class ReplayRobot extends Robot {
+    public ReplayRobot(ReplayLog log){
+        super(() -> RobotIO.replay(log));
+    }
+
+    //One robot loop, exactly like TimedRobot runs it (mode changes, the periodic methods, robotPeriodic)
+    public void step(){
+        loopFunc();
+    }
+
+    public RobotContainer getContainer(){
+        return getRobotContainer();
+    }
+}
@@ -0,0 +1,180 @@
+package frc.robot.sim;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+
+import frc.robot.Robot;
+import frc.robot.RobotContainer;
+import frc.robot.commands.auton.AutonTrajectories;
+import frc.robot.commands.chassis.FollowTrajectory;
+import frc.robot.util.LoopProfiler;
+
+//Constants
+import frc.robot.Constants.IOConstants;
+
+/**
+ * Runs the whole robot program in simulation with LoopProfiler's allocation tracking on, and fails if any of our
+ * code allocates once the robot has settled into what it's doing. It runs as part of {@code ./gradlew check}, or on
+ * its own with {@code ./gradlew checkAllocations}.
+ *
+ * <p>It goes through a few phases (disabled, driving with the arm holding a goal, closed loop driving, auto align,
+ * following a trajectory). Each one first gets some loops to settle, since scheduling a command and the first loop
+ * of anything is allowed to allocate. After that every subsystem periodic(), command execute(), the button
+ * bindings, the telemetry flush, the match log and the rest of Robot.robotPeriodic() have to allocate nothing, every
+ * loop. Any section that does gets listed and the check exits with 1, which fails the build.
+ *
+ * <p>The whole-loop total gets printed too but doesn't fail the check. Everything of ours in it has its own section,
+ * so what's left is WPILib's scheduler and driver station code that we can't change.
+ */
+public final class AllocationCheck {
+    private static final double kLoopSeconds = 0.02;
+    private static final int kSettleLoops = 100;
+    private static final int kMeasuredLoops = 250;
+    private static final double kStartupTimeoutSeconds = 30;
+
+    //XboxController axis numbers and button bits (button n is bit n - 1)
+    private static final int kLeftYAxis = 1;
+    private static final int kRightXAxis = 4;
+    private static final int kAxisCount = 6;
+    private static final int kButtonA = 1 << 0;
+    private static final int kButtonBack = 1 << 6;
+    private static final int kButtonCount = 10;
+
+    private final CheckRobot m_robot = new CheckRobot();
+    private final LoopProfiler m_profiler = LoopProfiler.getInstance();
+    private int m_failedPhases = 0;
+
+    public static void main(String... args) throws InterruptedException {
+        if(!HAL.initialize(500, 0)){
+            throw new IllegalStateException("Failed to initialize the HAL");
+        }
+        if(!LoopProfiler.getInstance().trackAllocations()){
+            System.err.println("Allocation check: this JVM can't count allocations per thread");
+            System.exit(2);
+        }
+        //Time only moves when we step it
+        SimHooks.pauseTiming();
+        DriverStationSim.setDsAttached(true);
+        DriverStationSim.setEnabled(false);
+        DriverStationSim.notifyNewData();
+
+        boolean passed = new AllocationCheck().run();
+        //NetworkTables and the startup threads would keep the JVM alive otherwise
+        System.exit(passed ? 0 : 1);
+    }
+
+    private boolean run() throws InterruptedException {
+        m_robot.robotInit();
+        RobotContainer container = m_robot.getContainer();
+
+        //The startup stages (motor config, trajectory loading) run on their own threads
+        long timeout = System.nanoTime() + (long) (kStartupTimeoutSeconds * 1e9);
+        while(!container.isReady()){
+            if(System.nanoTime() > timeout){
+                System.err.println("Allocation check: startup didn't finish in " + kStartupTimeoutSeconds + "s");
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        container.selectAuton("AutonDoNothing");
+
+        runPhase("Disabled", false, false, 0, 0, 0, -1, kSettleLoops, kMeasuredLoops);
+        //Co-driver dpad up sends the arm to the middle goal, then it holds there on the profile + PID
+        runPhase("Teleop driving, arm holding a goal", true, false, -0.6, 0.3, 0, 0, kSettleLoops, kMeasuredLoops);
+        //Back toggles closed loop (Spark Max velocity) driving on
+        runPhase("Teleop closed loop driving", true, false, -0.6, -0.3, kButtonBack, -1, kSettleLoops, kMeasuredLoops);
+        runPhase("Auto align", true, false, 0, 0, kButtonA, -1, kSettleLoops, kMeasuredLoops);
+
+        //Only measured while the path is still going, the default command taking back over would allocate
+        FollowTrajectory follow = new FollowTrajectory(() -> AutonTrajectories.get(AutonTrajectories.kSideApproach), true,
+            container.getChassisSubsystem(), container.getPoseEstimator());
+        int pathLoops = (int) (AutonTrajectories.get(AutonTrajectories.kSideApproach).getTotalTimeSeconds() / kLoopSeconds);
+        int settle = Math.min(kSettleLoops, pathLoops / 4);
+        setInputs(true, true, 0, 0, 0, -1);
+        step(1);
+        follow.schedule();
+        runPhase("Following " + AutonTrajectories.kSideApproach, true, true, 0, 0, 0, -1, settle, Math.max(1, pathLoops - settle - 5));
+
+        if(m_failedPhases == 0){
+            System.out.println("No allocations in any subsystem or command once settled");
+            return true;
+        }
+        System.out.println(m_failedPhases + " phases allocated");
+        return false;
+    }
+
+    private void runPhase(String name, boolean enabled, boolean autonomous, double leftY, double rightX, int buttons, int coDriverPOV,
+            int settleLoops, int measuredLoops){
+        setInputs(enabled, autonomous, leftY, rightX, buttons, coDriverPOV);
+        step(settleLoops);
+
+        m_profiler.resetAllocations();
+        step(measuredLoops);
+
+        int loopSection = m_profiler.getLoopSection();
+        boolean allocated = false;
+        for(int section = 0; section < m_profiler.getSectionCount(); section++){
+            long loops = m_profiler.getAllocatingLoops(section);
+            if((section == loopSection) || (loops == 0)){
+                continue;
+            }
+            if(!allocated){
+                System.out.println(name + ": FAILED");
+                allocated = true;
+            }
+            System.out.printf("    %s allocated in %d of %d loops (%d bytes per loop on average)%n",
+                m_profiler.getName(section), loops, measuredLoops, m_profiler.getAllocatedBytes(section) / Math.max(1, measuredLoops));
+        }
+        if(allocated){
+            m_failedPhases++;
+        }
+        else{
+            System.out.println(name + ": OK");
+        }
+        System.out.printf("    (whole loop, including WPILib: %d bytes per loop on average)%n",
+            m_profiler.getAllocatedBytes(loopSection) / Math.max(1, measuredLoops));
+    }
+
+    private void setInputs(boolean enabled, boolean autonomous, double leftY, double rightX, int buttons, int coDriverPOV){
+        DriverStationSim.setEnabled(enabled);
+        DriverStationSim.setAutonomous(autonomous);
+        DriverStationSim.setTest(false);
+
+        setController(IOConstants.kDriverPort, leftY, rightX, buttons, -1);
+        setController(IOConstants.kCoDriverPort, 0, 0, 0, coDriverPOV);
+        DriverStationSim.notifyNewData();
+    }
+
+    private static void setController(int port, double leftY, double rightX, int buttons, int pov){
+        DriverStationSim.setJoystickAxisCount(port, kAxisCount);
+        for(int axis = 0; axis < kAxisCount; axis++){
+            DriverStationSim.setJoystickAxis(port, axis, 0);
+        }
+        DriverStationSim.setJoystickAxis(port, kLeftYAxis, leftY);
+        DriverStationSim.setJoystickAxis(port, kRightXAxis, rightX);
+        DriverStationSim.setJoystickButtonCount(port, kButtonCount);
+        DriverStationSim.setJoystickButtons(port, buttons);
+        DriverStationSim.setJoystickPOVCount(port, 1);
+        DriverStationSim.setJoystickPOV(port, 0, pov);
+    }
+
+    private void step(int loops){
+        for(int i = 0; i < loops; i++){
+            SimHooks.stepTiming(kLoopSeconds);
+            m_robot.step();
+        }
+    }
+
+    //The normal robot code on the sim IOs, run one loop at a time instead of by TimedRobot's timer
+    private static final class CheckRobot extends Robot {
+        //One robot loop, exactly like TimedRobot runs it (mode changes, the periodic methods, the physics)
+        void step(){
+            loopFunc();
+        }
+
+        RobotContainer getContainer(){
+            return getRobotContainer();
+        }
+    }
+}
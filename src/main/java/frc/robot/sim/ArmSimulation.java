@@ -0,0 +1,52 @@
+package frc.robot.sim;
+
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.wpilibj.simulation.SingleJointedArmSim;
+
+import frc.robot.subsystems.ArmSubsystem;
+
+//Constants
+import frc.robot.Constants.ArmConstants;
+import frc.robot.Constants.SimConstants;
+
+/**
+ * The arm in simulation. The arm motor's output drives a SingleJointedArmSim (with gravity), and ArmIOSim reports
+ * the angle as the pot reading.
+ */
+public class ArmSimulation {
+    private final SingleJointedArmSim m_sim = new SingleJointedArmSim(
+        DCMotor.getCIM(1),
+        SimConstants.kArmGearing,
+        SingleJointedArmSim.estimateMOI(SimConstants.kArmLengthMeters, SimConstants.kArmMassKg),
+        SimConstants.kArmLengthMeters,
+        potToRadians(ArmConstants.kMinAngle),
+        potToRadians(ArmConstants.kMaxAngle),
+        true);
+
+    public ArmSimulation(){
+        //Start resting on the frame
+        m_sim.setState(potToRadians(ArmConstants.kBottomPosition), 0);
+    }
+
+    //Pot degrees to radians above horizontal, the same way ArmSubsystem's feedforward does it
+    private static double potToRadians(double pot){
+        return ArmSubsystem.toArmRadians(pot);
+    }
+
+    /**
+     * @param volts what the arm motor is putting out
+     */
+    public void update(double volts, double dt){
+        m_sim.setInputVoltage(volts);
+        m_sim.update(dt);
+    }
+
+    //In pot degrees, like the real pot reads
+    public double getAngle(){
+        return ArmSubsystem.toPotDegrees(m_sim.getAngleRads());
+    }
+
+    public double getCurrentDrawAmps(){
+        return m_sim.getCurrentDrawAmps();
+    }
+}
@@ -0,0 +1,92 @@
+package frc.robot.sim;
+
+import java.util.function.DoubleUnaryOperator;
+
+import frc.robot.util.BalanceController;
+
+//Constants
+import frc.robot.Constants.ChassisConstants;
+
+/**
+ * Drives the {@link ChargeStationModel} with the {@link BalanceController} (and with the old pulsed AutoBalance, to
+ * compare) from a bunch of starting spots and prints how long each one takes to balance.
+ * Runs on a laptop with {@code ./gradlew simulateBalance}, no robot needed.
+ */
+public final class BalanceSimulation {
+    private static final double kDt = 0.02;
+    private static final double kMaxSeconds = 15;
+    //Balanced means within 2.5 degrees (the rulebook number) and staying there this long
+    private static final double kBalancedDegrees = 2.5;
+    private static final double kBalancedHoldSeconds = 2;
+
+    private BalanceSimulation(){}
+
+    /**
+     * Seconds until the station is level for good, or NaN if it never gets there.
+     *
+     * @param controller takes the simulated state and returns volts, called every 20ms
+     */
+    public static double timeToBalance(ChargeStationModel model, Controller controller){
+        double levelSince = Double.NaN;
+        for(double time = 0; time < kMaxSeconds; time += kDt){
+            double volts = controller.calculate(time, model.getPitchDegrees(), model.getPitchRateDegreesPerSecond(), model.getVelocity());
+            model.update(volts, kDt);
+
+            if(Math.abs(model.getPitchDegrees()) <= kBalancedDegrees){
+                if(Double.isNaN(levelSince)){
+                    levelSince = time;
+                }
+                else if((time - levelSince) >= kBalancedHoldSeconds){
+                    return levelSince;
+                }
+            }
+            else{
+                levelSince = Double.NaN;
+            }
+        }
+        return Double.NaN;
+    }
+
+    public interface Controller {
+        double calculate(double time, double pitch, double pitchRate, double velocity);
+    }
+
+    public static Controller stateSpace(){
+        BalanceController controller = new BalanceController();
+        return (time, pitch, pitchRate, velocity) -> controller.calculate(pitch, pitchRate, velocity);
+    }
+
+    //The old AutoBalance: sin(pitch) * 2.4 with hysteresis for 0.7s, then 0.5s of braking, over and over
+    public static Controller pulsed(){
+        boolean[] balancing = {false};
+        DoubleUnaryOperator duty = (pitch) -> {
+            if(!balancing[0] && (Math.abs(pitch) >= ChassisConstants.kOffBalanceAngleThresholdDegrees)){
+                balancing[0] = true;
+            }
+            else if(balancing[0] && (Math.abs(pitch) <= ChassisConstants.kOnBalanceAngleThresholdDegrees)){
+                balancing[0] = false;
+            }
+            if(!balancing[0] || (Math.abs(pitch) > 30)){
+                return 0;
+            }
+            return Math.sin(Math.toRadians(pitch)) * ChassisConstants.kAutoBalanceBackMultiplier;
+        };
+        return (time, pitch, pitchRate, velocity) -> ((time % 1.2) < 0.7) ? duty.applyAsDouble(pitch) * 12 : 0;
+    }
+
+    private static String format(double seconds){
+        return Double.isNaN(seconds) ? "never" : String.format("%.2fs", seconds);
+    }
+
+    public static void main(String[] args){
+        System.out.println("Time to balance (level within " + kBalancedDegrees + " degrees for " + kBalancedHoldSeconds + "s, gives up after " + kMaxSeconds + "s)");
+        System.out.println("start (m)  speed (m/s)   state space   old pulsed");
+        for(double position = -0.9; position <= -0.39; position += 0.25){
+            for(double speed = 0; speed <= 0.81; speed += 0.4){
+                double stateSpace = timeToBalance(new ChargeStationModel(position, speed), stateSpace());
+                double pulsed = timeToBalance(new ChargeStationModel(position, speed), pulsed());
+                System.out.println(String.format("%8.2f  %11.2f  %12s  %11s", position, speed, format(stateSpace), format(pulsed)));
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package frc.robot.sim;
+
+//Constants
+import frc.robot.Constants.ChassisConstants;
+import frc.robot.Constants.SimConstants;
+
+/**
+ * A rough 1D physics model of our robot driving on the charge station, for tuning the balance controller on a laptop.
+ *
+ * <p>The station is a platform on a hinge in the middle that tips until it hits the ground at about 15 degrees. The
+ * robot is a point mass at distance s from the hinge (forward positive). Its weight twists the station towards
+ * whichever side it's on, and the slope pulls the robot downhill. The drivetrain uses the same kS/kV/kA as trajectory
+ * following, plus extra static friction for the brake mode gearboxes holding us on a slope.
+ *
+ * <p>None of the numbers here were measured on a real charge station. They're close enough that a controller that
+ * balances quickly here won't be way off on the field, but always check on the real thing.
+ */
+public class ChargeStationModel {
+    private static final double kGravity = 9.81;
+    //Platform plus ramps, about 60kg spread over 1.2m
+    private static final double kStationInertia = 8;
+    //Hinge friction (N*m per rad/s), and how much twist it takes to get the station moving at all. The static
+    //friction is why a robot a few centimeters off the middle still counts as balanced.
+    private static final double kStationDamping = 60;
+    private static final double kHingeStaticFriction = 10;
+    private static final double kMaxTiltRadians = Math.toRadians(15);
+    //Past this the robot's off the ramps
+    private static final double kMaxPositionMeters = 1.5;
+    //Volts it takes to get the robot moving on a slope in brake mode (more than kS because of the gearbox)
+    private static final double kStaticFrictionVolts = 1.5;
+
+    //Robot position and velocity along the station
+    private double m_position;
+    private double m_velocity;
+    //Station angle, positive when the front (+s) side is down, and how fast it's moving
+    private double m_tilt;
+    private double m_tiltRate;
+
+    /**
+     * @param position meters from the hinge, negative is behind it (where we drive on from)
+     * @param velocity meters per second
+     */
+    public ChargeStationModel(double position, double velocity){
+        reset(position, velocity);
+    }
+
+    //Puts the robot somewhere and lets the station start tipped all the way towards it
+    public void reset(double position, double velocity){
+        m_position = position;
+        m_velocity = velocity;
+        m_tilt = Math.copySign(kMaxTiltRadians, position);
+        m_tiltRate = 0;
+    }
+
+    /**
+     * Steps the model forward.
+     *
+     * @param volts what the drivetrain is getting (same on both sides)
+     * @param dt seconds
+     */
+    public void update(double volts, double dt){
+        //Gravity along the slope, in volts so it lines up with kS/kV/kA. Front side down pulls us forward.
+        double gravityVolts = ChassisConstants.kA * kGravity * Math.sin(m_tilt);
+        double drivingVolts = volts + gravityVolts;
+
+        if((Math.abs(m_velocity) < 1e-3) && (Math.abs(drivingVolts) < kStaticFrictionVolts)){
+            //Stuck to the station
+            m_velocity = 0;
+        }
+        else{
+            double acceleration = (drivingVolts - (ChassisConstants.kS * Math.signum(m_velocity)) - (ChassisConstants.kV * m_velocity)) / ChassisConstants.kA;
+            double newVelocity = m_velocity + (acceleration * dt);
+            //Friction can stop the robot but not turn it around
+            if((volts == 0) && (Math.signum(newVelocity) != Math.signum(m_velocity)) && (Math.abs(gravityVolts) < kStaticFrictionVolts)){
+                newVelocity = 0;
+            }
+            m_velocity = newVelocity;
+        }
+        m_position = Math.max(-kMaxPositionMeters, Math.min(kMaxPositionMeters, m_position + (m_velocity * dt)));
+
+        updateTilt(dt);
+    }
+
+    /**
+     * Steps just the station forward, with the robot wherever something else (like the drivetrain sim) says it is.
+     * The slope doesn't push the robot around in this case.
+     *
+     * @param robotPosition meters from the hinge, or 0 if the robot isn't on the station
+     */
+    public void updateStation(double robotPosition, double dt){
+        m_position = Math.max(-kMaxPositionMeters, Math.min(kMaxPositionMeters, robotPosition));
+        updateTilt(dt);
+    }
+
+    private void updateTilt(double dt){
+        //Robot weight twists the station, the hinge slows it down
+        double weightTorque = SimConstants.kRobotMassKg * kGravity * m_position * Math.cos(m_tilt);
+        //If it's sitting still, it takes more than the hinge's static friction to get it moving
+        if((m_tiltRate != 0) || (Math.abs(weightTorque) >= kHingeStaticFriction)){
+            double torque = weightTorque - (kStationDamping * m_tiltRate) - (kHingeStaticFriction * Math.signum(m_tiltRate));
+            double newTiltRate = m_tiltRate + ((torque / kStationInertia) * dt);
+            //Hinge friction can stop it but not swing it back
+            if((m_tiltRate != 0) && (Math.signum(newTiltRate) != Math.signum(m_tiltRate)) && (Math.abs(weightTorque) < kHingeStaticFriction)){
+                newTiltRate = 0;
+            }
+            m_tiltRate = newTiltRate;
+            m_tilt += m_tiltRate * dt;
+        }
+
+        //Hitting the ground stops it dead
+        if(Math.abs(m_tilt) >= kMaxTiltRadians){
+            m_tilt = Math.copySign(kMaxTiltRadians, m_tilt);
+            m_tiltRate = 0;
+        }
+    }
+
+    public double getPosition(){
+        return m_position;
+    }
+
+    public double getVelocity(){
+        return m_velocity;
+    }
+
+    //What the NavX would read as pitch (nose up positive, the way the balance code wants it)
+    public double getPitchDegrees(){
+        return -Math.toDegrees(m_tilt);
+    }
+
+    public double getPitchRateDegreesPerSecond(){
+        return -Math.toDegrees(m_tiltRate);
+    }
+}
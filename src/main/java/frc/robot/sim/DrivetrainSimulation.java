@@ -0,0 +1,89 @@
+package frc.robot.sim;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.simulation.DifferentialDrivetrainSim;
+
+import frc.robot.subsystems.ChassisSubsystem;
+
+//Constants
+import frc.robot.Constants.ChassisConstants;
+import frc.robot.Constants.SimConstants;
+
+/**
+ * The drivetrain in simulation. Three NEOs a side go into a DifferentialDrivetrainSim, and ChassisIOSim reports the
+ * resulting wheel positions/speeds for all six motors like real encoders.
+ */
+public class DrivetrainSimulation {
+    public static final int kMotorsPerSide = 3;
+
+    //The encoder conversion we use (2.025 inches per rotation) was measured on the robot and doesn't match
+    //kWheelDiameter / kGearRatio, so the sim uses whatever gearing makes the two agree
+    private static final double kMetersPerRotation = ChassisSubsystem.rotationsToMeters(1);
+    private static final double kWheelRadiusMeters = Units.inchesToMeters(ChassisConstants.kWheelDiameter) / 2;
+    private static final double kGearing = (2 * Math.PI * kWheelRadiusMeters) / kMetersPerRotation;
+
+    private final DifferentialDrivetrainSim m_sim = new DifferentialDrivetrainSim(
+        DCMotor.getNEO(kMotorsPerSide),
+        kGearing,
+        SimConstants.kDrivetrainMOI,
+        SimConstants.kRobotMassKg,
+        kWheelRadiusMeters,
+        ChassisConstants.kTrackWidthMeters,
+        null);
+
+    /**
+     * @param leftVolts what the left motors are putting out
+     * @param rightVolts same for the right side
+     */
+    public void update(double leftVolts, double rightVolts, double dt){
+        m_sim.setInputs(leftVolts, rightVolts);
+        m_sim.update(dt);
+    }
+
+    //Motor rotations, like the Spark Max encoders
+    public double getLeftRotations(){
+        return m_sim.getLeftPositionMeters() / kMetersPerRotation;
+    }
+
+    public double getRightRotations(){
+        return m_sim.getRightPositionMeters() / kMetersPerRotation;
+    }
+
+    //Motor RPM
+    public double getLeftRpm(){
+        return (m_sim.getLeftVelocityMetersPerSecond() / kMetersPerRotation) * 60;
+    }
+
+    public double getRightRpm(){
+        return (m_sim.getRightVelocityMetersPerSecond() / kMetersPerRotation) * 60;
+    }
+
+    //The sim gives current for a whole side, these are per motor
+    public double getLeftMotorCurrent(){
+        return m_sim.getLeftCurrentDrawAmps() / kMotorsPerSide;
+    }
+
+    public double getRightMotorCurrent(){
+        return m_sim.getRightCurrentDrawAmps() / kMotorsPerSide;
+    }
+
+    public void resetPose(Pose2d pose){
+        m_sim.setPose(pose);
+    }
+
+    //Where the robot actually is (not where odometry thinks it is)
+    public Pose2d getPose(){
+        return m_sim.getPose();
+    }
+
+    //Radians, counterclockwise positive
+    public double getHeading(){
+        return m_sim.getHeading().getRadians();
+    }
+
+    public double getCurrentDrawAmps(){
+        return m_sim.getCurrentDrawAmps();
+    }
+}
@@ -0,0 +1,121 @@
+package frc.robot.sim;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.util.Units;
+
+import frc.robot.io.VisionIO;
+import frc.robot.subsystems.PoseEstimatorSubsystem;
+
+//Constants
+import frc.robot.Constants.SimConstants;
+
+/**
+ * Works out what the Limelight would see each frame, which VisionIOSim hands to VisionSubsystem the same way the
+ * real Limelight's NetworkTables values come in. There's one target (the middle of the grid, straight ahead of where
+ * the autons start), and botpose is just the simulated robot pose, since in simulation "field" and "where we
+ * started" are the same thing.
+ *
+ * <p>Each frame reports the usual latency, so it's worked out from where the robot was that long ago (from the last
+ * few poses it was given), not where it is now. Otherwise VisionSubsystem's latency compensation would be moving
+ * frames that never had any latency.
+ */
+public class LimelightSimulation {
+    //Same numbers VisionSubsystem.calculateDistance() uses, so the distance it works out matches the real one
+    private static final double kMountAngleDegrees = 4;
+    private static final double kLensHeightInches = 28.5;
+    private static final double kTopGoalHeightInches = 43.5;
+    private static final double kBottomGoalHeightInches = 24;
+    //What the Limelight usually reports for pipeline and capture latency
+    private static final double kPipelineLatencyMs = 11;
+    private static final double kCaptureLatencyMs = 11;
+    private static final double kLatencySeconds = (kPipelineLatencyMs + kCaptureLatencyMs) / 1000;
+
+    //The last few poses (time, x, y, heading), overwritten in a circle. A few loops is plenty for 22ms of latency.
+    private static final int kHistorySize = 8;
+    private final double[] m_times = new double[kHistorySize];
+    private final double[] m_xs = new double[kHistorySize];
+    private final double[] m_ys = new double[kHistorySize];
+    private final double[] m_headings = new double[kHistorySize];
+    private int m_head = 0;
+    private int m_size = 0;
+
+    //Where the robot was when the picture was taken, filled in by rewind()
+    private double m_x;
+    private double m_y;
+    private double m_heading;
+
+    /**
+     * Makes one frame.
+     *
+     * @param heading radians, counterclockwise positive
+     * @param time simulated FPGA time the frame comes in at
+     * @param pipeline the pipeline the robot code asked for
+     * @param frame gets filled with the frame (frameCount goes up by one)
+     */
+    public void update(Pose2d pose, double heading, double time, int pipeline, VisionIO.Inputs frame){
+        m_times[m_head] = time;
+        m_xs[m_head] = pose.getX();
+        m_ys[m_head] = pose.getY();
+        m_headings[m_head] = heading;
+        m_head = (m_head + 1) % kHistorySize;
+        if(m_size < kHistorySize){
+            m_size++;
+        }
+        rewind(time - kLatencySeconds);
+
+        double dx = SimConstants.kLimelightTargetX - m_x;
+        double dy = SimConstants.kLimelightTargetY - m_y;
+        double distanceMeters = Math.hypot(dx, dy);
+
+        //Limelight tx is positive when the target is to the right, which is clockwise
+        double bearing = Math.toDegrees(Math.atan2(dy, dx) - m_heading);
+        bearing = bearing - (360 * Math.floor((bearing + 180) / 360));
+        double tx = -bearing;
+        boolean visible = (Math.abs(tx) <= SimConstants.kLimelightHalfFovDegrees) && (distanceMeters <= SimConstants.kLimelightRangeMeters);
+
+        //Work backwards from VisionSubsystem.calculateDistance(): positive ty means it's looking at the top goal
+        double distanceInches = Units.metersToInches(distanceMeters);
+        double ty = Math.toDegrees(Math.atan((kTopGoalHeightInches - kLensHeightInches) / distanceInches)) - kMountAngleDegrees;
+        if(ty <= 0){
+            ty = Math.toDegrees(Math.atan((kBottomGoalHeightInches - kLensHeightInches) / distanceInches)) - kMountAngleDegrees;
+        }
+
+        frame.frameCount++;
+        frame.frameTime = time;
+        frame.tx = visible ? tx : 0;
+        frame.ty = visible ? ty : 0;
+        frame.tv = visible;
+        frame.pipelineLatencyMs = kPipelineLatencyMs;
+        frame.captureLatencyMs = kCaptureLatencyMs;
+        frame.pipeline = pipeline;
+        frame.hasBotPose = visible;
+        frame.botPoseX = visible ? m_x : 0;
+        frame.botPoseY = visible ? m_y : 0;
+    }
+
+    //Sets m_x/m_y/m_heading to the pose at a time, in between the two saved poses around it (or the oldest one if
+    //it's from before the history starts)
+    private void rewind(double time){
+        //Newest to oldest
+        for(int i = 1; i <= m_size; i++){
+            int newer = (m_head - i + kHistorySize) % kHistorySize;
+            if(i == m_size){
+                setRewound(newer, newer, 0);
+                return;
+            }
+            int older = (newer - 1 + kHistorySize) % kHistorySize;
+            if(m_times[older] <= time){
+                double span = m_times[newer] - m_times[older];
+                double fraction = (span > 0) ? Math.min(1, (time - m_times[older]) / span) : 1;
+                setRewound(older, newer, fraction);
+                return;
+            }
+        }
+    }
+
+    private void setRewound(int older, int newer, double fraction){
+        m_x = m_xs[older] + ((m_xs[newer] - m_xs[older]) * fraction);
+        m_y = m_ys[older] + ((m_ys[newer] - m_ys[older]) * fraction);
+        m_heading = m_headings[older] + (PoseEstimatorSubsystem.angleDifference(m_headings[newer], m_headings[older]) * fraction);
+    }
+}
@@ -0,0 +1,67 @@
+package frc.robot.sim;
+
+import edu.wpi.first.math.geometry.Pose2d;
+
+//Constants
+import frc.robot.Constants.SimConstants;
+
+/**
+ * Makes up NavX readings from the simulated drivetrain and a {@link ChargeStationModel} sitting on the field.
+ * NavIOSim feeds them into a GyroBuffer the same way the real NavX callback does.
+ *
+ * <p>The station lies along the x axis (the way the autons drive onto it). Only the part of the robot's weight that's
+ * over the station tips it, and the slope doesn't push back on the drivetrain, so this is for checking the balance
+ * logic end to end, not for tuning it (use {@link BalanceSimulation} for that).
+ */
+public class NavXSimulation {
+    //Start tipped towards the side the autons drive on from
+    private final ChargeStationModel m_station = new ChargeStationModel(-SimConstants.kChargeStationHalfDepthMeters, 0);
+
+    //The latest reading, in the NavX's conventions (degrees, clockwise positive yaw, nose up is negative pitch)
+    private double m_yaw = 0;
+    private double m_pitch = 0;
+    private double m_roll = 0;
+
+    private static boolean isOnStation(double x, double y){
+        return (Math.abs(x - SimConstants.kChargeStationCenterX) <= SimConstants.kChargeStationHalfDepthMeters)
+            && (Math.abs(y - SimConstants.kChargeStationCenterY) <= SimConstants.kChargeStationHalfWidthMeters);
+    }
+
+    /**
+     * @param pose where the simulated robot is
+     * @param heading radians, counterclockwise positive
+     */
+    public void update(Pose2d pose, double heading, double dt){
+        boolean onStation = isOnStation(pose.getX(), pose.getY());
+        //No weight on the station if we're not on it
+        m_station.updateStation(onStation ? (pose.getX() - SimConstants.kChargeStationCenterX) : 0, dt);
+
+        //Station pitch is along the field x axis, so how much of it the robot feels depends on which way we face
+        double stationPitch = onStation ? m_station.getPitchDegrees() : 0;
+        double nosePitch = stationPitch * Math.cos(heading);
+        double roll = -stationPitch * Math.sin(heading);
+
+        //The NavX is clockwise positive and reads negative pitch when the front lifts up
+        double yaw = -Math.toDegrees(heading);
+        m_yaw = yaw - (360 * Math.floor((yaw + 180) / 360));
+        m_pitch = -nosePitch;
+        m_roll = roll;
+    }
+
+    public double getYaw(){
+        return m_yaw;
+    }
+
+    public double getPitch(){
+        return m_pitch;
+    }
+
+    public double getRoll(){
+        return m_roll;
+    }
+
+    //Nose up pitch of the station itself (along the field x axis)
+    public double getStationPitch(){
+        return m_station.getPitchDegrees();
+    }
+}
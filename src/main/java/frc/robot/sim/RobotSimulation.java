@@ -0,0 +1,70 @@
+package frc.robot.sim;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.BatterySim;
+import edu.wpi.first.wpilibj.simulation.RoboRioSim;
+
+import frc.robot.io.ArmIOSim;
+import frc.robot.io.ChassisIOSim;
+import frc.robot.io.NavIOSim;
+import frc.robot.io.VisionIOSim;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.DoubleChannel;
+
+/**
+ * Everything physical about the robot in simulation: drivetrain, arm, NavX (with the charge station) and the
+ * Limelight. Robot.simulationPeriodic() calls {@link #update()} after each loop with whatever the subsystems
+ * commanded, and the sim IOs hand the results to the subsystems at the start of the next one, just like real sensors.
+ *
+ * <p>Only made when running in simulation (./gradlew simulateJava), nothing here runs on the robot.
+ */
+public class RobotSimulation {
+    private static final double kDt = 0.02;
+
+    private final ChassisIOSim m_chassis;
+    private final ArmIOSim m_arm;
+    private final NavIOSim m_navx;
+    private final VisionIOSim m_limelight;
+
+    //Sags with the current draw, starts full
+    private double m_batteryVolts = BatterySim.calculateDefaultBatteryLoadedVoltage();
+
+    //Dashboard channels (where the robot really is, to compare against the pose estimator)
+    private final DoubleChannel m_xEntry = Telemetry.getInstance().addDouble("Sim X (m)", 0.01, 0.1);
+    private final DoubleChannel m_yEntry = Telemetry.getInstance().addDouble("Sim Y (m)", 0.01, 0.1);
+    private final DoubleChannel m_stationPitchEntry = Telemetry.getInstance().addDouble("Sim charge station pitch", 0.1, 0.1);
+    private final DoubleChannel m_armAngleEntry = Telemetry.getInstance().addDouble("Sim arm angle", 0.1, 0.1);
+
+    public RobotSimulation(ChassisIOSim chassis, ArmIOSim arm, NavIOSim navx, VisionIOSim limelight){
+        m_chassis = chassis;
+        m_arm = arm;
+        m_navx = navx;
+        m_limelight = limelight;
+    }
+
+    public void update(){
+        m_chassis.update(m_batteryVolts, kDt);
+        m_arm.update(m_batteryVolts, kDt);
+
+        //Everything drawing current pulls the battery down
+        m_batteryVolts = BatterySim.calculateDefaultBatteryLoadedVoltage(m_chassis.getCurrentDrawAmps(), m_arm.getCurrentDrawAmps());
+        RoboRioSim.setVInVoltage(m_batteryVolts);
+
+        Pose2d pose = m_chassis.getPose();
+        double heading = m_chassis.getHeading();
+        double time = Timer.getFPGATimestamp();
+        m_navx.update(pose, heading, time, kDt);
+        m_limelight.update(pose, heading, time);
+
+        m_xEntry.set(pose.getX());
+        m_yEntry.set(pose.getY());
+        m_stationPitchEntry.set(m_navx.getStationPitch());
+        m_armAngleEntry.set(m_arm.getAngle());
+    }
+
+    //Puts the simulated robot somewhere (the pose estimator doesn't move it, this is where it "really" is)
+    public void resetPose(Pose2d pose){
+        m_chassis.resetPose(pose);
+    }
+}
@@ -1,27 +1,74 @@
 package frc.robot.subsystems;
 
-//Motor libraries
-import com.revrobotics.CANSparkMax;
-import com.revrobotics.CANSparkMax.IdleMode;
-import com.revrobotics.CANSparkMaxLowLevel.MotorType;
-
 //Constants
 import frc.robot.Constants.ArmConstants;
 
-//Potentiometer library
-import edu.wpi.first.wpilibj.AnalogPotentiometer;
+//Hardware
+import frc.robot.io.ArmIO;
+import frc.robot.io.OutputMode;
+
+//Pot filtering
+import edu.wpi.first.math.filter.MedianFilter;
+
+//Control
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.ArmFeedforward;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
 
 //Shuffleboard library
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.BooleanChannel;
+import frc.robot.util.Telemetry.DoubleChannel;
 
 
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.util.LoopProfiler;
+import frc.robot.util.MotorConfigurator;
+import frc.robot.util.StatusFrameManager;
+import frc.robot.util.TrapezoidStepper;
 
 public class ArmSubsystem extends SubsystemBase {
-    private final CANSparkMax m_armMotor = new CANSparkMax(ArmConstants.kMotorPort, MotorType.kBrushed);
+    private final int m_profilerSection = LoopProfiler.getInstance().register("ArmSubsystem.periodic()");
+
+    //The motor and pot (real, or played back from a log)
+    private final ArmIO m_io;
+    private final ArmIO.Inputs m_inputs = new ArmIO.Inputs();
+
+    //Last thing sent to the motor, for the match log
+    private OutputMode m_outputMode = OutputMode.NONE;
+    private double m_command = 0;
+
+    private final MedianFilter m_potMedian = new MedianFilter(ArmConstants.kPotMedianWindow);
+
+    //The pot is only read once per loop (in sampleAngle()), everything else uses these so every check in a loop
+    //agrees with every other one
+    private double m_angle;
+    private double m_angularVelocity = 0;
+    private double m_lastSampleTime;
 
-    //Set with a range of angles so we don't have to deal with long decimels, even though the output won't be the same as real-world angles
-    private AnalogPotentiometer pot = new AnalogPotentiometer(ArmConstants.kPotPort , 333, -88);
+    //Moves the arm along a trapezoid profile (in pot degrees) to the goal, and keeps holding it once it's there.
+    //Same thing ProfiledPIDController does, but ProfiledPIDController makes a new profile every loop.
+    private final TrapezoidStepper m_profile = new TrapezoidStepper(ArmConstants.kMaxVelocityDegreesPerSecond,
+        ArmConstants.kMaxAccelerationDegreesPerSecondSquared);
+    private final PIDController m_controller = new PIDController(ArmConstants.kP, ArmConstants.kI, ArmConstants.kD);
+    private final ArmFeedforward m_feedforward = new ArmFeedforward(ArmConstants.kS, ArmConstants.kG, ArmConstants.kV);
+
+    //False while something is driving the arm by hand (up()/down()/setSafe())
+    private boolean m_closedLoop = false;
+
+    //Dashboard channels
+    private final DoubleChannel m_goalEntry = Telemetry.getInstance().addDouble("Arm goal", 0.1, 0.1);
+    private final DoubleChannel m_setpointEntry = Telemetry.getInstance().addDouble("Arm setpoint", 0.1, 0.1);
+    private final DoubleChannel m_voltageEntry = Telemetry.getInstance().addDouble("Arm voltage", 0.05, 0.1);
+    private final BooleanChannel m_closedLoopEntry = Telemetry.getInstance().addBoolean("Arm closed loop");
+    private final DoubleChannel m_speedEntry = Telemetry.getInstance().addDouble("Arm Motor speed");
+    private final DoubleChannel m_potEntry = Telemetry.getInstance().addDouble("pot position", 0.1, 0.1);
+    private final DoubleChannel m_angularVelocityEntry = Telemetry.getInstance().addDouble("Arm velocity (deg/s)", 0.5, 0.1);
+    private final DoubleChannel m_appliedOutputEntry = Telemetry.getInstance().addDouble("Arm Motor applied output");
+    private final DoubleChannel m_busVoltageEntry = Telemetry.getInstance().addDouble("Spark Max bus voltage", 0.05, 0.25);
+    private final DoubleChannel m_currentEntry = Telemetry.getInstance().addDouble("Arm motor current", 0.1, 0.1);
     
     /**These variables were originally used to try to make the arm gradually move up or down until the arm reaches a certain position, but 
      * that doesn't work. I'm still keeping them in for testing purposes - Noah
@@ -29,78 +76,217 @@ public class ArmSubsystem extends SubsystemBase {
     //private double gravityOffset = 0; //this represents the motor speed required to stop the arm from falling down
     //private double desiredAngle = 5;
 
-    public ArmSubsystem(){
-        m_armMotor.restoreFactoryDefaults();
-        m_armMotor.setSmartCurrentLimit(ArmConstants.kCurrentLimit);
-        m_armMotor.setIdleMode(IdleMode.kBrake);
-        m_armMotor.setInverted(false);
-        m_armMotor.setOpenLoopRampRate(0.2);
+    public ArmSubsystem(ArmIO io){
+        m_io = io;
+        m_controller.setTolerance(ArmConstants.kGoalTolerance);
+
+        //Start the filters at the real angle instead of ramping up from 0
+        m_io.updateInputs(m_inputs);
+        double angle = m_inputs.potAngle;
+        for(int i = 0; i < ArmConstants.kPotMedianWindow; i++){
+            m_potMedian.calculate(angle);
+        }
+        m_angle = angle;
+        m_lastSampleTime = Timer.getFPGATimestamp();
+    }
+
+    //Reads and filters the pot. Runs once at the start of periodic().
+    private void sampleAngle(){
+        m_io.updateInputs(m_inputs);
+        double now = Timer.getFPGATimestamp();
+        double median = m_potMedian.calculate(m_inputs.potAngle);
+        double dt = now - m_lastSampleTime;
+        //Single pole low-pass, how far to move towards the new reading (1 means no filtering). Uses the real time since
+        //the last sample so a slow loop doesn't change the filter's time constant.
+        double gain = (ArmConstants.kPotFilterTimeConstant > 0)
+            ? 1 - Math.exp(-Math.max(dt, 0) / ArmConstants.kPotFilterTimeConstant) : 1;
+        double angle = m_angle + ((median - m_angle) * gain);
+        if(dt > 0){
+            m_angularVelocity = (angle - m_angle) / dt;
+        }
+        m_angle = angle;
+        m_lastSampleTime = now;
+    }
+
+    //Run on a startup thread by RobotContainer. Skips the flash write if the controller already has this config.
+    public void configureMotors(MotorConfigurator configurator){
+        m_io.configureMotors(configurator);
         //setSafe(0);
     }
 
+    public void registerStatusFrames(StatusFrameManager manager){
+        m_io.registerStatusFrames(manager);
+    }
+
+    private void setDutyCycle(double speed){
+        m_io.setDutyCycle(speed);
+        m_outputMode = OutputMode.DUTY_CYCLE;
+        m_command = speed;
+    }
+
+    private void setVoltage(double volts){
+        m_io.setVoltage(volts);
+        m_outputMode = OutputMode.VOLTAGE;
+        m_command = volts;
+    }
+
+    //What was last sent to the motor (duty cycle or volts depending on the mode), for the match log
+    public OutputMode getOutputMode(){
+        return m_outputMode;
+    }
+
+    public double getCommand(){
+        return m_command;
+    }
+
+    /**
+     * Moves the arm to an angle (pot degrees) and holds it there. periodic() does the actual work every loop, so
+     * this can be called from anywhere, and calling it again mid-move just changes where the profile is headed.
+     */
+    public void setGoal(double degrees){
+        double goal = MathUtil.clamp(degrees, ArmConstants.kMinAngle, ArmConstants.kMaxAngle);
+        if(!m_closedLoop){
+            //Start the profile from where the arm actually is, not wherever the last one ended
+            m_controller.reset();
+            m_profile.reset(m_angle);
+            m_closedLoop = true;
+        }
+        m_io.setBrakeMode(true);
+        m_profile.setGoal(goal);
+    }
+
+    public double getGoal(){
+        return m_profile.getGoal();
+    }
+
+    //True once the profile is finished and the arm is within kGoalTolerance of the goal
+    public boolean atGoal(){
+        return m_closedLoop && m_profile.isFinished() && m_controller.atSetpoint();
+    }
+
+    //True once the profile is finished and the arm is within kAngleTolerance of the goal (close enough to move on)
+    public boolean nearGoal(){
+        return m_closedLoop && m_profile.isFinished() && (Math.abs(m_angle - m_profile.getGoal()) <= ArmConstants.kAngleTolerance);
+    }
+
+    //Pot degrees to radians above horizontal, which is what the gravity feedforward wants
+    public static double toArmRadians(double potDegrees){
+        return Math.toRadians((potDegrees - ArmConstants.kPotAtHorizontal) / ArmConstants.kPotDegreesPerArmDegree);
+    }
+
+    //The other way around, for the simulation
+    public static double toPotDegrees(double armRadians){
+        return (Math.toDegrees(armRadians) * ArmConstants.kPotDegreesPerArmDegree) + ArmConstants.kPotAtHorizontal;
+    }
+
+    //Runs the profile + PID + feedforward. Called from periodic() every loop while closed loop is on.
+    private void runClosedLoop(){
+        m_profile.step(m_controller.getPeriod());
+        double setpoint = m_profile.getPosition();
+        double feedback = m_controller.calculate(m_angle, setpoint);
+        //The profile is in pot degrees/second, the feedforward wants arm radians/second
+        double velocity = Math.toRadians(m_profile.getVelocity() / ArmConstants.kPotDegreesPerArmDegree);
+        double feedforward = ArmConstants.kGravityFeedforwardMeasured
+            ? m_feedforward.calculate(toArmRadians(setpoint), velocity)
+            : ArmConstants.kHoldVolts + (ArmConstants.kS * Math.signum(velocity)) + (ArmConstants.kV * velocity);
+
+        double volts = MathUtil.clamp(feedback + feedforward, -ArmConstants.kMaxVoltage, ArmConstants.kMaxVoltage);
+        setVoltage(volts);
+        m_voltageEntry.set(volts);
+        m_setpointEntry.set(setpoint);
+    }
+
     //This helps ensure the arm safely lowers and raises to prevent itself from breaking
+    //Driving the arm by hand turns off closed loop control until the next setGoal()
     public void setSafe(double speed){
+        m_closedLoop = false;
+
         //Stop the arm from going too high
-        /*if((pot.get() > ArmConstants.kMaxAngle) && (speed>0)){
-            m_armMotor.set(0.3); //setting it to zero will make it fall
+        /*if((m_angle > ArmConstants.kMaxAngle) && (speed>0)){
+            setDutyCycle(0.3); //setting it to zero will make it fall
         }*/
         //Stop the motor from recieving any voltage higher than 0.8
         if(speed < -0.9){
-            m_armMotor.set(-0.9);
+            setDutyCycle(-0.9);
         }
         else if(speed > 0.9){
-            m_armMotor.set(0.9);
+            setDutyCycle(0.9);
         }
 
         else{
-            m_armMotor.set(speed);
+            setDutyCycle(speed);
         }
     }
 
     //These three are used for manual control of the arm
     public void up(){
-        m_armMotor.setIdleMode(IdleMode.kCoast);
+        m_io.setBrakeMode(false);
         setSafe(0.8);
     }
 
     public void down(){
-        m_armMotor.setIdleMode(IdleMode.kCoast);
+        m_io.setBrakeMode(false);
         setSafe(-0.1);
     }
 
     public void stop(){
-        m_armMotor.setIdleMode(IdleMode.kBrake);
-        if(pot.get() < 20){
+        m_io.setBrakeMode(true);
+        if(m_angle < ArmConstants.kRestingAngle){
             setSafe(-0.1);  
         }
+        else if(ArmConstants.kGravityFeedforwardMeasured){
+            //Hold wherever the arm is (the fixed 0.3 let it drift)
+            setGoal(m_angle);
+        }
         else{
             // Setting the arm to 0.3 seems to be strong enough to stop the arm from falling back down
-            setSafe(0.3);            
+            setSafe(ArmConstants.kHoldSpeed);
         }
     }
 
     public void emergencyStop(){
-        m_armMotor.setIdleMode(IdleMode.kBrake);
-        m_armMotor.set(0);
+        m_closedLoop = false;
+        m_io.setBrakeMode(true);
+        setDutyCycle(0);
     }
 
     //These three are getters/setters for commands
     public void setCoast(){
-        m_armMotor.setIdleMode(IdleMode.kCoast);
+        m_io.setBrakeMode(false);
     }
 
     public void setBrake(){
-        m_armMotor.setIdleMode(IdleMode.kBrake);
+        m_io.setBrakeMode(true);
     }
 
+    //Filtered pot angle from the start of this loop
     public double getPot(){
-        return pot.get();
+        return m_angle;
+    }
+
+    //What the motor controller was putting out at the start of this loop (-1 to 1), the simulation drives the arm model with this
+    public double getAppliedOutput(){
+        return m_inputs.appliedOutput;
+    }
+
+    //The raw IO inputs from this loop (unfiltered pot), for the match log. Don't change them.
+    public ArmIO.Inputs getInputs(){
+        return m_inputs;
+    }
+
+    //Pot degrees per second, from the filtered angle
+    public double getAngularVelocity(){
+        return m_angularVelocity;
     }
 
 
     //This is called every 20ms
     @Override
     public void periodic(){
+        long start = LoopProfiler.now();
+
+        sampleAngle();
+
         //stabalization function
         /* Version1:
          *      There's a variable called "gravity offset" that keeps track of what speed the motor has to be at to stop it from falling.
@@ -113,10 +299,10 @@ public class ArmSubsystem extends SubsystemBase {
         // Mr. Lacouski talked about changing the design of the arm to account for gravity though, so I'm gonna keep this code in here for if he does - Noah.
 
         //if(getCurrentCommand() == null){
-            /*if(pot.get() > desiredAngle+5){
+            /*if(m_angle > desiredAngle+5){
                 gravityOffset -= 0.001;
             }
-            else if((pot.get() < desiredAngle-5) && (gravityOffset < 0.6)){
+            else if((m_angle < desiredAngle-5) && (gravityOffset < 0.6)){
                 gravityOffset += 0.001;
             }*/
             //setSafe(gravityOffset);
@@ -124,10 +310,26 @@ public class ArmSubsystem extends SubsystemBase {
         
         //SmartDashboard.putNumber("Gravity Offset", gravityOffset); 
         //SmartDashboard.putNumber("Desired angle", desiredAngle);
-        SmartDashboard.putNumber("Arm Motor speed", m_armMotor.get());  
-        SmartDashboard.putNumber("pot position", pot.get());
-        SmartDashboard.putNumber("Arm Motor applied output", m_armMotor.getAppliedOutput());
-        SmartDashboard.putNumber("Spark Max bus voltage", m_armMotor.getBusVoltage());
-        SmartDashboard.putNumber("Arm motor current", m_armMotor.getOutputCurrent());
+
+        // UPDATE 2 - the profiled PID + cos(angle) feedforward below replaces this. The feedforward does the gravity
+        // offset's job, and the PID + profile keep the arm moving smoothly so it never gets stuck in static friction.
+        if(DriverStation.isDisabled()){
+            //Motors are off while disabled, so don't let the profile or integrator run ahead. Closed loop turns back
+            //on with the next setGoal().
+            m_closedLoop = false;
+        }
+        else if(m_closedLoop){
+            runClosedLoop();
+        }
+        m_goalEntry.set(getGoal());
+        m_closedLoopEntry.set(m_closedLoop);
+        m_speedEntry.set(m_inputs.setSpeed);
+        m_potEntry.set(m_angle);
+        m_angularVelocityEntry.set(m_angularVelocity);
+        m_appliedOutputEntry.set(m_inputs.appliedOutput);
+        m_busVoltageEntry.set(m_inputs.busVoltage);
+        m_currentEntry.set(m_inputs.current);
+
+        LoopProfiler.getInstance().record(m_profilerSection, start);
     }
 }
\ No newline at end of file
@@ -1,106 +1,168 @@
 package frc.robot.subsystems;
 
-//Motor libraries
-import com.revrobotics.CANSparkMax;
-import com.revrobotics.RelativeEncoder;
-import com.revrobotics.CANSparkMax.IdleMode;
-import com.revrobotics.CANSparkMaxLowLevel.MotorType;
-import edu.wpi.first.wpilibj.motorcontrol.MotorControllerGroup;
-
 //Constants
 import frc.robot.Constants.ChassisConstants;
 
-//Drive train object
-import edu.wpi.first.wpilibj.drive.DifferentialDrive;
+//Drive train math
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.wpilibj.drive.RobotDriveBase;
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+
+//Dashboard
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.BooleanChannel;
+import frc.robot.util.Telemetry.DoubleChannel;
+
+//Hardware
+import frc.robot.io.ChassisIO;
+import frc.robot.io.OutputMode;
 
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.util.LoopProfiler;
+import frc.robot.util.MotorConfigurator;
+import frc.robot.util.StatusFrameManager;
 
 public class ChassisSubsystem extends SubsystemBase {
-    
-    private final CANSparkMax m_leftFront = new CANSparkMax(ChassisConstants.kLeftFrontPort, MotorType.kBrushless);
-    private final CANSparkMax m_leftRear1 = new CANSparkMax(ChassisConstants.kLeftRearPort1, MotorType.kBrushless);
-    private final CANSparkMax m_leftRear2 = new CANSparkMax(ChassisConstants.kLeftRearPort2, MotorType.kBrushless);
-    MotorControllerGroup m_left = new MotorControllerGroup(m_leftFront, m_leftRear1, m_leftRear2);
-
-    private final CANSparkMax m_rightFront = new CANSparkMax(ChassisConstants.kRightFrontPort, MotorType.kBrushless);
-    private final CANSparkMax m_rightRear1 = new CANSparkMax(ChassisConstants.kRightRearPort1, MotorType.kBrushless);
-    private final CANSparkMax m_rightRear2 = new CANSparkMax(ChassisConstants.kRightRearPort2, MotorType.kBrushless);
-    MotorControllerGroup m_right = new MotorControllerGroup(m_rightFront, m_rightRear1, m_rightRear2);
-
-    //Get Encoders
-    private RelativeEncoder m_leftFrontEncoder = m_leftFront.getEncoder();
-    private RelativeEncoder m_rightFrontEncoder = m_rightFront.getEncoder();
-    private RelativeEncoder m_rightRearEncoder1 = m_rightRear1.getEncoder();
-    private RelativeEncoder m_rightRearEncoder2 = m_rightRear2.getEncoder();
-    private RelativeEncoder m_leftRearEncoder1 = m_leftRear1.getEncoder();
-    private RelativeEncoder m_leftRearEncoder2 = m_leftRear2.getEncoder();
-
-    private final DifferentialDrive m_drive = new DifferentialDrive(m_left, m_right);
-
-
-    public ChassisSubsystem(){
-        m_leftFront.restoreFactoryDefaults();
-        m_rightFront.restoreFactoryDefaults();
-        m_rightRear1.restoreFactoryDefaults();
-        m_rightRear2.restoreFactoryDefaults();
-        m_leftRear1.restoreFactoryDefaults();
-        m_leftRear2.restoreFactoryDefaults();
-
-        m_leftFront.setOpenLoopRampRate(0.25);
-        m_rightFront.setOpenLoopRampRate(0.25);
-        m_rightRear1.setOpenLoopRampRate(0.25);
-        m_rightRear2.setOpenLoopRampRate(0.25);
-        m_leftRear1.setOpenLoopRampRate(0.25);
-        m_leftRear2.setOpenLoopRampRate(0.25);
-
-        m_leftFront.setSmartCurrentLimit(ChassisConstants.kCurrentLimit);
-        m_rightFront.setSmartCurrentLimit(ChassisConstants.kCurrentLimit);
-        m_rightRear1.setSmartCurrentLimit(ChassisConstants.kCurrentLimit);
-        m_rightRear2.setSmartCurrentLimit(ChassisConstants.kCurrentLimit);
-        m_leftRear1.setSmartCurrentLimit(ChassisConstants.kCurrentLimit);
-        m_leftRear2.setSmartCurrentLimit(ChassisConstants.kCurrentLimit);
-        
-        m_leftFront.setIdleMode(IdleMode.kCoast);
-        m_rightFront.setIdleMode(IdleMode.kCoast);
-        m_rightRear1.setIdleMode(IdleMode.kCoast);
-        m_rightRear2.setIdleMode(IdleMode.kCoast);
-        m_leftRear1.setIdleMode(IdleMode.kCoast);
-        m_leftRear2.setIdleMode(IdleMode.kCoast);
-        
-        m_leftFront.setInverted(false);
-        m_rightFront.setInverted(true);
-        m_leftRear1.setInverted(false);
-        m_leftRear2.setInverted(false);
-        m_rightRear1.setInverted(true);
-        m_rightRear2.setInverted(true);
-
-        m_leftFront.burnFlash();
-        m_rightFront.burnFlash();
-        m_leftRear1.burnFlash();
-        m_leftRear2.burnFlash();
-        m_rightRear1.burnFlash();
-        m_rightRear2.burnFlash();
+    //CAN ids of the motors in each ChassisIO slot, for warnings
+    private static final int[] kMotorPorts = {ChassisConstants.kLeftFrontPort, ChassisConstants.kLeftRearPort1, ChassisConstants.kLeftRearPort2,
+        ChassisConstants.kRightFrontPort, ChassisConstants.kRightRearPort1, ChassisConstants.kRightRearPort2};
+    //Every follower's ChassisIO slot, and its leader's
+    private static final int[] kFollowers = {ChassisIO.kLeftRear1, ChassisIO.kLeftRear2, ChassisIO.kRightRear1, ChassisIO.kRightRear2};
+    private static final int[] kFollowerLeaders = {ChassisIO.kLeftFront, ChassisIO.kLeftFront, ChassisIO.kRightFront, ChassisIO.kRightFront};
+
+    private final int m_profilerSection = LoopProfiler.getInstance().register("ChassisSubsystem.periodic()");
+
+    //The motors (real, or played back from a log)
+    private final ChassisIO m_io;
+    private final ChassisIO.Inputs m_inputs = new ChassisIO.Inputs();
+
+    //Whether each follower (by kFollowers index) is marked as failing, and how many loops in a row it's looked fine since
+    private final boolean[] m_followerFailed = new boolean[kFollowers.length];
+    private final int[] m_followerHealthyLoops = new int[kFollowers.length];
+    //Each follower's leader output last loop, so we only compare outputs while the leader's is steady
+    private final double[] m_lastLeaderOutputs = new double[kFollowers.length];
+    private int m_loopsSinceFaultCheck = 0;
+
+    //Last thing sent to the leaders, for the match log
+    private OutputMode m_outputMode = OutputMode.NONE;
+    private double m_leftCommand = 0;
+    private double m_rightCommand = 0;
+
+    private final SimpleMotorFeedforward m_feedforward = new SimpleMotorFeedforward(ChassisConstants.kS, ChassisConstants.kV, ChassisConstants.kA);
+
+    //Teleop sends wheel speeds to the Spark Maxes instead of duty cycles when this is on
+    private boolean m_closedLoop = false;
+
+    //Output of arcadeDriveIK(), kept here instead of in a new WheelSpeeds so driving doesn't make garbage every loop
+    private double m_leftSpeed = 0;
+    private double m_rightSpeed = 0;
+
+    //Dashboard channels
+    private final DoubleChannel m_leftFrontEncEntry = Telemetry.getInstance().addDouble("LF_Enc");
+    private final DoubleChannel m_rightFrontEncEntry = Telemetry.getInstance().addDouble("RF_Enc");
+    private final DoubleChannel m_rightRear1EncEntry = Telemetry.getInstance().addDouble("RR1_Enc");
+    private final DoubleChannel m_rightRear2EncEntry = Telemetry.getInstance().addDouble("RR2_Enc");
+    private final DoubleChannel m_leftRear1EncEntry = Telemetry.getInstance().addDouble("LR1_Enc");
+    private final DoubleChannel m_leftRear2EncEntry = Telemetry.getInstance().addDouble("LR2_Enc");
+
+    private final DoubleChannel m_leftFrontSpeedEntry = Telemetry.getInstance().addDouble("LF_Speed");
+    private final DoubleChannel m_rightFrontSpeedEntry = Telemetry.getInstance().addDouble("RF_Speed");
+    private final DoubleChannel m_rightRear1SpeedEntry = Telemetry.getInstance().addDouble("RR1_Speed");
+    private final DoubleChannel m_rightRear2SpeedEntry = Telemetry.getInstance().addDouble("RR2_Speed");
+    private final DoubleChannel m_leftRear1SpeedEntry = Telemetry.getInstance().addDouble("LR1_Speed");
+    private final DoubleChannel m_leftRear2SpeedEntry = Telemetry.getInstance().addDouble("LR2_Speed");
 
+    private final DoubleChannel m_leftFrontCurrentEntry = Telemetry.getInstance().addDouble("LF_Current", 0.5, 0.1);
+    private final DoubleChannel m_rightFrontCurrentEntry = Telemetry.getInstance().addDouble("RF_Current", 0.5, 0.1);
+    private final DoubleChannel m_rightRear1CurrentEntry = Telemetry.getInstance().addDouble("RR1_Current", 0.5, 0.1);
+    private final DoubleChannel m_rightRear2CurrentEntry = Telemetry.getInstance().addDouble("RR2_Current", 0.5, 0.1);
+    private final DoubleChannel m_leftRear1CurrentEntry = Telemetry.getInstance().addDouble("LR1_Current", 0.5, 0.1);
+    private final DoubleChannel m_leftRear2CurrentEntry = Telemetry.getInstance().addDouble("LR2_Current", 0.5, 0.1);
+    private final BooleanChannel m_followersOkEntry = Telemetry.getInstance().addBoolean("Drive followers OK");
+
+    private final DoubleChannel m_averagePositionEntry = Telemetry.getInstance().addDouble("AveragePosition");
+    private final DoubleChannel m_averageRotationEntry = Telemetry.getInstance().addDouble("AverageRotation");
+    private final DoubleChannel m_averageInchesEntry = Telemetry.getInstance().addDouble("AveragePosition(inch)");
+    private final BooleanChannel m_closedLoopEntry = Telemetry.getInstance().addBoolean("Closed loop drive");
+    private final DoubleChannel m_nativeReadsEntry = Telemetry.getInstance().addDouble("Chassis encoder reads per loop", 0, 0.5);
+
+    //Everything read from the Spark Maxes this loop
+    private final SensorSnapshot m_snapshot = new SensorSnapshot();
+
+    //Goes up every time the encoders get zeroed, so odometry knows not to treat it as the robot driving backwards.
+    //Volatile since the startup thread zeroes them too.
+    private volatile int m_encoderResets = 0;
+
+
+    public ChassisSubsystem(ChassisIO io){
+        m_io = io;
+    }
+
+    /**
+     * Makes sure all six Spark Maxes have their settings burned. Controllers that already have them are skipped,
+     * so a normal boot doesn't re-flash anything. RobotContainer runs this on a startup thread.
+     */
+    public void configureMotors(MotorConfigurator configurator){
+        m_io.configureMotors(configurator);
         resetEncoders();
     }
 
+    //Tells the status frame manager what each controller's frames should be in each profile
+    public void registerStatusFrames(StatusFrameManager manager){
+        m_io.registerStatusFrames(manager);
+    }
+
+    //These are called in almost every command's initialize(). TrackedSparkMax drops the frames if the mode is already set.
     public void setBrakeMode(){
-        m_leftFront.setIdleMode(IdleMode.kBrake);
-        m_rightFront.setIdleMode(IdleMode.kBrake);
-        m_rightRear1.setIdleMode(IdleMode.kBrake);
-        m_rightRear2.setIdleMode(IdleMode.kBrake);
-        m_leftRear1.setIdleMode(IdleMode.kBrake);
-        m_leftRear2.setIdleMode(IdleMode.kBrake);
+        m_io.setBrakeMode(true);
     }
 
     public void setCoastMode(){
-        m_leftFront.setIdleMode(IdleMode.kCoast);
-        m_rightFront.setIdleMode(IdleMode.kCoast);
-        m_rightRear1.setIdleMode(IdleMode.kCoast);
-        m_rightRear2.setIdleMode(IdleMode.kCoast);
-        m_leftRear1.setIdleMode(IdleMode.kCoast);
-        m_leftRear2.setIdleMode(IdleMode.kCoast);
+        m_io.setBrakeMode(false);
+    }
+
+    //Same as DifferentialDrive.arcadeDrive() (deadband, squared inputs), done here so replay runs the same math
+    private void arcadeDrive(double xSpeed, double zRotation, double maxOutput){
+        xSpeed = MathUtil.applyDeadband(xSpeed, RobotDriveBase.kDefaultDeadband);
+        zRotation = MathUtil.applyDeadband(zRotation, RobotDriveBase.kDefaultDeadband);
+        arcadeDriveIK(xSpeed, zRotation);
+        setDutyCycle(m_leftSpeed * maxOutput, m_rightSpeed * maxOutput);
+    }
+
+    //DifferentialDrive.arcadeDriveIK() with squared inputs, but it fills m_leftSpeed/m_rightSpeed instead of returning a new object
+    private void arcadeDriveIK(double xSpeed, double zRotation){
+        xSpeed = MathUtil.clamp(xSpeed, -1.0, 1.0);
+        zRotation = MathUtil.clamp(zRotation, -1.0, 1.0);
+        xSpeed = Math.copySign(xSpeed * xSpeed, xSpeed);
+        zRotation = Math.copySign(zRotation * zRotation, zRotation);
+
+        double leftSpeed = xSpeed - zRotation;
+        double rightSpeed = xSpeed + zRotation;
+
+        //Scale both sides down so the bigger one fits, along the direction the stick is pointing
+        double greaterInput = Math.max(Math.abs(xSpeed), Math.abs(zRotation));
+        double lesserInput = Math.min(Math.abs(xSpeed), Math.abs(zRotation));
+        if(greaterInput == 0.0){
+            m_leftSpeed = 0.0;
+            m_rightSpeed = 0.0;
+            return;
+        }
+        double saturatedInput = (greaterInput + lesserInput) / greaterInput;
+        m_leftSpeed = leftSpeed / saturatedInput;
+        m_rightSpeed = rightSpeed / saturatedInput;
+    }
+
+    private void setDutyCycle(double left, double right){
+        m_io.setDutyCycle(left, right);
+        recordCommand(OutputMode.DUTY_CYCLE, left, right);
+    }
+
+    private void recordCommand(OutputMode mode, double left, double right){
+        m_outputMode = mode;
+        m_leftCommand = left;
+        m_rightCommand = right;
     }
 
     //Called by autonomous commands
@@ -128,23 +190,98 @@ public class ChassisSubsystem extends SubsystemBase {
         // }
 
 
-        m_drive.arcadeDrive(xSpeed*.60, -zRotation * .60);
+        arcadeDrive(xSpeed*.60, -zRotation * .60, 1);
     }
 
     //Called by Default drive
     public void drive(double xSpeed, double zRotation, boolean turbo){
-        if(turbo){
-            m_drive.arcadeDrive(xSpeed, -zRotation);
+        if(m_closedLoop){
+            //Same stick shaping as arcadeDrive (squared inputs), but the result is a fraction of top speed instead of a duty cycle
+            arcadeDriveIK(xSpeed, -zRotation);
+            double maxSpeed = ChassisConstants.kMaxTeleopSpeedMetersPerSecond * (turbo ? 1 : .8);
+            setWheelVelocities(m_leftSpeed * maxSpeed, m_rightSpeed * maxSpeed);
+        }
+        else if(turbo){
+            arcadeDrive(xSpeed, -zRotation, 1);
         }
         else{
-            m_drive.arcadeDrive(xSpeed*.8, -zRotation * .8);
+            arcadeDrive(xSpeed*.8, -zRotation * .8, 1);
         }
     }
 
+    /**
+     * Sends wheel speeds (m/s) to the Spark Maxes' own velocity PID, which runs at 1kHz on the controller.
+     * Our feedforward (kS + kV * speed) goes along as volts so the PID only has to fix the leftover error,
+     * and since it's in volts it doesn't change when the battery sags.
+     */
+    public void setWheelVelocities(double leftMetersPerSecond, double rightMetersPerSecond){
+        double leftRpm = toRpm(leftMetersPerSecond);
+        double rightRpm = toRpm(rightMetersPerSecond);
+        m_io.setVelocity(leftRpm, rightRpm, m_feedforward.calculate(leftMetersPerSecond), m_feedforward.calculate(rightMetersPerSecond));
+        recordCommand(OutputMode.VELOCITY, leftRpm, rightRpm);
+    }
+
+    private static double toRpm(double metersPerSecond){
+        return (metersPerSecond * 60) / rotationsToMeters(1);
+    }
+
+    public void setClosedLoop(boolean closedLoop){
+        m_closedLoop = closedLoop;
+    }
+
+    public void toggleClosedLoop(){
+        m_closedLoop = !m_closedLoop;
+    }
+
+    public boolean isClosedLoop(){
+        return m_closedLoop;
+    }
+
+    //Used by trajectory following. Voltage (instead of -1 to 1) so the feedforward works the same at any battery level.
+    public void tankDriveVolts(double leftVolts, double rightVolts){
+        m_io.setVoltage(leftVolts, rightVolts);
+        recordCommand(OutputMode.VOLTAGE, leftVolts, rightVolts);
+    }
+
+    //What was last sent to the leaders (duty cycle, volts or RPM depending on the mode), for the match log
+    public OutputMode getOutputMode(){
+        return m_outputMode;
+    }
+
+    public double getLeftCommand(){
+        return m_leftCommand;
+    }
+
+    public double getRightCommand(){
+        return m_rightCommand;
+    }
+
+    public static double rotationsToMeters(double rotations){
+        return (rotations / ChassisConstants.kInchesToRotationsConversionFactor) * ChassisConstants.kMetersPerInch;
+    }
+
+    public double getLeftVelocityMetersPerSecond(){
+        //Velocity is in RPM
+        return rotationsToMeters(m_snapshot.m_leftAverageVelocity) / 60;
+    }
+
+    public double getRightVelocityMetersPerSecond(){
+        return rotationsToMeters(m_snapshot.m_rightAverageVelocity) / 60;
+    }
+
+    //Returns the values read from the motors at the start of this loop
+    public SensorSnapshot getSnapshot(){
+        return m_snapshot;
+    }
+
+    //The raw IO inputs from this loop, for the match log. Don't change them.
+    public ChassisIO.Inputs getInputs(){
+        return m_inputs;
+    }
+
     //Returns the average encoder rotation of the 6 encoders
     public double getAverageEncoderPosition(){
-        return (m_leftFrontEncoder.getPosition() + m_leftRearEncoder1.getPosition() + m_leftRearEncoder2.getPosition() + 
-        m_rightFrontEncoder.getPosition() + m_rightRearEncoder1.getPosition() + m_rightRearEncoder2.getPosition()) / 6;
+        return m_snapshot.m_averagePosition;
     }
 
     //Returns the average encoder rotation of the 6 encoders converted to inches
@@ -154,42 +291,255 @@ public class ChassisSubsystem extends SubsystemBase {
 
     //Returns the average rotation of the robot by subtracting the average of the right side from the average of the left side
     public double getAverageEncoderRotation(){
-        return (
-            ((m_leftFrontEncoder.getPosition() + m_leftRearEncoder1.getPosition() + m_leftRearEncoder2.getPosition())/3) - 
-            ((m_rightFrontEncoder.getPosition() + m_rightRearEncoder1.getPosition() + m_rightRearEncoder2.getPosition())/3)
-            );
+        return m_snapshot.m_leftAveragePosition - m_snapshot.m_rightAveragePosition;
     }
 
     //Might cause DifferentialDrive errors if called
     public void resetEncoders(){
-        m_leftFrontEncoder.setPosition(0.0);
-        m_rightFrontEncoder.setPosition(0.0);
-        m_rightRearEncoder1.setPosition(0.0);
-        m_leftRearEncoder1.setPosition(0.0);
-        m_rightRearEncoder2.setPosition(0.0);
-        m_leftRearEncoder2.setPosition(0.0);
+        m_io.resetEncoders();
+
+        //The Spark Maxes take a status frame to report the new position, so zero the snapshot ourselves
+        m_snapshot.zeroPositions();
+        m_encoderResets++;
+    }
+
+    public int getEncoderResetCount(){
+        return m_encoderResets;
+    }
+
+    //Reads every motor once (through the IO) and copies it into the snapshot
+    private void captureSnapshot(){
+        m_io.updateInputs(m_inputs);
+
+        SensorSnapshot snap = m_snapshot;
+        ChassisIO.Inputs in = m_inputs;
+        snap.m_timestamp = Timer.getFPGATimestamp();
+
+        snap.m_leftFrontPosition = in.positions[ChassisIO.kLeftFront];
+        snap.m_leftRear1Position = in.positions[ChassisIO.kLeftRear1];
+        snap.m_leftRear2Position = in.positions[ChassisIO.kLeftRear2];
+        snap.m_rightFrontPosition = in.positions[ChassisIO.kRightFront];
+        snap.m_rightRear1Position = in.positions[ChassisIO.kRightRear1];
+        snap.m_rightRear2Position = in.positions[ChassisIO.kRightRear2];
+
+        snap.m_leftFrontVelocity = in.velocities[ChassisIO.kLeftFront];
+        snap.m_leftRear1Velocity = in.velocities[ChassisIO.kLeftRear1];
+        snap.m_leftRear2Velocity = in.velocities[ChassisIO.kLeftRear2];
+        snap.m_rightFrontVelocity = in.velocities[ChassisIO.kRightFront];
+        snap.m_rightRear1Velocity = in.velocities[ChassisIO.kRightRear1];
+        snap.m_rightRear2Velocity = in.velocities[ChassisIO.kRightRear2];
+
+        snap.m_leftFrontOutput = in.outputs[ChassisIO.kLeftFront];
+        snap.m_leftRear1Output = in.outputs[ChassisIO.kLeftRear1];
+        snap.m_leftRear2Output = in.outputs[ChassisIO.kLeftRear2];
+        snap.m_rightFrontOutput = in.outputs[ChassisIO.kRightFront];
+        snap.m_rightRear1Output = in.outputs[ChassisIO.kRightRear1];
+        snap.m_rightRear2Output = in.outputs[ChassisIO.kRightRear2];
+
+        snap.m_leftFrontCurrent = in.currents[ChassisIO.kLeftFront];
+        snap.m_leftRear1Current = in.currents[ChassisIO.kLeftRear1];
+        snap.m_leftRear2Current = in.currents[ChassisIO.kLeftRear2];
+        snap.m_rightFrontCurrent = in.currents[ChassisIO.kRightFront];
+        snap.m_rightRear1Current = in.currents[ChassisIO.kRightRear1];
+        snap.m_rightRear2Current = in.currents[ChassisIO.kRightRear2];
+
+        snap.updateAverages();
+    }
+
+    /**
+     * A follower that has a fault, or isn't putting out what its leader is, has probably lost CAN or browned out.
+     * Nothing in our code would notice otherwise, since we never send it commands. Fault flags are only read every
+     * few loops to keep the CAN reads down.
+     *
+     * <p>Once a follower fails it stays failed until it's looked fine for ChassisConstants.kFollowerHealthyLoops in a
+     * row, so one that keeps dropping in and out shows up as failed (and only gets reported once).
+     */
+    private void checkFollowers(){
+        if(++m_loopsSinceFaultCheck >= ChassisConstants.kFollowerFaultCheckLoops){
+            m_loopsSinceFaultCheck = 0;
+            m_io.updateFaults(m_inputs);
+        }
+
+        for(int i = 0; i < kFollowers.length; i++){
+            int follower = kFollowers[i];
+            double output = m_inputs.outputs[follower];
+            double leaderOutput = m_inputs.outputs[kFollowerLeaders[i]];
+            short faults = m_inputs.faults[follower];
+
+            //The two status frames don't arrive at the same time, so while the leader is ramping the follower's
+            //output can be a frame behind without anything being wrong
+            boolean leaderSteady = Math.abs(leaderOutput - m_lastLeaderOutputs[i]) <= ChassisConstants.kFollowerOutputTolerance;
+            m_lastLeaderOutputs[i] = leaderOutput;
+            boolean notFollowing = leaderSteady && (Math.abs(leaderOutput) > ChassisConstants.kFollowerOutputTolerance)
+                && (Math.abs(output - leaderOutput) > ChassisConstants.kFollowerOutputTolerance);
+            boolean failed = (faults != 0) || notFollowing;
+
+            if(failed){
+                m_followerHealthyLoops[i] = 0;
+                //Only report when it first fails so the driver station doesn't get flooded
+                if(!m_followerFailed[i]){
+                    DriverStation.reportWarning("Drive motor " + kMotorPorts[follower] + " isn't following its leader (faults 0x"
+                        + Integer.toHexString(faults & 0xFFFF) + ", output " + output + " vs " + leaderOutput + ")", false);
+                    m_followerFailed[i] = true;
+                }
+            }
+            else if(m_followerFailed[i] && (++m_followerHealthyLoops[i] >= ChassisConstants.kFollowerHealthyLoops)){
+                m_followerFailed[i] = false;
+            }
+        }
+    }
+
+    //True if every follower is doing what its leader is
+    public boolean areFollowersHealthy(){
+        for(boolean failed : m_followerFailed){
+            if(failed){
+                return false;
+            }
+        }
+        return true;
     }
 
     //This is called every 20ms
+    //Subsystems run before commands in the scheduler, so every command's execute() sees this loop's values
     @Override
     public void periodic(){
-        SmartDashboard.putNumber("LF_Enc",m_leftFrontEncoder.getPosition());
-        SmartDashboard.putNumber("RF_Enc",m_rightFrontEncoder.getPosition());
-        SmartDashboard.putNumber("RR1_Enc",m_rightRearEncoder1.getPosition());
-        SmartDashboard.putNumber("RR2_Enc",m_rightRearEncoder2.getPosition());
-        SmartDashboard.putNumber("LR1_Enc",m_leftRearEncoder1.getPosition());
-        SmartDashboard.putNumber("LR2_Enc",m_leftRearEncoder2.getPosition());
+        long start = LoopProfiler.now();
+
+        //Should be 24 (6 positions, 6 velocities, 6 outputs, 6 currents), plus 4 fault reads every few loops
+        captureSnapshot();
+        checkFollowers();
+        m_nativeReadsEntry.set(m_inputs.nativeReads);
+        m_followersOkEntry.set(areFollowersHealthy());
+
+        SensorSnapshot snap = m_snapshot;
+        m_leftFrontEncEntry.set(snap.m_leftFrontPosition);
+        m_rightFrontEncEntry.set(snap.m_rightFrontPosition);
+        m_rightRear1EncEntry.set(snap.m_rightRear1Position);
+        m_rightRear2EncEntry.set(snap.m_rightRear2Position);
+        m_leftRear1EncEntry.set(snap.m_leftRear1Position);
+        m_leftRear2EncEntry.set(snap.m_leftRear2Position);
         
 
-        SmartDashboard.putNumber("LF_Speed",m_leftFront.get());
-        SmartDashboard.putNumber("RF_Speed",m_rightFront.get());
-        SmartDashboard.putNumber("RR1_Speed",m_rightRear1.get());
-        SmartDashboard.putNumber("RR2_Speed",m_rightRear2.get());
-        SmartDashboard.putNumber("LR1_Speed",m_leftRear1.get());
-        SmartDashboard.putNumber("LR2_Speed",m_leftRear2.get());
+        m_leftFrontSpeedEntry.set(snap.m_leftFrontOutput);
+        m_rightFrontSpeedEntry.set(snap.m_rightFrontOutput);
+        m_rightRear1SpeedEntry.set(snap.m_rightRear1Output);
+        m_rightRear2SpeedEntry.set(snap.m_rightRear2Output);
+        m_leftRear1SpeedEntry.set(snap.m_leftRear1Output);
+        m_leftRear2SpeedEntry.set(snap.m_leftRear2Output);
+
+        m_leftFrontCurrentEntry.set(snap.m_leftFrontCurrent);
+        m_rightFrontCurrentEntry.set(snap.m_rightFrontCurrent);
+        m_rightRear1CurrentEntry.set(snap.m_rightRear1Current);
+        m_rightRear2CurrentEntry.set(snap.m_rightRear2Current);
+        m_leftRear1CurrentEntry.set(snap.m_leftRear1Current);
+        m_leftRear2CurrentEntry.set(snap.m_leftRear2Current);
+
+        m_averagePositionEntry.set(this.getAverageEncoderPosition());
+        m_averageRotationEntry.set(this.getAverageEncoderRotation());
+        m_averageInchesEntry.set(this.getAverageEncoderDistanceInches());
+        m_closedLoopEntry.set(m_closedLoop);
+
+        LoopProfiler.getInstance().record(m_profilerSection, start);
+    }
+
+    /**
+     * Every value ChassisSubsystem reads from its Spark Maxes, captured once per loop at the start of periodic().
+     * It is the same object every loop (so nothing gets allocated), but only ChassisSubsystem can write to it.
+     * Positions are in motor rotations, velocities in RPM, outputs are the applied duty cycle (-1 to 1), and currents are amps.
+     */
+    public static final class SensorSnapshot {
+        private double m_timestamp;
+
+        private double m_leftFrontPosition;
+        private double m_leftRear1Position;
+        private double m_leftRear2Position;
+        private double m_rightFrontPosition;
+        private double m_rightRear1Position;
+        private double m_rightRear2Position;
+
+        private double m_leftFrontVelocity;
+        private double m_leftRear1Velocity;
+        private double m_leftRear2Velocity;
+        private double m_rightFrontVelocity;
+        private double m_rightRear1Velocity;
+        private double m_rightRear2Velocity;
+
+        private double m_leftFrontOutput;
+        private double m_leftRear1Output;
+        private double m_leftRear2Output;
+        private double m_rightFrontOutput;
+        private double m_rightRear1Output;
+        private double m_rightRear2Output;
+
+        private double m_leftFrontCurrent;
+        private double m_leftRear1Current;
+        private double m_leftRear2Current;
+        private double m_rightFrontCurrent;
+        private double m_rightRear1Current;
+        private double m_rightRear2Current;
+
+        //Derived once when captured so every consumer doesn't redo the math
+        private double m_leftAveragePosition;
+        private double m_rightAveragePosition;
+        private double m_averagePosition;
+        private double m_leftAverageVelocity;
+        private double m_rightAverageVelocity;
+
+        private SensorSnapshot(){}
+
+        private void updateAverages(){
+            m_leftAveragePosition = (m_leftFrontPosition + m_leftRear1Position + m_leftRear2Position) / 3;
+            m_rightAveragePosition = (m_rightFrontPosition + m_rightRear1Position + m_rightRear2Position) / 3;
+            m_averagePosition = (m_leftAveragePosition + m_rightAveragePosition) / 2;
+            m_leftAverageVelocity = (m_leftFrontVelocity + m_leftRear1Velocity + m_leftRear2Velocity) / 3;
+            m_rightAverageVelocity = (m_rightFrontVelocity + m_rightRear1Velocity + m_rightRear2Velocity) / 3;
+        }
+
+        private void zeroPositions(){
+            m_leftFrontPosition = 0;
+            m_leftRear1Position = 0;
+            m_leftRear2Position = 0;
+            m_rightFrontPosition = 0;
+            m_rightRear1Position = 0;
+            m_rightRear2Position = 0;
+            updateAverages();
+        }
+
+        //FPGA time (seconds) the values were read at
+        public double getTimestamp(){ return m_timestamp; }
+
+        public double getLeftFrontPosition(){ return m_leftFrontPosition; }
+        public double getLeftRear1Position(){ return m_leftRear1Position; }
+        public double getLeftRear2Position(){ return m_leftRear2Position; }
+        public double getRightFrontPosition(){ return m_rightFrontPosition; }
+        public double getRightRear1Position(){ return m_rightRear1Position; }
+        public double getRightRear2Position(){ return m_rightRear2Position; }
+
+        public double getLeftFrontVelocity(){ return m_leftFrontVelocity; }
+        public double getLeftRear1Velocity(){ return m_leftRear1Velocity; }
+        public double getLeftRear2Velocity(){ return m_leftRear2Velocity; }
+        public double getRightFrontVelocity(){ return m_rightFrontVelocity; }
+        public double getRightRear1Velocity(){ return m_rightRear1Velocity; }
+        public double getRightRear2Velocity(){ return m_rightRear2Velocity; }
+
+        public double getLeftFrontOutput(){ return m_leftFrontOutput; }
+        public double getLeftRear1Output(){ return m_leftRear1Output; }
+        public double getLeftRear2Output(){ return m_leftRear2Output; }
+        public double getRightFrontOutput(){ return m_rightFrontOutput; }
+        public double getRightRear1Output(){ return m_rightRear1Output; }
+        public double getRightRear2Output(){ return m_rightRear2Output; }
+
+        public double getLeftFrontCurrent(){ return m_leftFrontCurrent; }
+        public double getLeftRear1Current(){ return m_leftRear1Current; }
+        public double getLeftRear2Current(){ return m_leftRear2Current; }
+        public double getRightFrontCurrent(){ return m_rightFrontCurrent; }
+        public double getRightRear1Current(){ return m_rightRear1Current; }
+        public double getRightRear2Current(){ return m_rightRear2Current; }
 
-        SmartDashboard.putNumber("AveragePosition",this.getAverageEncoderPosition());
-        SmartDashboard.putNumber("AverageRotation",this.getAverageEncoderRotation());
-        SmartDashboard.putNumber("AveragePosition(inch)",this.getAverageEncoderDistanceInches());
+        public double getLeftAveragePosition(){ return m_leftAveragePosition; }
+        public double getRightAveragePosition(){ return m_rightAveragePosition; }
+        public double getAveragePosition(){ return m_averagePosition; }
+        public double getLeftAverageVelocity(){ return m_leftAverageVelocity; }
+        public double getRightAverageVelocity(){ return m_rightAverageVelocity; }
     }
 }
@@ -1,52 +1,87 @@
 package frc.robot.subsystems;
 
-//Constants
-import frc.robot.Constants.ClawConstants;
-
 //Shuffleboard
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
-
-//pneumatic libraries
-import edu.wpi.first.wpilibj.Compressor;
-import edu.wpi.first.wpilibj.PneumaticsModuleType;
-import edu.wpi.first.wpilibj.Solenoid;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.BooleanChannel;
 
+//Hardware
+import frc.robot.io.ClawIO;
 
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.util.LoopProfiler;
 
 public class ClawSubsystem extends SubsystemBase {
-    //Defining the compressor might not be necessary for using it. It's also not giving out values when calling getPressure() on it
-    //Compressor m_compressor = new Compressor(ClawConstants.kModuleID, PneumaticsModuleType.CTREPCM);
-    Solenoid m_claw = new Solenoid(ClawConstants.kModuleID, PneumaticsModuleType.CTREPCM, ClawConstants.kClawPistonChannel);
-    Solenoid m_wrist = new Solenoid(ClawConstants.kModuleID, PneumaticsModuleType.CTREPCM, ClawConstants.kWristPistonChannel);
+    private final int m_profilerSection = LoopProfiler.getInstance().register("ClawSubsystem.periodic()");
+
+    //The pistons (real, simulated, or played back from a log)
+    private final ClawIO m_io;
+    private final ClawIO.Inputs m_inputs = new ClawIO.Inputs();
+
+    //What we last told each piston to do (toggling works off these, not the readback)
+    private boolean m_clawClosed = false;
+    private boolean m_wristDown = false;
+
+    //Dashboard channels
+    private final BooleanChannel m_clawEntry = Telemetry.getInstance().addBoolean("Claw Acitvated");
+    private final BooleanChannel m_wristEntry = Telemetry.getInstance().addBoolean("Wrist Acitvated");
+
+    public ClawSubsystem(ClawIO io){
+        m_io = io;
+    }
+
+    private void setClaw(boolean closed){
+        m_clawClosed = closed;
+        m_io.setClaw(closed);
+    }
 
-    public ClawSubsystem(){}
+    private void setWrist(boolean down){
+        m_wristDown = down;
+        m_io.setWrist(down);
+    }
 
     public void openClaw(){
-        m_claw.set(false);
+        setClaw(false);
     }
     public void closeClaw(){
-        m_claw.set(true);
+        setClaw(true);
     }
     public void toggleClaw(){
-        m_claw.toggle();
+        setClaw(!m_clawClosed);
     }
 
     public void wristUp(){
-        m_wrist.set(false);
+        setWrist(false);
     }
     public void wristDown(){
-        m_wrist.set(true);
+        setWrist(true);
     }
     public void toggleWrist(){
-        m_wrist.toggle();
+        setWrist(!m_wristDown);
+    }
+
+    public boolean isClawClosed(){
+        return m_clawClosed;
+    }
+    public boolean isWristDown(){
+        return m_wristDown;
+    }
+
+    //What the solenoids reported at the start of this loop
+    public ClawIO.Inputs getInputs(){
+        return m_inputs;
     }
 
     //This is called every 20ms
     @Override
     public void periodic(){
-        SmartDashboard.putBoolean("Claw Acitvated", m_claw.get());
-        SmartDashboard.putBoolean("Wrist Acitvated", m_wrist.get());
+        long start = LoopProfiler.now();
+
+        m_io.updateInputs(m_inputs);
+
+        m_clawEntry.set(m_inputs.clawClosed);
+        m_wristEntry.set(m_inputs.wristDown);
         //SmartDashboard.putNumber("Pressure",m_compressor.getPressure());
+
+        LoopProfiler.getInstance().record(m_profilerSection, start);
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,23 @@
 package frc.robot.subsystems;
 
-import edu.wpi.first.wpilibj.AddressableLED;
+import java.util.EnumMap;
+
 import edu.wpi.first.wpilibj.AddressableLEDBuffer;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.util.LoopProfiler;
+
+//LED patterns
+import frc.robot.util.LEDFrameRing;
+import frc.robot.util.LEDPattern;
+import frc.robot.util.LEDPatterns;
 
+//Hardware
+import frc.robot.io.LEDIO;
 
-//NAVX libraries
-import com.kauailabs.navx.frc.AHRS;
 
 public class LEDSubsystem extends SubsystemBase {
- 
+  private final int m_profilerSection = LoopProfiler.getInstance().register("LEDSubsystem.periodic()");
+
   public enum LEDState {
     //These comments were added in by Marcus
     NONE, //Turn LEDs off
@@ -28,212 +36,84 @@ public class LEDSubsystem extends SubsystemBase {
     RED
   }
 
+  private static final int kLength = 125;
+
   private LEDState m_ledMode;
-  private AddressableLED m_led;
+  //The strip (real, simulated, or nothing when replaying)
+  private final LEDIO m_io;
   private AddressableLEDBuffer m_ledBuffer;
   private int[] LEDColor = {255,0,0}; //RGB
-  private int m_rainbowFirstPixelHue = 0;
-  private AHRS ahrs; 
+  private final NavSubsystem m_navSubsystem;
   private int m_TurboFirstPixelHue = 0;
-  private int rainbowSunshine = 0;
 
-  public LEDSubsystem(AHRS navx2){
-    ahrs = navx2;
-    // Must be a PWM header, not MXP or DIO
+  //Every pattern, with all of its frames already drawn
+  private final EnumMap<LEDState, LEDFrameRing> m_patterns = new EnumMap<>(LEDState.class);
+
+  //What's currently on the strip, so we don't send the same frame again
+  private LEDFrameRing m_shownPattern = null;
+  private int m_shownFrame = -1;
+
+  public LEDSubsystem(LEDIO io, NavSubsystem navSubsystem){
+    m_io = io;
+    m_navSubsystem = navSubsystem;
     m_ledMode = LEDState.RAINBOW;
-    m_led = new AddressableLED(0);
 
     // Reuse buffer
-    // Default to a length of 60, start empty output
     // Length is expensive to set, so only set it once, then just update data
-    m_ledBuffer = new AddressableLEDBuffer(125);
-    
-    m_led.setLength(m_ledBuffer.getLength());
+    m_ledBuffer = new AddressableLEDBuffer(kLength);
+
+    m_io.setLength(m_ledBuffer.getLength());
+
+    //The rainbow follows the robot's yaw (plus wherever turbo left off)
+    registerPattern(LEDState.RAINBOW, LEDPatterns.rainbow(() -> Math.abs((int)m_navSubsystem.getSnapshot().getYaw()) + m_TurboFirstPixelHue));
+    registerPattern(LEDState.SOLID, LEDPatterns.solid(LEDColor[0], LEDColor[1], LEDColor[2]));
+    registerPattern(LEDState.BLACKWHITE, LEDPatterns.solid(255, 0, 0));
+    registerPattern(LEDState.RED, LEDPatterns.solid(255, 0, 0));
+    registerPattern(LEDState.GREEN, LEDPatterns.solid(0, 255, 0));
+    registerPattern(LEDState.YELLOW, LEDPatterns.solid(255, 255, 0));
+    registerPattern(LEDState.ORANGE, LEDPatterns.solid(255, 255, 0));
+    registerPattern(LEDState.TEAL, LEDPatterns.solid(0, 0, 180));
+    registerPattern(LEDState.TURBO, LEDPatterns.turbo());
+    registerPattern(LEDState.TEST, LEDPatterns.test());
 
     // Set the data
-    m_led.setData(m_ledBuffer);
-    m_led.start();    
+    m_io.setData(m_ledBuffer);
+    m_io.start();
   }
 
-  @Override
-  public void periodic() {    
-    switch(m_ledMode) {
-      case RAINBOW:
-        rainbow();
-        break;
-      case SOLID:
-        solid(LEDColor);
-        break;
-      case BLACKWHITE:
-        red(LEDColor);
-        break;
-      case GREEN:
-        green(LEDColor);
-        break;
-      case YELLOW:
-        yellow(LEDColor);
-        break;
-      case RED:
-        red(LEDColor);
-        break;
-      case TEAL:
-        teal();
-        break;
-      case TURBO:
-        turbo();
-        break;
-      case ORANGE:
-        orange();
-        break;
-      case TEST:
-        test();
-        break;
-      default:
-        rainbow();
-        break;
-      
-    }
-    m_rainbowFirstPixelHue = Math.abs((int)ahrs.getYaw()) + m_TurboFirstPixelHue;
-  }
-    
-  public void changeLEDState(LEDState mode) {
-    this.m_ledMode = mode;
+  //Adds (or replaces) the pattern shown for a state. All of its frames get drawn right here, not every loop.
+  public void registerPattern(LEDState state, LEDPattern pattern) {
+    m_patterns.put(state, new LEDFrameRing(pattern, kLength));
   }
 
-  public void teal() {
-    for (var i = 0; i < m_ledBuffer.getLength(); i++) {
-        m_ledBuffer.setRGB(i, 0, 0 ,180);
-    }
-
-    m_led.setData(m_ledBuffer);
-  }
-
-  public void solid(int[] RGB) {
-    for (var i = 0; i < m_ledBuffer.getLength(); i++) {
-        m_ledBuffer.setRGB(i, RGB[0], RGB[1], RGB[2]);
-    }
-
-    m_led.setData(m_ledBuffer);
-  }
-  public void green(int[] RGB) {
-    for (var i = 0; i < m_ledBuffer.getLength(); i++) {
-        //m_ledBuffer.setRGB(i, RGB[0], 255, 30);
-        m_ledBuffer.setRGB(i, 0, 255, 0);
-    }
-
-
-
-    m_led.setData(m_ledBuffer);
-  }
-  public void orange() {
-    for (var i = 0; i < m_ledBuffer.getLength(); i++) {
-        //m_ledBuffer.setRGB(i, RGB[0], 255, 30);
-        m_ledBuffer.setRGB(i, 255, 255, 0);
-    }
-
-
-
-    m_led.setData(m_ledBuffer);
-  }
-  public void greenAlign(int ammountGreen) {
-    for (var i = 0; i < m_ledBuffer.getLength(); i++) {
-        m_ledBuffer.setRGB(i, 0, ammountGreen, 30);
-    }
+  @Override
+  public void periodic() {
+    long start = LoopProfiler.now();
 
-    m_led.setData(m_ledBuffer);
-  }
-  public void red(int[] RGB) {
-    for (var i = 0; i < m_ledBuffer.getLength(); i++) {
-        //m_ledBuffer.setRGB(i, 255, 0, RGB[2]);
-        m_ledBuffer.setRGB(i, 255, 0, 0);
+    //States without their own pattern show the rainbow
+    LEDFrameRing pattern = m_patterns.get(m_ledMode);
+    if (pattern == null) {
+      pattern = m_patterns.get(LEDState.RAINBOW);
     }
 
-    m_led.setData(m_ledBuffer);
-  }
-  public void yellow(int[] RGB) {
-    for (var i = 0; i < m_ledBuffer.getLength(); i++) {
-        m_ledBuffer.setRGB(i, 255, 255, 0);
+    int frame = pattern.advance();
+    if ((m_ledMode == LEDState.TURBO) || (m_ledMode == LEDState.TEST)) {
+      // Keep track of how far turbo has moved so the rainbow picks up from there
+      m_TurboFirstPixelHue = frame * 3;
     }
 
-    m_led.setData(m_ledBuffer);
-  }
-
-  public void blink(int[] RGB) { }
-
-  private void rainbow() {
-    // For every pixel
-
-    // For every pixel
-
-    for (var i = 0; i < m_ledBuffer.getLength(); i++) {
-      // Calculate the hue - hue is easier for rainbows because the color
-      // shape is a circle so only one value needs to precess
-      final var hue = (m_rainbowFirstPixelHue + (i * 180 / m_ledBuffer.getLength())+ (rainbowSunshine + (i * 180 / m_ledBuffer.getLength()))) % 360;
-      // Set the value
-      m_ledBuffer.setRGB(i, hue*3, hue*10, rainbowSunshine*5);
+    //Static colours never change frame, so after the first loop this skips setData entirely
+    if ((pattern != m_shownPattern) || (frame != m_shownFrame)) {
+      pattern.write(frame, m_ledBuffer);
+      m_io.setData(m_ledBuffer);
+      m_shownPattern = pattern;
+      m_shownFrame = frame;
     }
-    // Increase by to make the rainbow "move"
-    m_rainbowFirstPixelHue += 3;
-    // Check bounds
-    m_rainbowFirstPixelHue %= 180;
-    m_led.setData(m_ledBuffer);
-  }
 
-  private void test() {
-    // For every pixel
-
-    for (var i = 0; i < m_ledBuffer.getLength(); i++) {
-      // Calculate the hue - hue is easier for rainbows because the color
-      // shape is a circle so only one value needs to precess
-      final var hue = (m_TurboFirstPixelHue + (i * 180 / m_ledBuffer.getLength())) % 180;
-      
-      // Set the value
-      if (hue > 100){
-        m_ledBuffer.setRGB(i, hue, 0, 255);
-      }
-      else{
-        m_ledBuffer.setRGB(i, 255, 0, hue);
-      }
-
-      
-    }
-    // Increase by to make the rainbow "move"
-    m_TurboFirstPixelHue += 3;
-    // Check bounds
-    m_TurboFirstPixelHue %= 180;
-    m_led.setData(m_ledBuffer);
+    LoopProfiler.getInstance().record(m_profilerSection, start);
   }
 
-  private void turbo() {
-    // For every pixel
-
-    for (var i = 0; i < m_ledBuffer.getLength(); i++) {
-      // Calculate the hue - hue is easier for rainbows because the color
-      // shape is a circle so only one value needs to precess
-      final var hue = (m_TurboFirstPixelHue + (i * 180 / m_ledBuffer.getLength())) % 180;
-      // Set the value
-      m_ledBuffer.setRGB(i, 200, hue, 0);
-    }
-    // Increase by to make the rainbow "move"
-    m_TurboFirstPixelHue += 3;
-    // Check bounds
-    m_TurboFirstPixelHue %= 180;
-    m_led.setData(m_ledBuffer);
-  }
-  private void frenzy() {
-    // For every pixel
-
-    for (var i = 0; i < m_ledBuffer.getLength(); i++) {
-      // Calculate the hue - hue is easier for rainbows because the color
-      // shape is a circle so only one value needs to precess
-      final var hue = (m_rainbowFirstPixelHue + (i * 180 / m_ledBuffer.getLength())) % 180;
-      // Set the value
-      m_ledBuffer.setRGB(i, hue, 0, 0);
-    }
-    // Increase by to make the rainbow "move"
-    m_rainbowFirstPixelHue += 3;
-    // Check bounds
-    m_rainbowFirstPixelHue %= 180;
-    m_led.setData(m_ledBuffer);
+  public void changeLEDState(LEDState mode) {
+    this.m_ledMode = mode;
   }
 }
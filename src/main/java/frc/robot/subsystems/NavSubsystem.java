@@ -1,37 +1,108 @@
 package frc.robot.subsystems;
 
-//NAVX
-import com.kauailabs.navx.frc.AHRS;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.io.NavIO;
+import frc.robot.util.GyroSnapshot;
+import frc.robot.util.PoseHistory;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.DoubleChannel;
+
+//Constants
+import frc.robot.Constants.NavConstants;
+
+import edu.wpi.first.wpilibj.Timer;
+
+import java.util.function.DoubleSupplier;
 
 
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.util.LoopProfiler;
 
+/**
+ * Owns the NavX (through a {@link NavIO}). periodic() copies one {@link GyroSnapshot} out of it at the start of each
+ * loop. Everything else (balancing, the pose estimator, LEDs) reads that snapshot, so they all see the same sample
+ * and nobody talks to the NavX directly.
+ */
 public class NavSubsystem extends SubsystemBase {
-    private AHRS NavX2;
-    private final double kInitialPitchOffset;
+    private final int m_profilerSection = LoopProfiler.getInstance().register("NavSubsystem.periodic()");
+
+    //The NavX (real, or played back from a log)
+    private final NavIO m_io;
+    private final GyroSnapshot m_snapshot = new GyroSnapshot();
+
+    //Measured on a startup thread after the NavX finishes calibrating, so it starts at 0 and gets set later
+    private volatile double m_initialPitchOffset = 0;
     private double previousPitch = 0;
 
-    public NavSubsystem(AHRS Nav, double pitchOffset){
-        NavX2 = Nav;
-        kInitialPitchOffset = pitchOffset;
+    //Heading and driven distance for the last second, used to line up vision frames with where we were
+    private final PoseHistory m_poseHistory = new PoseHistory(NavConstants.kPoseHistorySize);
+    private final DoubleSupplier m_chassisDistance;
+
+    //Dashboard channels
+    private final DoubleChannel m_offsetPitchEntry = Telemetry.getInstance().addDouble("Pitch with initial offset:", 0.05, 0.05);
+    private final DoubleChannel m_pitchChangeEntry = Telemetry.getInstance().addDouble("Change in pitch:", 0.01, 0.05);
+    private final DoubleChannel m_pitchEntry = Telemetry.getInstance().addDouble("Pitch", 0.05, 0.05);
+    private final DoubleChannel m_rollEntry = Telemetry.getInstance().addDouble("Roll", 0.05, 0.1);
+    private final DoubleChannel m_yawEntry = Telemetry.getInstance().addDouble("Yaw", 0.1, 0.1);
+
+    private final DoubleChannel m_pitchRateEntry = Telemetry.getInstance().addDouble("Pitch rate (deg/s)", 0.5, 0.05);
+
+    public NavSubsystem(NavIO io, DoubleSupplier chassisDistanceInches){
+        m_io = io;
+        m_chassisDistance = chassisDistanceInches;
+    }
+
+    //This loop's NavX readings (taken at the start of periodic())
+    public GyroSnapshot getSnapshot(){
+        return m_snapshot;
+    }
+
+    //Pitch minus the initial offset, from this loop's snapshot
+    public double getOffsetPitch(){
+        return m_snapshot.getPitch() - m_initialPitchOffset;
+    }
+
+    public PoseHistory getPoseHistory(){
+        return m_poseHistory;
+    }
+
+    public double getInitialPitchOffset(){
+        return m_initialPitchOffset;
+    }
+
+    public void setInitialPitchOffset(double pitchOffset){
+        m_initialPitchOffset = pitchOffset;
+    }
+
+    /**
+     * Waits for the NavX to connect and finish calibrating, then averages a set of pitch readings.
+     * This blocks for a while, so it should only ever be run on a startup thread, never from periodic() or a command.
+     */
+    public double measureInitialPitch(){
+        return m_io.measureInitialPitch();
     }
 
     //This is called every 20ms
     @Override
     public void periodic(){
+        long start = LoopProfiler.now();
+
+        m_io.updateInputs(m_snapshot);
 
-        double offsetPitch = NavX2.getPitch() - kInitialPitchOffset;
+        double offsetPitch = getOffsetPitch();
 
         double pitchChange = offsetPitch-previousPitch;
         previousPitch = offsetPitch;
         
-        SmartDashboard.putNumber("Pitch with initial offset:", offsetPitch);
-        SmartDashboard.putNumber("Change in pitch:", pitchChange);
+        m_offsetPitchEntry.set(offsetPitch);
+        m_pitchChangeEntry.set(pitchChange);
         
-        SmartDashboard.putNumber("Pitch", NavX2.getPitch());
-        SmartDashboard.putNumber("Roll", NavX2.getRoll());
-        SmartDashboard.putNumber("Yaw", NavX2.getYaw());
+        m_pitchEntry.set(m_snapshot.getPitch());
+        m_rollEntry.set(m_snapshot.getRoll());
+        m_yawEntry.set(m_snapshot.getYaw());
+        m_pitchRateEntry.set(m_snapshot.getPitchRate());
+
+        //getAngle() keeps counting past 360 so interpolating between samples works
+        m_poseHistory.add(Timer.getFPGATimestamp(), m_snapshot.getAngle(), m_chassisDistance.getAsDouble());
 
         /*SmartDashboard.putNumber("XAcceleration", NavX2.getWorldLinearAccelX());
         SmartDashboard.putNumber("YAcceleration", NavX2.getWorldLinearAccelY());
@@ -41,6 +112,6 @@ public class NavSubsystem extends SubsystemBase {
         SmartDashboard.putNumber("YVelocity", NavX2.getVelocityY());
         SmartDashboard.putNumber("ZVelocity", NavX2.getVelocityZ());*/
 
-        
+        LoopProfiler.getInstance().record(m_profilerSection, start);
     }
 }
@@ -0,0 +1,152 @@
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.smartdashboard.Field2d;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+
+import frc.robot.subsystems.ChassisSubsystem.SensorSnapshot;
+import frc.robot.util.LoopProfiler;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.DoubleChannel;
+
+//Constants
+import frc.robot.Constants.PoseConstants;
+
+/**
+ * Keeps track of where the robot is relative to where it started (x/y in meters, heading in radians, counterclockwise
+ * positive like the rest of WPILib). Distance comes from the left/right encoder averages in the chassis snapshot and heading comes
+ * from the NavX, since the gyro is a lot better at heading than subtracting encoder sides.
+ *
+ * <p>The Limelight botpose isn't mixed in. It's in field coordinates (blue alliance origin), and this pose starts
+ * wherever the auton resets it to (the trajectories are all relative to the starting spot), so the two don't line up.
+ *
+ * <p>The pose is kept as plain doubles and only turned into a Pose2d when someone asks for one, so updating it every
+ * loop doesn't allocate anything.
+ */
+public class PoseEstimatorSubsystem extends SubsystemBase {
+    private final int m_profilerSection = LoopProfiler.getInstance().register("PoseEstimatorSubsystem.periodic()");
+
+    private final ChassisSubsystem m_chassisSubsystem;
+    private final NavSubsystem m_navSubsystem;
+
+    private double m_x = 0;
+    private double m_y = 0;
+    private double m_heading = 0;
+
+    //NavX angle (clockwise degrees) that lines up with a heading of 0
+    private double m_gyroOffset = 0;
+
+    //Encoder values from the last update, in meters
+    private double m_lastLeft = 0;
+    private double m_lastRight = 0;
+    private int m_lastEncoderResets = -1;
+
+    private final Field2d m_field = new Field2d();
+    private double m_lastFieldUpdate = 0;
+
+    //Dashboard channels
+    private final DoubleChannel m_xEntry = Telemetry.getInstance().addDouble("Pose X (m)", 0.01, 0.1);
+    private final DoubleChannel m_yEntry = Telemetry.getInstance().addDouble("Pose Y (m)", 0.01, 0.1);
+    private final DoubleChannel m_headingEntry = Telemetry.getInstance().addDouble("Pose heading (deg)", 0.5, 0.1);
+
+    public PoseEstimatorSubsystem(ChassisSubsystem chassisSubsystem, NavSubsystem navSubsystem){
+        m_chassisSubsystem = chassisSubsystem;
+        m_navSubsystem = navSubsystem;
+
+        SmartDashboard.putData("Field", m_field);
+    }
+
+    public double getX(){
+        return m_x;
+    }
+
+    public double getY(){
+        return m_y;
+    }
+
+    //Radians, counterclockwise positive
+    public double getHeading(){
+        return m_heading;
+    }
+
+    //Makes a new Pose2d, so don't call this from something that runs every loop if you can use getX()/getY()/getHeading()
+    public Pose2d getPose(){
+        return new Pose2d(m_x, m_y, new Rotation2d(m_heading));
+    }
+
+    //Tells the estimator where the robot is right now (call this at the start of auton)
+    public void resetPose(Pose2d pose){
+        m_x = pose.getX();
+        m_y = pose.getY();
+        m_heading = pose.getRotation().getRadians();
+        //Heading = -NavX angle + offset, so pick the offset that makes it come out to the new heading
+        m_gyroOffset = m_heading + Math.toRadians(m_navSubsystem.getSnapshot().getAngle());
+        m_lastEncoderResets = -1;
+    }
+
+    private double readHeading(){
+        //The NavX is clockwise positive, WPILib is counterclockwise positive
+        return m_gyroOffset - Math.toRadians(m_navSubsystem.getSnapshot().getAngle());
+    }
+
+    private void updateOdometry(){
+        SensorSnapshot snap = m_chassisSubsystem.getSnapshot();
+        double left = ChassisSubsystem.rotationsToMeters(snap.getLeftAveragePosition());
+        double right = ChassisSubsystem.rotationsToMeters(snap.getRightAveragePosition());
+
+        //If the encoders got zeroed since last loop, start measuring from the new values instead of jumping backwards
+        int encoderResets = m_chassisSubsystem.getEncoderResetCount();
+        if(encoderResets != m_lastEncoderResets){
+            m_lastEncoderResets = encoderResets;
+            m_lastLeft = left;
+            m_lastRight = right;
+        }
+
+        double distance = ((left - m_lastLeft) + (right - m_lastRight)) / 2;
+        m_lastLeft = left;
+        m_lastRight = right;
+
+        double heading = readHeading();
+        //Use the heading halfway through the move, so driving in an arc doesn't drift to one side
+        double averageHeading = m_heading + (angleDifference(heading, m_heading) / 2);
+        m_x += distance * Math.cos(averageHeading);
+        m_y += distance * Math.sin(averageHeading);
+        m_heading = heading;
+    }
+
+    //a - b, wrapped to -pi..pi
+    public static double angleDifference(double a, double b){
+        double difference = (a - b) % (2 * Math.PI);
+        if(difference > Math.PI){
+            difference -= 2 * Math.PI;
+        }
+        else if(difference < -Math.PI){
+            difference += 2 * Math.PI;
+        }
+        return difference;
+    }
+
+    //This is called every 20ms (after ChassisSubsystem and NavSubsystem, so both snapshots are from this loop)
+    @Override
+    public void periodic(){
+        long start = LoopProfiler.now();
+
+        updateOdometry();
+
+        m_xEntry.set(m_x);
+        m_yEntry.set(m_y);
+        m_headingEntry.set(Math.toDegrees(m_heading));
+
+        //Field2d makes a Pose2d and sends a whole array, so it doesn't need to happen every loop
+        double now = Timer.getFPGATimestamp();
+        if((now - m_lastFieldUpdate) >= PoseConstants.kField2dPeriodSeconds){
+            m_field.setRobotPose(getPose());
+            m_lastFieldUpdate = now;
+        }
+
+        LoopProfiler.getInstance().record(m_profilerSection, start);
+    }
+}
@@ -1,25 +1,48 @@
 package frc.robot.subsystems;
 
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
-import edu.wpi.first.networktables.NetworkTable;
-import edu.wpi.first.networktables.NetworkTableEntry;
-import edu.wpi.first.networktables.NetworkTableInstance;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.io.VisionIO;
+import frc.robot.util.LoopProfiler;
+import frc.robot.util.PoseHistory;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.BooleanChannel;
+import frc.robot.util.Telemetry.DoubleChannel;
+
+//Constants
+import frc.robot.Constants.VisionConstants;
 
 public class VisionSubsystem extends SubsystemBase {
-    final public NetworkTableEntry ty;
-    final public NetworkTableEntry tx; 
-    final public NetworkTableEntry tl;
-    final public NetworkTableEntry tv;
-    public double distanceFromLimelightToGoalInches;
-
-    public VisionSubsystem(){
-        NetworkTable table = NetworkTableInstance.getDefault().getTable("limelight");
-        ty = table.getEntry("ty");
-        tx = table.getEntry("tx");
-        tl = table.getEntry("ty");
-        tv = table.getEntry("tv");
-        NetworkTableInstance.getDefault().getTable("limelight").getEntry("pipeline").setNumber(3);
+    private final int m_profilerSection = LoopProfiler.getInstance().register("VisionSubsystem.periodic()");
+
+    //The Limelight (real, or played back from a log)
+    private final VisionIO m_io;
+    private final VisionIO.Inputs m_inputs = new VisionIO.Inputs();
+    private long m_lastFrameCount = 0;
+
+    //The newest frame, only filled in again in periodic() when the Limelight has finished a new one. Nothing outside
+    //this class gets to hold onto it (the getters copy the numbers out), so it can be reused instead of making a new
+    //one every frame.
+    private final VisionResult m_latest = new VisionResult();
+
+    //Where the robot has been, so frames can be moved forward to now
+    private final PoseHistory m_poseHistory;
+
+    //The last pipeline we asked for, so we don't keep re-publishing it
+    private int m_requestedPipeline = -1;
+    //When forcePipeline() last sent something, so a Limelight that's still booting doesn't get it every loop
+    private double m_lastForcedTime = Double.NEGATIVE_INFINITY;
+
+    private final DoubleChannel m_distanceEntry = Telemetry.getInstance().addDouble("Distance from limelight", 0.1, 0.1);
+    private final DoubleChannel m_latencyEntry = Telemetry.getInstance().addDouble("Limelight latency (ms)", 1, 0.5);
+    private final DoubleChannel m_compensatedXEntry = Telemetry.getInstance().addDouble("Limelight tx (compensated)", 0.05, 0.1);
+    private final BooleanChannel m_staleEntry = Telemetry.getInstance().addBoolean("Limelight stale");
+
+    public VisionSubsystem(VisionIO io, PoseHistory poseHistory){
+        m_io = io;
+        m_poseHistory = poseHistory;
+
+        setPipeline(3);
     }
     /**
      * Pipe number - purpose
@@ -27,74 +50,187 @@ public class VisionSubsystem extends SubsystemBase {
      * 1           - Apriltags (unused)
      * 2           - Cones (unused)
      * 3           - Default camera
-     * 4           - bottom reflective tape  
+     * 4           - bottom reflective tape
      */
 
     //tv = valid targets
     //tx horizontal offest from crosshair to target
     //ty vertical offset from crosshair to target
-    //ta = target area 0% to 100%
+    //tl = pipeline latency (ms), cl = capture latency (ms)
+
+    //Turns a new frame from the IO into a VisionResult. Only runs when the Limelight finished a frame since last loop.
+    private void processFrame(VisionIO.Inputs frame){
+        double latencyMs = frame.pipelineLatencyMs + frame.captureLatencyMs;
+        //On the robot the NetworkTables server clock is the FPGA clock, so this lines up with Timer.getFPGATimestamp()
+        double captureTime = frame.frameTime - (latencyMs / 1000.0);
+
+        m_latest.set(
+            frame.tx,
+            frame.ty,
+            frame.tv,
+            calculateDistance(frame.ty),
+            captureTime,
+            latencyMs,
+            frame.pipeline);
+    }
+
+    //Only called once per new frame (not every loop). Public for the benchmarks.
+    public static double calculateDistance(double targetOffsetAngle_Vertical){
+        // how many degrees back is your limelight rotated from perfectly vertical?
+        double limelightMountAngleDegrees = 4; //NOTE: we should really take into account the rotation of the robot using the pitch of the NavX - Noah
+
+        // distance from the center of the Limelight lens to the floor
+        double limelightLensHeightInches = 28.5;
+
+        // distance from the target to the floor
+        double goalHeightInches;
+
+        if(targetOffsetAngle_Vertical > 0){
+            goalHeightInches = 43.5;
+        }
+        else{
+            goalHeightInches = 24;
+        }
+
+
+        double angleToGoalDegrees = limelightMountAngleDegrees + targetOffsetAngle_Vertical;
+        double angleToGoalRadians = angleToGoalDegrees * (Math.PI / 180.0);
+
+        //calculate distance
+        return (goalHeightInches - limelightLensHeightInches)/Math.tan(angleToGoalRadians);
+    }
+
+    //The raw IO inputs from this loop, for the match log. Don't change them.
+    public VisionIO.Inputs getInputs(){
+        return m_inputs;
+    }
+
+    //True if we haven't gotten a frame from the Limelight recently, so tx/ty shouldn't be trusted
+    public boolean isStale(){
+        return m_latest.isStale(Timer.getFPGATimestamp());
+    }
 
     public double getX(){
-        return tx.getDouble(0.0);
+        return m_latest.getX();
     }
 
+    //Only publishes if it's different from what we last asked for
     public void setPipeline(int pipeline){
-        NetworkTableInstance.getDefault().getTable("limelight").getEntry("pipeline").setNumber(pipeline);
+        if(pipeline != m_requestedPipeline){
+            m_io.setPipeline(pipeline);
+            m_requestedPipeline = pipeline;
+        }
     }
 
+    /**
+     * Sends the pipeline even if it's what we last asked for, for when the Limelight isn't running it anyways (like
+     * after it reboots into its default pipeline). Sends at most once every VisionConstants.kPipelineResendSeconds.
+     */
+    public void forcePipeline(int pipeline){
+        double now = Timer.getFPGATimestamp();
+        if((pipeline != m_requestedPipeline) || (now - m_lastForcedTime >= VisionConstants.kPipelineResendSeconds)){
+            m_io.setPipeline(pipeline);
+            m_requestedPipeline = pipeline;
+            m_lastForcedTime = now;
+        }
+    }
+
+    //The pipeline the Limelight says it's running (from the last frame)
     public double getPipeline(){
-        return NetworkTableInstance.getDefault().getTable("limelight").getEntry("pipeline").getDouble(0);
+        return m_latest.getPipeline();
+    }
+
+    /**
+     * tx adjusted for how much we've turned since the picture was taken. tx is positive when the target is to the
+     * right, and turning right (clockwise, positive NavX angle) moves the target left in the picture.
+     */
+    public double getCompensatedX(){
+        if(m_poseHistory.size() == 0){
+            return m_latest.getX();
+        }
+        double turnedSinceCapture = m_poseHistory.getLatestYaw() - m_poseHistory.getYawAt(m_latest.getCaptureTime());
+        return m_latest.getX() - turnedSinceCapture;
+    }
+
+    //Distance to the target adjusted for how far we've driven towards it since the picture was taken
+    public double getCompensatedDistance(){
+        if(m_poseHistory.size() == 0){
+            return m_latest.getDistance();
+        }
+        double drivenSinceCapture = m_poseHistory.getLatestDistance() - m_poseHistory.getDistanceAt(m_latest.getCaptureTime());
+        return m_latest.getDistance() - drivenSinceCapture;
     }
 
     public double getY(){
-        return ty.getDouble(0.0);
+        return m_latest.getY();
     }
-    
+
     public double getTL(){
-        return tl.getDouble(0.0);
+        return m_latest.getLatencyMs();
     }
 
+    //Old frames count as no target, so commands stop instead of chasing a target we can't see anymore
     public double getTV(){
-        return tv.getDouble(0.0);
+        return (m_latest.hasTarget() && !m_latest.isStale(Timer.getFPGATimestamp())) ? 1 : 0;
     }
 
     public double getDistance(){
-        return distanceFromLimelightToGoalInches; 
+        return m_latest.getDistance();
     }
 
-    
+
 
     @Override
     public void periodic(){
-        /**
-         * Limelight code test to get range of the photoreflective tape
-         */
-        double targetOffsetAngle_Vertical = ty.getDouble(0.0);
-
+        long start = LoopProfiler.now();
 
-        // how many degrees back is your limelight rotated from perfectly vertical?
-        double limelightMountAngleDegrees = 4; //NOTE: we should really take into account the rotation of the robot using the pitch of the NavX - Noah
+        m_io.updateInputs(m_inputs);
+        if(m_inputs.frameCount != m_lastFrameCount){
+            m_lastFrameCount = m_inputs.frameCount;
+            processFrame(m_inputs);
+        }
 
-        // distance from the center of the Limelight lens to the floor
-        double limelightLensHeightInches = 28.5;
+        m_distanceEntry.set(m_latest.getDistance());
+        m_compensatedXEntry.set(getCompensatedX());
+        m_latencyEntry.set(m_latest.getLatencyMs());
+        m_staleEntry.set(m_latest.isStale(Timer.getFPGATimestamp()));
 
-        // distance from the target to the floor
-        double goalHeightInches;
+        LoopProfiler.getInstance().record(m_profilerSection, start);
+    }
 
-        if(targetOffsetAngle_Vertical > 0){
-            goalHeightInches = 43.5;
-        }
-        else{
-            goalHeightInches = 24;
+    //One processed Limelight frame
+    private static final class VisionResult {
+        private double m_x = 0;
+        private double m_y = 0;
+        private boolean m_hasTarget = false;
+        private double m_distance = 0;
+        //Never taken until the first frame shows up, so it starts out stale
+        private double m_captureTime = Double.NEGATIVE_INFINITY;
+        private double m_latencyMs = 0;
+        private int m_pipeline = -1;
+
+        void set(double x, double y, boolean hasTarget, double distance, double captureTime, double latencyMs, int pipeline){
+            m_x = x;
+            m_y = y;
+            m_hasTarget = hasTarget;
+            m_distance = distance;
+            m_captureTime = captureTime;
+            m_latencyMs = latencyMs;
+            m_pipeline = pipeline;
         }
 
+        double getX(){ return m_x; }
+        double getY(){ return m_y; }
+        boolean hasTarget(){ return m_hasTarget; }
+        double getDistance(){ return m_distance; }
 
-        double angleToGoalDegrees = limelightMountAngleDegrees + targetOffsetAngle_Vertical;
-        double angleToGoalRadians = angleToGoalDegrees * (Math.PI / 180.0);
+        //FPGA time (seconds) the camera took the picture
+        double getCaptureTime(){ return m_captureTime; }
+        double getLatencyMs(){ return m_latencyMs; }
+        int getPipeline(){ return m_pipeline; }
 
-        //calculate distance
-        distanceFromLimelightToGoalInches = (goalHeightInches - limelightLensHeightInches)/Math.tan(angleToGoalRadians);
-        SmartDashboard.putNumber("Distance from limelight",distanceFromLimelightToGoalInches);
+        boolean isStale(double now){
+            return (now - m_captureTime) > VisionConstants.kStaleFrameSeconds;
+        }
     }
-}
\ No newline at end of file
+}
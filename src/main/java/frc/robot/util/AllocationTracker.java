@@ -0,0 +1,67 @@
+package frc.robot.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Reads how many bytes the current thread has allocated so far, using the JVM's per-thread counter
+ * (com.sun.management.ThreadMXBean). LoopProfiler takes one reading at the start and end of every section to
+ * find out which periodic() or execute() is making garbage.
+ *
+ * <p>On some JVMs reading the counter allocates a couple of tiny arrays itself. {@link #calibrate()} measures how
+ * much, and {@link #since(long)} takes it back off, so a section that doesn't allocate reads as 0.
+ */
+public final class AllocationTracker {
+    private final com.sun.management.ThreadMXBean m_threads;
+    private long m_readCost = 0;
+
+    private AllocationTracker(com.sun.management.ThreadMXBean threads){
+        m_threads = threads;
+        calibrate();
+    }
+
+    /**
+     * Turns on the JVM's allocation counting.
+     *
+     * @return null if this JVM can't count allocations per thread
+     */
+    public static AllocationTracker create(){
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if(!(threads instanceof com.sun.management.ThreadMXBean)){
+            return null;
+        }
+        com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+        if(!counter.isThreadAllocatedMemorySupported()){
+            return null;
+        }
+        counter.setThreadAllocatedMemoryEnabled(true);
+        return new AllocationTracker(counter);
+    }
+
+    //Total bytes this thread has allocated since it started
+    public long bytes(){
+        return m_threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    //Bytes allocated since an earlier bytes(), not counting what the readings themselves cost
+    public long since(long mark){
+        return Math.max(0, bytes() - mark - m_readCost);
+    }
+
+    /**
+     * Measures what one reading costs (the smallest of a few back-to-back pairs). Once the JIT has compiled the
+     * reading it can get cheaper, so LoopProfiler calls this again every summary.
+     */
+    public void calibrate(){
+        long cost = Long.MAX_VALUE;
+        for(int i = 0; i < 8; i++){
+            long first = bytes();
+            cost = Math.min(cost, bytes() - first);
+        }
+        m_readCost = cost;
+    }
+
+    public long getReadCost(){
+        return m_readCost;
+    }
+}
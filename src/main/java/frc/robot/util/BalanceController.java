@@ -0,0 +1,57 @@
+package frc.robot.util;
+
+//Constants
+import frc.robot.Constants.BalanceConstants;
+
+/**
+ * Works out how many volts to drive with to balance on the charge station. It's state feedback on pitch, pitch rate
+ * and wheel velocity:
+ *
+ * <pre>volts = kPitch * pitch + kPitchRate * pitch rate - kVelocity * velocity</pre>
+ *
+ * with the gains tuned against {@link frc.robot.sim.ChargeStationModel} (run {@code ./gradlew simulateBalance}).
+ *
+ * <p>The pitch rate term is what makes it predictive. Once the robot gets past the middle, the station starts tipping
+ * back towards level, and the rate shows that long before the pitch does. The rate term outweighs the pitch term
+ * right away, so the robot stops and backs up while the station is still tipping, instead of waiting for the pitch
+ * to flip and overshooting. The velocity term keeps it from picking up speed on the ramp.
+ *
+ * <p>Doesn't touch any hardware, so the balance command and the simulation both use it. Pitch is nose up positive
+ * (the direction we need to drive), velocity is forward positive.
+ */
+public final class BalanceController {
+    private boolean m_tipping = false;
+    private boolean m_level = false;
+
+    /**
+     * @param pitch degrees, positive when the front of the robot is up
+     * @param pitchRate degrees per second
+     * @param velocity meters per second, forward positive
+     * @return volts for both sides of the drivetrain
+     */
+    public double calculate(double pitch, double pitchRate, double velocity){
+        //Only used for the dashboard, the rate term already handles this
+        m_tipping = ((pitch * pitchRate) < 0) && (Math.abs(pitchRate) > BalanceConstants.kTippingRateDegreesPerSecond);
+        m_level = (Math.abs(pitch) < BalanceConstants.kLevelDegrees) && (Math.abs(pitchRate) < BalanceConstants.kLevelRateDegreesPerSecond);
+
+        double volts;
+        if(m_level){
+            //Level and not moving, just hold still
+            volts = -BalanceConstants.kVelocity * velocity;
+        }
+        else{
+            volts = (BalanceConstants.kPitch * pitch) + (BalanceConstants.kPitchRate * pitchRate) - (BalanceConstants.kVelocity * velocity);
+        }
+
+        return Math.max(-BalanceConstants.kMaxVolts, Math.min(BalanceConstants.kMaxVolts, volts));
+    }
+
+    //True while the station is swinging back towards level (we're past the middle)
+    public boolean isTipping(){
+        return m_tipping;
+    }
+
+    public boolean isLevel(){
+        return m_level;
+    }
+}
@@ -0,0 +1,128 @@
+package frc.robot.util;
+
+//Constants
+import frc.robot.Constants.NavConstants;
+
+/**
+ * The last few NavX updates, stamped with the NavX's own clock. The NavX callback thread adds every update (a lot
+ * faster than our 20ms loop) and the robot loop copies out a {@link GyroSnapshot} once per loop.
+ *
+ * <p>Everything lives in plain arrays that get overwritten in a circle, so neither side allocates. Both sides lock
+ * the buffer, but only for a handful of array reads/writes.
+ */
+public final class GyroBuffer {
+    private final double[] m_times;
+    private final long[] m_sensorTimes;
+    private final double[] m_yaws;
+    private final double[] m_pitches;
+    private final double[] m_rolls;
+    private final double[] m_angles;
+
+    //Where the next sample goes, how many slots are filled, and how many samples ever came in
+    private int m_head = 0;
+    private int m_size = 0;
+    private long m_count = 0;
+
+    public GyroBuffer(int capacity){
+        m_times = new double[capacity];
+        m_sensorTimes = new long[capacity];
+        m_yaws = new double[capacity];
+        m_pitches = new double[capacity];
+        m_rolls = new double[capacity];
+        m_angles = new double[capacity];
+    }
+
+    /**
+     * @param time FPGA time in seconds
+     * @param sensorTime NavX timestamp in milliseconds
+     */
+    public synchronized void add(double time, long sensorTime, double yaw, double pitch, double roll){
+        //Keep a yaw that doesn't jump at +-180 by adding up how much it changed each update
+        double angle = yaw;
+        if(m_size > 0){
+            int last = slot(m_size - 1);
+            //The NavX resends the same update sometimes
+            if(sensorTime == m_sensorTimes[last]){
+                return;
+            }
+            //Its clock started over (it rebooted or browned out), so the old samples would mess up the rate fit.
+            //The angle still carries on from the last one.
+            if(sensorTime < m_sensorTimes[last] - NavConstants.kGyroClockResetMs){
+                m_size = 0;
+            }
+
+            double change = yaw - m_yaws[last];
+            if(change > 180){
+                change -= 360;
+            }
+            else if(change < -180){
+                change += 360;
+            }
+            angle = m_angles[last] + change;
+        }
+
+        m_times[m_head] = time;
+        m_sensorTimes[m_head] = sensorTime;
+        m_yaws[m_head] = yaw;
+        m_pitches[m_head] = pitch;
+        m_rolls[m_head] = roll;
+        m_angles[m_head] = angle;
+
+        m_head = (m_head + 1) % m_times.length;
+        if(m_size < m_times.length){
+            m_size++;
+        }
+        m_count++;
+    }
+
+    public synchronized int size(){
+        return m_size;
+    }
+
+    /**
+     * Copies the newest sample into the snapshot, plus the pitch rate from a least squares line through every sample
+     * in the last rateWindowSeconds (by the NavX clock). A fitted slope is a lot less noisy than the difference between
+     * two samples. Leaves the snapshot alone if nothing has come in yet.
+     */
+    public synchronized void copyLatest(GyroSnapshot snapshot, double rateWindowSeconds){
+        if(m_size == 0){
+            return;
+        }
+
+        int latest = slot(m_size - 1);
+        snapshot.m_timestamp = m_times[latest];
+        snapshot.m_sensorTimestamp = m_sensorTimes[latest];
+        snapshot.m_yaw = m_yaws[latest];
+        snapshot.m_pitch = m_pitches[latest];
+        snapshot.m_roll = m_rolls[latest];
+        snapshot.m_angle = m_angles[latest];
+        snapshot.m_sampleCount = m_count;
+
+        //Times relative to the newest sample so the sums stay small
+        long windowMs = (long) (rateWindowSeconds * 1000);
+        double sumT = 0, sumP = 0, sumTT = 0, sumTP = 0;
+        int n = 0;
+        for(int i = m_size - 1; i >= 0; i--){
+            int index = slot(i);
+            long age = m_sensorTimes[latest] - m_sensorTimes[index];
+            if(age > windowMs){
+                break;
+            }
+            double t = -age / 1000.0;
+            double p = m_pitches[index];
+            sumT += t;
+            sumP += p;
+            sumTT += t * t;
+            sumTP += t * p;
+            n++;
+        }
+
+        double denominator = (n * sumTT) - (sumT * sumT);
+        snapshot.m_pitchRate = ((n < 2) || (denominator <= 0)) ? 0 : ((n * sumTP) - (sumT * sumP)) / denominator;
+    }
+
+    //Index of the i-th oldest sample
+    private int slot(int i){
+        return (m_head - m_size + i + m_times.length) % m_times.length;
+    }
+}
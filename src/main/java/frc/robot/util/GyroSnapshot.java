@@ -0,0 +1,47 @@
+package frc.robot.util;
+
+/**
+ * One consistent set of NavX readings, copied out of a {@link GyroBuffer} once per loop (or out of a match log when
+ * replaying). NavSubsystem reuses the same object every loop, so nothing gets allocated.
+ * Angles are in degrees the way the NavX reports them (yaw is clockwise positive).
+ */
+public final class GyroSnapshot {
+    double m_timestamp;
+    long m_sensorTimestamp;
+    double m_yaw;
+    double m_pitch;
+    double m_roll;
+    double m_angle;
+    double m_pitchRate;
+    long m_sampleCount;
+
+    //For NavIO implementations that don't have a GyroBuffer (replay)
+    public void set(double timestamp, long sensorTimestamp, double yaw, double pitch, double roll, double angle, double pitchRate, long sampleCount){
+        m_timestamp = timestamp;
+        m_sensorTimestamp = sensorTimestamp;
+        m_yaw = yaw;
+        m_pitch = pitch;
+        m_roll = roll;
+        m_angle = angle;
+        m_pitchRate = pitchRate;
+        m_sampleCount = sampleCount;
+    }
+
+    //FPGA time (seconds) the newest sample arrived at
+    public double getTimestamp(){ return m_timestamp; }
+    //The NavX's own clock (milliseconds), which doesn't have any of the SPI/thread jitter
+    public long getSensorTimestamp(){ return m_sensorTimestamp; }
+
+    //-180 to 180
+    public double getYaw(){ return m_yaw; }
+    public double getPitch(){ return m_pitch; }
+    public double getRoll(){ return m_roll; }
+    //Yaw that keeps counting past 360 (like AHRS.getAngle())
+    public double getAngle(){ return m_angle; }
+
+    //Degrees per second, fitted over the last few samples
+    public double getPitchRate(){ return m_pitchRate; }
+
+    //How many samples have ever come in, 0 means the NavX hasn't sent anything yet
+    public long getSampleCount(){ return m_sampleCount; }
+}
@@ -0,0 +1,46 @@
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.AddressableLEDBuffer;
+
+/**
+ * Every frame of an {@link LEDPattern}, drawn once up front into packed RGB lookup tables.
+ * Each loop only has to pick the next frame and copy it into the buffer.
+ */
+public final class LEDFrameRing {
+    private final LEDPattern m_pattern;
+    private final int[][] m_frames;
+    private int m_frame = 0;
+
+    public LEDFrameRing(LEDPattern pattern, int length){
+        m_pattern = pattern;
+        m_frames = new int[pattern.getFrameCount()][length];
+        for(int frame = 0; frame < m_frames.length; frame++){
+            pattern.render(frame, m_frames[frame]);
+        }
+    }
+
+    public int getFrameCount(){
+        return m_frames.length;
+    }
+
+    public int getFrame(){
+        return m_frame;
+    }
+
+    //Moves to the frame the pattern wants next and returns it
+    public int advance(){
+        int next = m_pattern.nextFrame(m_frame) % m_frames.length;
+        //nextFrame() might be based on something like the gyro, which can go negative
+        m_frame = (next < 0) ? next + m_frames.length : next;
+        return m_frame;
+    }
+
+    //Copies a frame into the LED buffer
+    public void write(int frame, AddressableLEDBuffer buffer){
+        int[] pixels = m_frames[frame];
+        for(int i = 0; i < pixels.length; i++){
+            int rgb = pixels[i];
+            buffer.setRGB(i, (rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package frc.robot.util;
+
+/**
+ * One LED animation. Patterns are only asked to draw their frames once (when LEDSubsystem precomputes them into a
+ * {@link LEDFrameRing}), so render() can be as slow as it wants.
+ *
+ * <p>To add a new pattern, implement this (or use one of {@link LEDPatterns}) and register it with
+ * LEDSubsystem.registerPattern(). No switch case needed.
+ */
+public interface LEDPattern {
+    //How many frames the animation has. Static colours have 1.
+    int getFrameCount();
+
+    //Fills pixels with packed 0xRRGGBB colours for one frame
+    void render(int frame, int[] pixels);
+
+    //Which frame to show next loop. By default the animation just loops.
+    default int nextFrame(int currentFrame){
+        return (currentFrame + 1) % getFrameCount();
+    }
+
+    static int packRGB(int r, int g, int b){
+        return ((r & 0xFF) << 16) | ((g & 0xFF) << 8) | (b & 0xFF);
+    }
+}
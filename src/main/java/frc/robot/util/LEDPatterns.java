@@ -0,0 +1,98 @@
+package frc.robot.util;
+
+import java.util.function.IntSupplier;
+
+//The patterns LEDSubsystem has always had, rewritten as precomputable LEDPatterns
+public final class LEDPatterns {
+    private LEDPatterns(){}
+
+    //One colour on every LED
+    public static LEDPattern solid(int r, int g, int b){
+        int rgb = LEDPattern.packRGB(r, g, b);
+        return new LEDPattern() {
+            @Override
+            public int getFrameCount(){
+                return 1;
+            }
+
+            @Override
+            public void render(int frame, int[] pixels){
+                for(int i = 0; i < pixels.length; i++){
+                    pixels[i] = rgb;
+                }
+            }
+        };
+    }
+
+    /**
+     * The moving rainbow. Which frame is shown comes from firstPixelHue (the robot's yaw, so the rainbow turns with
+     * the robot) instead of a timer.
+     */
+    public static LEDPattern rainbow(IntSupplier firstPixelHue){
+        return new LEDPattern() {
+            @Override
+            public int getFrameCount(){
+                //The hue wraps at 360
+                return 360;
+            }
+
+            @Override
+            public void render(int frame, int[] pixels){
+                for(int i = 0; i < pixels.length; i++){
+                    // Calculate the hue - hue is easier for rainbows because the color
+                    // shape is a circle so only one value needs to precess
+                    int hue = (frame + 2 * (i * 180 / pixels.length)) % 360;
+                    // The values are meant to overflow past 255, that's what makes the colours change
+                    pixels[i] = LEDPattern.packRGB(hue * 3, hue * 10, 0);
+                }
+            }
+
+            @Override
+            public int nextFrame(int currentFrame){
+                return firstPixelHue.getAsInt() % 360;
+            }
+        };
+    }
+
+    //Orange/yellow streak that moves 3 hues per loop (turbo mode)
+    public static LEDPattern turbo(){
+        return new LEDPattern() {
+            @Override
+            public int getFrameCount(){
+                //Moves 3 hues per frame and wraps at 180
+                return 60;
+            }
+
+            @Override
+            public void render(int frame, int[] pixels){
+                for(int i = 0; i < pixels.length; i++){
+                    int hue = (frame * 3 + (i * 180 / pixels.length)) % 180;
+                    pixels[i] = LEDPattern.packRGB(200, hue, 0);
+                }
+            }
+        };
+    }
+
+    //Red/purple streak, same speed as turbo
+    public static LEDPattern test(){
+        return new LEDPattern() {
+            @Override
+            public int getFrameCount(){
+                return 60;
+            }
+
+            @Override
+            public void render(int frame, int[] pixels){
+                for(int i = 0; i < pixels.length; i++){
+                    int hue = (frame * 3 + (i * 180 / pixels.length)) % 180;
+                    if(hue > 100){
+                        pixels[i] = LEDPattern.packRGB(hue, 0, 255);
+                    }
+                    else{
+                        pixels[i] = LEDPattern.packRGB(255, 0, hue);
+                    }
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,272 @@
+package frc.robot.util;
+
+import java.util.ArrayList;
+
+import edu.wpi.first.util.datalog.BooleanLogEntry;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.IntegerLogEntry;
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.wpilibj.DriverStation;
+
+//Constants
+import frc.robot.Constants.LogConstants;
+
+/**
+ * Records a frame of numbers every loop into a WPILib DataLog (.wpilog, opens in AdvantageScope) without the robot
+ * loop ever touching the file.
+ *
+ * <p>Fields get registered by name before {@link #start}, like LoopProfiler sections. After that the robot loop
+ * fills one frame per loop:
+ * <pre>
+ * if(log.beginFrame(Timer.getFPGATimestamp())){
+ *     log.set(m_armAngleField, angle);
+ *     ...
+ *     log.endFrame();
+ * }
+ * </pre>
+ * which only copies doubles into a ring that was allocated at startup. A background thread empties the ring a few
+ * times a second and hands the values to the DataLog (which does the actual file writes on its own thread). Only
+ * values that changed get written, so a robot sitting disabled barely grows the file.
+ *
+ * <p>The robot loop is the only thing that writes frames and the log thread is the only thing that reads them, so
+ * the two counters below are all the locking we need. If the log thread ever falls a whole ring behind, new frames
+ * get dropped (and counted) instead of making the loop wait.
+ */
+public final class LogBuffer {
+    public enum FieldType {
+        DOUBLE,
+        BOOLEAN,
+        INTEGER,
+        //A LoopProfiler section id (or -1 for nothing), logged as the section's name
+        COMMAND
+    }
+
+    private final ArrayList<String> m_names = new ArrayList<>();
+    private final ArrayList<FieldType> m_types = new ArrayList<>();
+    private final ArrayList<String> m_metadata = new ArrayList<>();
+
+    private final int m_capacity = LogConstants.kBufferFrames;
+    //Each frame is the timestamp followed by one value per field
+    private int m_stride;
+    private double[] m_frames;
+
+    //Frames the robot loop has finished / frames the log thread has written. Only ever go up.
+    private volatile long m_written = 0;
+    private volatile long m_read = 0;
+    private volatile long m_dropped = 0;
+
+    //Start of the frame being filled, or -1 if there isn't one (not started, or the ring was full)
+    private int m_frameStart = -1;
+    //Start of the last frame that was handed to the log thread, so the next frame can start as a copy of it
+    private int m_lastFrameStart = -1;
+
+    private Thread m_thread;
+
+    public int addDouble(String name){
+        return addField(name, FieldType.DOUBLE);
+    }
+
+    public int addBoolean(String name){
+        return addField(name, FieldType.BOOLEAN);
+    }
+
+    public int addInteger(String name){
+        return addField(name, FieldType.INTEGER);
+    }
+
+    //Metadata gets saved once with the entry (replay uses it to turn numbers back into names)
+    public int addInteger(String name, String metadata){
+        return addField(name, FieldType.INTEGER, metadata);
+    }
+
+    public int addCommand(String name){
+        return addField(name, FieldType.COMMAND);
+    }
+
+    private int addField(String name, FieldType type){
+        return addField(name, type, "");
+    }
+
+    private int addField(String name, FieldType type, String metadata){
+        if(m_thread != null){
+            throw new IllegalStateException("Log fields have to be added before the log starts (" + name + ")");
+        }
+        m_names.add(name);
+        m_types.add(type);
+        m_metadata.add(metadata);
+        return m_names.size() - 1;
+    }
+
+    /**
+     * Makes the ring and starts the log thread. The DataLog picks its own unique file name.
+     *
+     * @param directory where the .wpilog file goes
+     */
+    public void start(String directory){
+        if(m_thread != null){
+            return;
+        }
+        m_stride = m_names.size() + 1;
+        m_frames = new double[m_capacity * m_stride];
+
+        DataLog log = new DataLog(directory, "", LogConstants.kFlushPeriodSeconds);
+        Writer writer = new Writer(log);
+        m_thread = new Thread(writer, "Match log");
+        m_thread.setDaemon(true);
+        //File writes can wait, the robot loop can't
+        m_thread.setPriority(Thread.MIN_PRIORITY);
+        m_thread.start();
+        DriverStation.reportWarning("Match log: " + m_names.size() + " fields, writing to " + directory, false);
+    }
+
+    /**
+     * Starts a new frame. Every field keeps its value from the last frame unless it gets set again.
+     *
+     * @param timestamp FPGA time in seconds
+     * @return false if the log isn't running or the ring is full (the frame gets dropped, set() calls are ignored)
+     */
+    public boolean beginFrame(double timestamp){
+        if(m_frames == null){
+            return false;
+        }
+        long written = m_written;
+        if(written - m_read >= m_capacity){
+            m_dropped++;
+            m_frameStart = -1;
+            return false;
+        }
+
+        m_frameStart = (int) (written % m_capacity) * m_stride;
+        if(m_lastFrameStart >= 0){
+            System.arraycopy(m_frames, m_lastFrameStart, m_frames, m_frameStart, m_stride);
+        }
+        m_frames[m_frameStart] = timestamp;
+        return true;
+    }
+
+    public void set(int field, double value){
+        if(m_frameStart >= 0){
+            m_frames[m_frameStart + 1 + field] = value;
+        }
+    }
+
+    public void set(int field, boolean value){
+        set(field, value ? 1 : 0);
+    }
+
+    //Hands the frame to the log thread
+    public void endFrame(){
+        if(m_frameStart >= 0){
+            m_lastFrameStart = m_frameStart;
+            m_frameStart = -1;
+            m_written = m_written + 1;
+        }
+    }
+
+    //Frames that didn't make it into the log because the log thread was too far behind
+    public long getDroppedFrames(){
+        return m_dropped;
+    }
+
+    //Frames still waiting for the log thread
+    public long getBacklog(){
+        return m_written - m_read;
+    }
+
+    //Runs on the log thread, nothing in here is touched by the robot loop
+    private final class Writer implements Runnable {
+        private final DataLog m_log;
+        private final int m_fieldCount = m_names.size();
+        private final DoubleLogEntry[] m_doubleEntries = new DoubleLogEntry[m_fieldCount];
+        private final BooleanLogEntry[] m_booleanEntries = new BooleanLogEntry[m_fieldCount];
+        private final IntegerLogEntry[] m_integerEntries = new IntegerLogEntry[m_fieldCount];
+        private final StringLogEntry[] m_stringEntries = new StringLogEntry[m_fieldCount];
+
+        //What was last written for each field, so unchanged values get skipped
+        private final double[] m_lastValues = new double[m_fieldCount];
+        private final boolean[] m_hasLastValue = new boolean[m_fieldCount];
+
+        Writer(DataLog log){
+            m_log = log;
+            for(int i = 0; i < m_fieldCount; i++){
+                String name = m_names.get(i);
+                String metadata = m_metadata.get(i);
+                switch(m_types.get(i)){
+                    case BOOLEAN:
+                        m_booleanEntries[i] = new BooleanLogEntry(log, name, metadata);
+                        break;
+                    case INTEGER:
+                        m_integerEntries[i] = new IntegerLogEntry(log, name, metadata);
+                        break;
+                    case COMMAND:
+                        m_stringEntries[i] = new StringLogEntry(log, name, metadata);
+                        break;
+                    default:
+                        m_doubleEntries[i] = new DoubleLogEntry(log, name, metadata);
+                        break;
+                }
+            }
+        }
+
+        @Override
+        public void run(){
+            long sleepMillis = (long) (LogConstants.kWriterPeriodSeconds * 1000);
+            while(!Thread.currentThread().isInterrupted()){
+                long read = m_read;
+                long written = m_written;
+                for(long frame = read; frame < written; frame++){
+                    writeFrame((int) (frame % m_capacity) * m_stride);
+                }
+                //Frees the slots for the robot loop
+                m_read = written;
+
+                try {
+                    Thread.sleep(sleepMillis);
+                }
+                catch (InterruptedException e) {
+                    break;
+                }
+            }
+            m_log.flush();
+        }
+
+        private void writeFrame(int start){
+            long timestampMicros = (long) (m_frames[start] * 1e6);
+            for(int i = 0; i < m_fieldCount; i++){
+                double value = m_frames[start + 1 + i];
+                if(m_hasLastValue[i] && (Double.compare(value, m_lastValues[i]) == 0)){
+                    continue;
+                }
+                m_lastValues[i] = value;
+                m_hasLastValue[i] = true;
+
+                try {
+                    append(i, value, timestampMicros);
+                }
+                catch (RuntimeException e) {
+                    //A bad value shouldn't kill the log thread for the rest of the match
+                    DriverStation.reportWarning("Match log couldn't write " + m_names.get(i) + ": " + e.getMessage(), false);
+                }
+            }
+        }
+
+        private void append(int field, double value, long timestampMicros){
+            switch(m_types.get(field)){
+                case BOOLEAN:
+                    m_booleanEntries[field].append(value != 0, timestampMicros);
+                    break;
+                case INTEGER:
+                    m_integerEntries[field].append((long) value, timestampMicros);
+                    break;
+                case COMMAND:
+                    int section = (int) value;
+                    m_stringEntries[field].append((section < 0) ? "" : LoopProfiler.getInstance().getName(section), timestampMicros);
+                    break;
+                default:
+                    m_doubleEntries[field].append(value, timestampMicros);
+                    break;
+            }
+        }
+    }
+}
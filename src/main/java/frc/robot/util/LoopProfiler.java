@@ -0,0 +1,381 @@
+package frc.robot.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+
+//Dashboard
+import frc.robot.util.Telemetry.DoubleChannel;
+
+//Constants
+import frc.robot.Constants.ProfilerConstants;
+
+/**
+ * Times every subsystem periodic() and every running command's execute() with System.nanoTime().
+ *
+ * <p>Each section keeps its last {@link ProfilerConstants#kWindowSize} samples in a preallocated ring, so
+ * recording a sample never allocates. Once a second the p50/p99/max of every section is sent to the
+ * dashboard, and whenever a whole loop goes over budget the slowest sections of that loop are printed to
+ * the driver station. The time spent in the profiler's own methods is added up every loop too, and its average and
+ * worst loop go out as "Profiler/Overhead".
+ *
+ * <p>Subsystems time themselves:
+ * <pre>
+ * long start = LoopProfiler.now();
+ * ...
+ * LoopProfiler.getInstance().record(m_profilerSection, start);
+ * </pre>
+ * Commands are timed automatically once {@link #install()} has been called.
+ *
+ * <p>With allocation tracking on ({@link ProfilerConstants#kTrackAllocations}, or {@link #trackAllocations()}) every
+ * section also counts how many bytes it allocated, using {@link AllocationTracker}. The average per loop goes to the
+ * dashboard with the timings, and ./gradlew checkAllocations uses the totals to find garbage in the loop.
+ */
+public final class LoopProfiler {
+    private static final LoopProfiler kInstance = new LoopProfiler();
+
+    private static final int kMaxSections = ProfilerConstants.kMaxSections;
+    private static final int kWindowSize = ProfilerConstants.kWindowSize;
+    private static final long kLoopBudgetNanos = (long) (ProfilerConstants.kLoopBudgetSeconds * 1e9);
+    private static final long kSummaryPeriodNanos = (long) (ProfilerConstants.kSummaryPeriodSeconds * 1e9);
+
+    private final String[] m_names = new String[kMaxSections];
+    private final long[][] m_samples = new long[kMaxSections][kWindowSize];
+    private final int[] m_sampleCounts = new int[kMaxSections];
+    private final int[] m_nextSample = new int[kMaxSections];
+
+    //Time spent in each section during the current loop (only valid if m_lastLoop matches m_loopCount)
+    private final long[] m_thisLoopNanos = new long[kMaxSections];
+    private final long[] m_lastLoop = new long[kMaxSections];
+
+    //Summary channels (one set per section)
+    private final DoubleChannel[] m_p50Entries = new DoubleChannel[kMaxSections];
+    private final DoubleChannel[] m_p99Entries = new DoubleChannel[kMaxSections];
+    private final DoubleChannel[] m_maxEntries = new DoubleChannel[kMaxSections];
+
+    //Used for sorting when we make the summary so the sample rings aren't touched
+    private final long[] m_scratch = new long[kWindowSize];
+
+    //Null unless allocation tracking is on
+    private AllocationTracker m_allocations = ProfilerConstants.kTrackAllocations ? AllocationTracker.create() : null;
+    private long m_allocationMark = 0;
+    private long m_loopAllocationStart = 0;
+
+    //Bytes each section allocated since the last summary / since resetAllocations(), and how many loops it allocated in
+    private final long[] m_summaryBytes = new long[kMaxSections];
+    private final long[] m_totalBytes = new long[kMaxSections];
+    private final long[] m_allocatingLoops = new long[kMaxSections];
+    private final long[] m_lastAllocatingLoop = new long[kMaxSections];
+    private final DoubleChannel[] m_allocationEntries = new DoubleChannel[kMaxSections];
+    private long m_summaryLoopStart = 0;
+
+    //Which section each command name has been given. By name, not by instance, so every copy of a command (and every
+    //new one an auton makes) shares one section instead of each using one up.
+    private final HashMap<String, Integer> m_commandSections = new HashMap<>();
+
+    private int m_sectionCount = 0;
+    private final int m_loopSection;
+    private final int m_overflowSection;
+    //Polling every button binding (and whatever the triggers schedule), from installButtonTiming()'s mark to the commands
+    private final int m_buttonSection;
+    private boolean m_timingButtons = false;
+    private long m_buttonsStart = 0;
+
+    private long m_loopCount = 0;
+    private long m_loopStart = 0;
+    private long m_commandMark = 0;
+    private long m_lastSummary = 0;
+    private long m_overrunCount = 0;
+
+    //Time spent inside the profiler's own methods (including the allocation counter reads): this loop so far, and
+    //the total and worst loop since the last summary
+    private long m_loopOverheadNanos = 0;
+    private long m_summaryOverheadNanos = 0;
+    private long m_maxOverheadNanos = 0;
+    private long m_overheadLoops = 0;
+
+    private final DoubleChannel m_overrunEntry = Telemetry.getInstance().addDouble("Profiler/Overruns", 0, 1);
+    private final DoubleChannel m_overheadEntry = Telemetry.getInstance().addDouble("Profiler/Overhead (us)", 1, 1);
+    private final DoubleChannel m_maxOverheadEntry = Telemetry.getInstance().addDouble("Profiler/Overhead max (us)", 1, 1);
+
+    private LoopProfiler(){
+        Arrays.fill(m_lastAllocatingLoop, -1);
+        m_loopSection = register("Loop total");
+        m_overflowSection = register("Other commands");
+        m_buttonSection = register("Button bindings");
+    }
+
+    public static LoopProfiler getInstance(){
+        return kInstance;
+    }
+
+    //Marks the start of a section. With allocation tracking on this also saves how much has been allocated so far,
+    //so sections can't be nested inside each other.
+    public static long now(){
+        long enter = System.nanoTime();
+        kInstance.markAllocations();
+        long start = System.nanoTime();
+        kInstance.m_loopOverheadNanos += start - enter;
+        return start;
+    }
+
+    /**
+     * Turns allocation tracking on even if ProfilerConstants has it off. The allocation check calls this before the
+     * robot gets made.
+     *
+     * @return false if this JVM can't count allocations
+     */
+    public boolean trackAllocations(){
+        if(m_allocations == null){
+            m_allocations = AllocationTracker.create();
+        }
+        return m_allocations != null;
+    }
+
+    public boolean isTrackingAllocations(){
+        return m_allocations != null;
+    }
+
+    private void markAllocations(){
+        if(m_allocations != null){
+            m_allocationMark = m_allocations.bytes();
+        }
+    }
+
+    private long allocatedSinceMark(){
+        return (m_allocations == null) ? 0 : m_allocations.since(m_allocationMark);
+    }
+
+    /**
+     * Gives a name its own section. Call this once (in a constructor), not every loop.
+     *
+     * @return the section id to pass into {@link #record(int, long)}
+     */
+    public int register(String name){
+        if(m_sectionCount >= kMaxSections){
+            return m_overflowSection;
+        }
+        int section = m_sectionCount++;
+        m_names[section] = name;
+        m_p50Entries[section] = Telemetry.getInstance().addDouble("Profiler/" + name + "/p50 (ms)", 0.01, 1);
+        m_p99Entries[section] = Telemetry.getInstance().addDouble("Profiler/" + name + "/p99 (ms)", 0.01, 1);
+        m_maxEntries[section] = Telemetry.getInstance().addDouble("Profiler/" + name + "/max (ms)", 0.01, 1);
+        return section;
+    }
+
+    public String getName(int section){
+        return m_names[section];
+    }
+
+    public int getSectionCount(){
+        return m_sectionCount;
+    }
+
+    public int getLoopSection(){
+        return m_loopSection;
+    }
+
+    /**
+     * Times the button bindings as their own section. The button loop polls bindings in the order they were made, so
+     * call this once from robotInit before any bindings are made, and {@link #install()} after.
+     */
+    public void installButtonTiming(){
+        CommandScheduler.getInstance().getDefaultButtonLoop().bind(this::markButtonsStart);
+        m_timingButtons = true;
+    }
+
+    //Hooks into the scheduler so every command's execute() gets timed. Call once from robotInit after the bindings are made.
+    public void install(){
+        //This runs after every button binding has been polled, right before the scheduler starts running commands
+        CommandScheduler.getInstance().getDefaultButtonLoop().bind(this::markCommandsStart);
+
+        //The scheduler calls this right after each command's execute(), so the time since the last mark is that command
+        CommandScheduler.getInstance().onCommandExecute(this::commandExecuted);
+    }
+
+    //Returns the section a command's time is saved under (shared by every command with the same name)
+    public int getCommandSection(Command command){
+        String name = command.getName();
+        Integer section = m_commandSections.get(name);
+        if(section == null){
+            section = register(name);
+            m_commandSections.put(name, section);
+        }
+        return section;
+    }
+
+    private void markButtonsStart(){
+        m_buttonsStart = now();
+    }
+
+    private void markCommandsStart(){
+        if(m_timingButtons){
+            record(m_buttonSection, m_buttonsStart);
+        }
+        m_commandMark = now();
+    }
+
+    private void commandExecuted(Command command){
+        long end = System.nanoTime();
+        //Read before getCommandSection(), which allocates the first time a command runs
+        long bytes = allocatedSinceMark();
+        addSample(getCommandSection(command), end - m_commandMark, bytes);
+        markAllocations();
+        //The next command's time starts after this, so the profiler's own time isn't charged to it
+        m_commandMark = System.nanoTime();
+        m_loopOverheadNanos += m_commandMark - end;
+    }
+
+    //Saves the time (and allocations) from start until now under a section
+    public void record(int section, long startNanos){
+        long end = System.nanoTime();
+        addSample(section, end - startNanos, allocatedSinceMark());
+        m_loopOverheadNanos += System.nanoTime() - end;
+    }
+
+    private void addSample(int section, long nanos, long bytes){
+        long[] samples = m_samples[section];
+        samples[m_nextSample[section]] = nanos;
+        m_nextSample[section] = (m_nextSample[section] + 1) % kWindowSize;
+        if(m_sampleCounts[section] < kWindowSize){
+            m_sampleCounts[section]++;
+        }
+
+        if(m_lastLoop[section] == m_loopCount){
+            m_thisLoopNanos[section] += nanos;
+        }
+        else{
+            m_lastLoop[section] = m_loopCount;
+            m_thisLoopNanos[section] = nanos;
+        }
+
+        if(bytes > 0){
+            m_summaryBytes[section] += bytes;
+            m_totalBytes[section] += bytes;
+            if(m_lastAllocatingLoop[section] != m_loopCount){
+                m_lastAllocatingLoop[section] = m_loopCount;
+                m_allocatingLoops[section]++;
+            }
+        }
+    }
+
+    //Call at the very top of robotPeriodic()
+    public void beginLoop(){
+        long enter = System.nanoTime();
+        m_loopCount++;
+        markAllocations();
+        m_loopAllocationStart = m_allocationMark;
+        m_loopStart = System.nanoTime();
+        m_commandMark = m_loopStart;
+        m_loopOverheadNanos = m_loopStart - enter;
+    }
+
+    //Call at the very bottom of robotPeriodic()
+    public void endLoop(){
+        long end = System.nanoTime();
+        long loopNanos = end - m_loopStart;
+        //Includes everything between the sections too (the scheduler itself, button polling, the profiler)
+        long loopBytes = (m_allocations == null) ? 0 : m_allocations.since(m_loopAllocationStart);
+        addSample(m_loopSection, loopNanos, loopBytes);
+
+        if(loopNanos > kLoopBudgetNanos){
+            m_overrunCount++;
+            reportOverrun(loopNanos);
+        }
+
+        if(end - m_lastSummary >= kSummaryPeriodNanos){
+            m_lastSummary = end;
+            publishSummary();
+            if(m_allocations != null){
+                publishAllocations();
+                m_allocations.calibrate();
+            }
+            m_overrunEntry.set(m_overrunCount);
+            //Average and worst per loop since the last summary
+            m_overheadEntry.set(m_summaryOverheadNanos / 1000.0 / Math.max(1, m_overheadLoops));
+            m_maxOverheadEntry.set(m_maxOverheadNanos / 1000.0);
+            m_summaryOverheadNanos = 0;
+            m_maxOverheadNanos = 0;
+            m_overheadLoops = 0;
+        }
+
+        //This loop's overhead includes the summary above, so the loop that makes one shows up in the next one
+        m_loopOverheadNanos += System.nanoTime() - end;
+        m_summaryOverheadNanos += m_loopOverheadNanos;
+        m_overheadLoops++;
+        m_maxOverheadNanos = Math.max(m_maxOverheadNanos, m_loopOverheadNanos);
+    }
+
+    //Starts counting allocations from zero. The allocation check calls this once the robot has settled into a mode.
+    public void resetAllocations(){
+        Arrays.fill(m_totalBytes, 0);
+        Arrays.fill(m_allocatingLoops, 0);
+    }
+
+    //Bytes a section allocated since resetAllocations() (always 0 with tracking off)
+    public long getAllocatedBytes(int section){
+        return m_totalBytes[section];
+    }
+
+    //How many loops a section allocated anything in since resetAllocations()
+    public long getAllocatingLoops(int section){
+        return m_allocatingLoops[section];
+    }
+
+    //Only builds strings when we've already blown the loop, so it doesn't cost anything on a normal loop
+    private void reportOverrun(long loopNanos){
+        StringBuilder message = new StringBuilder("Loop overrun: ").append(loopNanos / 1000).append("us. Slowest:");
+        long printedBelow = Long.MAX_VALUE;
+        for(int rank = 0; rank < ProfilerConstants.kOverrunReportCount; rank++){
+            //Pick the slowest section we haven't printed yet
+            int slowest = -1;
+            for(int section = 0; section < m_sectionCount; section++){
+                if((section == m_loopSection) || (m_lastLoop[section] != m_loopCount)){
+                    continue;
+                }
+                long nanos = m_thisLoopNanos[section];
+                if((nanos < printedBelow) && ((slowest == -1) || (nanos > m_thisLoopNanos[slowest]))){
+                    slowest = section;
+                }
+            }
+            if(slowest == -1){
+                break;
+            }
+            printedBelow = m_thisLoopNanos[slowest];
+            message.append(' ').append(m_names[slowest]).append('=').append(printedBelow / 1000).append("us");
+        }
+        DriverStation.reportWarning(message.toString(), false);
+    }
+
+    private void publishSummary(){
+        for(int section = 0; section < m_sectionCount; section++){
+            int count = m_sampleCounts[section];
+            if(count == 0){
+                continue;
+            }
+            System.arraycopy(m_samples[section], 0, m_scratch, 0, count);
+            Arrays.sort(m_scratch, 0, count);
+
+            m_p50Entries[section].set(m_scratch[count / 2] / 1e6);
+            m_p99Entries[section].set(m_scratch[Math.min(count - 1, (count * 99) / 100)] / 1e6);
+            m_maxEntries[section].set(m_scratch[count - 1] / 1e6);
+        }
+    }
+
+    //Average bytes per loop for every section since the last summary
+    private void publishAllocations(){
+        long loops = m_loopCount - m_summaryLoopStart;
+        m_summaryLoopStart = m_loopCount;
+        for(int section = 0; section < m_sectionCount; section++){
+            if(m_allocationEntries[section] == null){
+                //Only made once tracking is on, so a normal match doesn't get a column of zeros on the dashboard
+                m_allocationEntries[section] = Telemetry.getInstance().addDouble("Profiler/" + m_names[section] + "/alloc (B per loop)", 1, 1);
+            }
+            m_allocationEntries[section].set((loops > 0) ? ((double) m_summaryBytes[section] / loops) : 0);
+            m_summaryBytes[section] = 0;
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package frc.robot.util;
+
+import java.io.File;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+
+import frc.robot.io.ArmIO;
+import frc.robot.io.ChassisIO;
+import frc.robot.io.ClawIO;
+import frc.robot.io.VisionIO;
+import frc.robot.subsystems.ArmSubsystem;
+import frc.robot.subsystems.ChassisSubsystem;
+import frc.robot.subsystems.ClawSubsystem;
+import frc.robot.subsystems.NavSubsystem;
+import frc.robot.subsystems.PoseEstimatorSubsystem;
+import frc.robot.subsystems.VisionSubsystem;
+import frc.robot.util.Telemetry.DoubleChannel;
+
+//Constants
+import frc.robot.Constants.IOConstants;
+import frc.robot.Constants.LogConstants;
+
+/**
+ * Logs everything we'd want to look at after a match (every drive encoder and motor output, the arm, claw and wrist,
+ * the NavX, the Limelight, the pose estimate and which command is running each subsystem) once per loop into a
+ * .wpilog file. Open it in AdvantageScope.
+ *
+ * <p>Every IO input (what the subsystems read from the hardware, before any filtering) and every motor command goes
+ * in, along with the driver station state and both controllers, so the replay harness (frc.robot.replay) can feed
+ * a match back through the robot code and check it makes the same decisions. The key constants below are the names
+ * replay reads back.
+ *
+ * <p>{@link #record()} runs at the end of every loop and only reads values the subsystems already have and copies
+ * them into the {@link LogBuffer}. The file writing happens on the log's own thread.
+ */
+public final class MatchLogger {
+    //Changes every loop, replay uses it to find where each loop starts
+    public static final String kLoopKey = "Robot/Loop";
+    public static final String kEnabledKey = "Robot/Enabled";
+    public static final String kAutonomousKey = "Robot/Autonomous";
+    public static final String kTestKey = "Robot/Test";
+    //Index into the auton chooser's options, which are listed (comma separated) in this entry's metadata
+    public static final String kAutonKey = "Robot/Auton";
+
+    public static final String kChassisOutputModeKey = "Chassis/Output mode";
+    public static final String kChassisLeftCommandKey = "Chassis/Left command";
+    public static final String kChassisRightCommandKey = "Chassis/Right command";
+
+    public static final String kArmPotKey = "Arm/Pot raw";
+    public static final String kArmAppliedOutputKey = "Arm/Applied output";
+    public static final String kArmSetSpeedKey = "Arm/Set speed";
+    public static final String kArmBusVoltageKey = "Arm/Bus voltage";
+    public static final String kArmCurrentKey = "Arm/Current";
+    public static final String kArmOutputModeKey = "Arm/Output mode";
+    public static final String kArmCommandKey = "Arm/Command";
+
+    public static final String kClawClosedKey = "Claw/Closed";
+    public static final String kWristDownKey = "Claw/Wrist down";
+
+    public static final String kYawKey = "NavX/Yaw";
+    public static final String kPitchKey = "NavX/Pitch";
+    public static final String kRollKey = "NavX/Roll";
+    public static final String kAngleKey = "NavX/Angle";
+    public static final String kPitchRateKey = "NavX/Pitch rate";
+    public static final String kGyroSampleCountKey = "NavX/Sample count";
+    public static final String kInitialPitchKey = "NavX/Initial pitch offset";
+
+    public static final String kFrameCountKey = "Limelight/Frame count";
+    public static final String kFrameTimeKey = "Limelight/Frame time";
+    public static final String kTxKey = "Limelight/tx";
+    public static final String kTyKey = "Limelight/ty";
+    public static final String kTvKey = "Limelight/tv";
+    public static final String kTlKey = "Limelight/tl";
+    public static final String kClKey = "Limelight/cl";
+    public static final String kPipelineKey = "Limelight/Pipeline";
+    public static final String kHasBotPoseKey = "Limelight/Has botpose";
+    public static final String kBotPoseXKey = "Limelight/Botpose X";
+    public static final String kBotPoseYKey = "Limelight/Botpose Y";
+
+    //Both Xbox controllers
+    public static final int[] kJoysticks = {IOConstants.kDriverPort, IOConstants.kCoDriverPort};
+    public static final int kJoystickAxes = 6;
+
+    //Chassis, in the same order as the ChassisIO slots
+    private static final String[] kMotorNames = {"Left front", "Left rear 1", "Left rear 2", "Right front", "Right rear 1", "Right rear 2"};
+
+    public static String chassisKey(int motor, String value){
+        return "Chassis/" + kMotorNames[motor] + "/" + value;
+    }
+
+    public static String joystickAxisKey(int port, int axis){
+        return "Joystick " + port + "/Axis " + axis;
+    }
+
+    public static String joystickButtonsKey(int port){
+        return "Joystick " + port + "/Buttons";
+    }
+
+    public static String joystickPOVKey(int port){
+        return "Joystick " + port + "/POV";
+    }
+
+    private final int m_profilerSection = LoopProfiler.getInstance().register("MatchLogger.record()");
+
+    private final ChassisSubsystem m_chassisSubsystem;
+    private final ArmSubsystem m_armSubsystem;
+    private final ClawSubsystem m_clawSubsystem;
+    private final NavSubsystem m_navSubsystem;
+    private final VisionSubsystem m_visionSubsystem;
+    private final PoseEstimatorSubsystem m_poseEstimator;
+
+    private final LogBuffer m_log = new LogBuffer();
+    private long m_loopCount = 0;
+    //FPGA time from markLoopStart(), what every frame gets stamped with
+    private double m_loopStartTime = 0;
+
+    //Robot
+    private final int m_loopField = m_log.addInteger(kLoopKey);
+    private final int m_enabledField = m_log.addBoolean(kEnabledKey);
+    private final int m_autonomousField = m_log.addBoolean(kAutonomousKey);
+    private final int m_testField = m_log.addBoolean(kTestKey);
+    private final int m_batteryField = m_log.addDouble("Robot/Battery voltage");
+    private int m_autonField = -1;
+    private IntSupplier m_selectedAuton;
+
+    //Controllers
+    private final int[][] m_axisFields = new int[kJoysticks.length][kJoystickAxes];
+    private final int[] m_buttonFields = new int[kJoysticks.length];
+    private final int[] m_povFields = new int[kJoysticks.length];
+
+    //Chassis inputs, one of each per motor
+    private final int[] m_positionFields = new int[ChassisIO.kMotorCount];
+    private final int[] m_velocityFields = new int[ChassisIO.kMotorCount];
+    private final int[] m_outputFields = new int[ChassisIO.kMotorCount];
+    private final int[] m_currentFields = new int[ChassisIO.kMotorCount];
+    //Chassis commands
+    private final int m_chassisModeField = m_log.addInteger(kChassisOutputModeKey);
+    private final int m_chassisLeftField = m_log.addDouble(kChassisLeftCommandKey);
+    private final int m_chassisRightField = m_log.addDouble(kChassisRightCommandKey);
+
+    //Arm inputs
+    private final int m_armPotField = m_log.addDouble(kArmPotKey);
+    private final int m_armAppliedOutputField = m_log.addDouble(kArmAppliedOutputKey);
+    private final int m_armSetSpeedField = m_log.addDouble(kArmSetSpeedKey);
+    private final int m_armBusVoltageField = m_log.addDouble(kArmBusVoltageKey);
+    private final int m_armCurrentField = m_log.addDouble(kArmCurrentKey);
+    //Arm state and commands
+    private final int m_armAngleField = m_log.addDouble("Arm/Angle");
+    private final int m_armVelocityField = m_log.addDouble("Arm/Velocity");
+    private final int m_armGoalField = m_log.addDouble("Arm/Goal");
+    private final int m_armModeField = m_log.addInteger(kArmOutputModeKey);
+    private final int m_armCommandField = m_log.addDouble(kArmCommandKey);
+
+    //Claw (what the solenoids report)
+    private final int m_clawField = m_log.addBoolean(kClawClosedKey);
+    private final int m_wristField = m_log.addBoolean(kWristDownKey);
+
+    //NavX
+    private final int m_yawField = m_log.addDouble(kYawKey);
+    private final int m_pitchField = m_log.addDouble(kPitchKey);
+    private final int m_rollField = m_log.addDouble(kRollKey);
+    private final int m_angleField = m_log.addDouble(kAngleKey);
+    private final int m_pitchRateField = m_log.addDouble(kPitchRateKey);
+    private final int m_gyroSampleCountField = m_log.addInteger(kGyroSampleCountKey);
+    private final int m_initialPitchField = m_log.addDouble(kInitialPitchKey);
+
+    //Limelight inputs
+    private final int m_frameCountField = m_log.addInteger(kFrameCountKey);
+    private final int m_frameTimeField = m_log.addDouble(kFrameTimeKey);
+    private final int m_txField = m_log.addDouble(kTxKey);
+    private final int m_tyField = m_log.addDouble(kTyKey);
+    private final int m_tvField = m_log.addBoolean(kTvKey);
+    private final int m_tlField = m_log.addDouble(kTlKey);
+    private final int m_clField = m_log.addDouble(kClKey);
+    private final int m_pipelineField = m_log.addInteger(kPipelineKey);
+    private final int m_hasBotPoseField = m_log.addBoolean(kHasBotPoseKey);
+    private final int m_botPoseXField = m_log.addDouble(kBotPoseXKey);
+    private final int m_botPoseYField = m_log.addDouble(kBotPoseYKey);
+    //What VisionSubsystem made of the newest frame
+    private final int m_distanceField = m_log.addDouble("Limelight/Distance");
+
+    //Pose estimate
+    private final int m_poseXField = m_log.addDouble("Pose/X");
+    private final int m_poseYField = m_log.addDouble("Pose/Y");
+    private final int m_poseHeadingField = m_log.addDouble("Pose/Heading");
+
+    //Which command is using each subsystem
+    private final int m_chassisCommandField = m_log.addCommand("Commands/Chassis");
+    private final int m_armCommandNameField = m_log.addCommand("Commands/Arm");
+    private final int m_clawCommandField = m_log.addCommand("Commands/Claw");
+
+    private final DoubleChannel m_droppedEntry = Telemetry.getInstance().addDouble("Log frames dropped", 0, 1);
+
+    public MatchLogger(ChassisSubsystem chassisSubsystem, ArmSubsystem armSubsystem, ClawSubsystem clawSubsystem,
+        NavSubsystem navSubsystem, VisionSubsystem visionSubsystem, PoseEstimatorSubsystem poseEstimator){
+        m_chassisSubsystem = chassisSubsystem;
+        m_armSubsystem = armSubsystem;
+        m_clawSubsystem = clawSubsystem;
+        m_navSubsystem = navSubsystem;
+        m_visionSubsystem = visionSubsystem;
+        m_poseEstimator = poseEstimator;
+
+        for(int i = 0; i < kJoysticks.length; i++){
+            int port = kJoysticks[i];
+            for(int axis = 0; axis < kJoystickAxes; axis++){
+                m_axisFields[i][axis] = m_log.addDouble(joystickAxisKey(port, axis));
+            }
+            m_buttonFields[i] = m_log.addInteger(joystickButtonsKey(port));
+            m_povFields[i] = m_log.addInteger(joystickPOVKey(port));
+        }
+
+        for(int i = 0; i < ChassisIO.kMotorCount; i++){
+            m_positionFields[i] = m_log.addDouble(chassisKey(i, "Position"));
+            m_velocityFields[i] = m_log.addDouble(chassisKey(i, "Velocity"));
+            m_outputFields[i] = m_log.addDouble(chassisKey(i, "Output"));
+            m_currentFields[i] = m_log.addDouble(chassisKey(i, "Current"));
+        }
+    }
+
+    /**
+     * Logs which auton is picked (as an index into names). Call before {@link #start()}.
+     *
+     * @param names every option in the chooser, in order
+     * @param selected the index of the picked option, or -1
+     */
+    public void addAutonChooser(List<String> names, IntSupplier selected){
+        m_autonField = m_log.addInteger(kAutonKey, String.join(",", names));
+        m_selectedAuton = selected;
+    }
+
+    //Picks the USB stick if one is plugged in and starts the log thread. Call once from robotInit.
+    public void start(){
+        String directory;
+        if(RobotBase.isSimulation()){
+            directory = LogConstants.kSimDirectory;
+        }
+        else if(new File(LogConstants.kUsbDirectory).getParentFile().canWrite()){
+            directory = LogConstants.kUsbDirectory;
+        }
+        else{
+            directory = LogConstants.kRioDirectory;
+        }
+        new File(directory).mkdirs();
+        m_log.start(directory);
+    }
+
+    /**
+     * Remembers when this loop started. The frame gets logged at this time (not when record() runs at the end), since
+     * replay steps the clock to it before running the loop, and the timers and profiles in the loop have to see the
+     * same times they did here.
+     */
+    public void markLoopStart(){
+        m_loopStartTime = Timer.getFPGATimestamp();
+    }
+
+    //Called at the end of every loop by Robot, after the scheduler ran, so everything is from this loop
+    public void record(){
+        long start = LoopProfiler.now();
+
+        if(m_log.beginFrame(m_loopStartTime)){
+            m_log.set(m_loopField, m_loopCount++);
+            m_log.set(m_enabledField, DriverStation.isEnabled());
+            m_log.set(m_autonomousField, DriverStation.isAutonomous());
+            m_log.set(m_testField, DriverStation.isTest());
+            m_log.set(m_batteryField, RobotController.getBatteryVoltage());
+            if(m_autonField >= 0){
+                m_log.set(m_autonField, m_selectedAuton.getAsInt());
+            }
+
+            recordJoysticks();
+            recordChassis(m_chassisSubsystem.getInputs());
+            recordArm(m_armSubsystem.getInputs());
+
+            ClawIO.Inputs claw = m_clawSubsystem.getInputs();
+            m_log.set(m_clawField, claw.clawClosed);
+            m_log.set(m_wristField, claw.wristDown);
+
+            GyroSnapshot gyro = m_navSubsystem.getSnapshot();
+            m_log.set(m_yawField, gyro.getYaw());
+            m_log.set(m_pitchField, gyro.getPitch());
+            m_log.set(m_rollField, gyro.getRoll());
+            m_log.set(m_angleField, gyro.getAngle());
+            m_log.set(m_pitchRateField, gyro.getPitchRate());
+            m_log.set(m_gyroSampleCountField, gyro.getSampleCount());
+            m_log.set(m_initialPitchField, m_navSubsystem.getInitialPitchOffset());
+
+            recordVision(m_visionSubsystem.getInputs());
+            m_log.set(m_distanceField, m_visionSubsystem.getDistance());
+
+            m_log.set(m_poseXField, m_poseEstimator.getX());
+            m_log.set(m_poseYField, m_poseEstimator.getY());
+            m_log.set(m_poseHeadingField, m_poseEstimator.getHeading());
+
+            m_log.set(m_chassisCommandField, commandSection(m_chassisSubsystem));
+            m_log.set(m_armCommandNameField, commandSection(m_armSubsystem));
+            m_log.set(m_clawCommandField, commandSection(m_clawSubsystem));
+
+            m_log.endFrame();
+        }
+        m_droppedEntry.set(m_log.getDroppedFrames());
+
+        LoopProfiler.getInstance().record(m_profilerSection, start);
+    }
+
+    private void recordJoysticks(){
+        for(int i = 0; i < kJoysticks.length; i++){
+            int port = kJoysticks[i];
+            for(int axis = 0; axis < kJoystickAxes; axis++){
+                m_log.set(m_axisFields[i][axis], DriverStation.getStickAxis(port, axis));
+            }
+            m_log.set(m_buttonFields[i], DriverStation.getStickButtons(port));
+            m_log.set(m_povFields[i], DriverStation.getStickPOV(port, 0));
+        }
+    }
+
+    private void recordChassis(ChassisIO.Inputs inputs){
+        for(int i = 0; i < ChassisIO.kMotorCount; i++){
+            m_log.set(m_positionFields[i], inputs.positions[i]);
+            m_log.set(m_velocityFields[i], inputs.velocities[i]);
+            m_log.set(m_outputFields[i], inputs.outputs[i]);
+            m_log.set(m_currentFields[i], inputs.currents[i]);
+        }
+        m_log.set(m_chassisModeField, m_chassisSubsystem.getOutputMode().ordinal());
+        m_log.set(m_chassisLeftField, m_chassisSubsystem.getLeftCommand());
+        m_log.set(m_chassisRightField, m_chassisSubsystem.getRightCommand());
+    }
+
+    private void recordArm(ArmIO.Inputs inputs){
+        m_log.set(m_armPotField, inputs.potAngle);
+        m_log.set(m_armAppliedOutputField, inputs.appliedOutput);
+        m_log.set(m_armSetSpeedField, inputs.setSpeed);
+        m_log.set(m_armBusVoltageField, inputs.busVoltage);
+        m_log.set(m_armCurrentField, inputs.current);
+
+        m_log.set(m_armAngleField, m_armSubsystem.getPot());
+        m_log.set(m_armVelocityField, m_armSubsystem.getAngularVelocity());
+        m_log.set(m_armGoalField, m_armSubsystem.getGoal());
+        m_log.set(m_armModeField, m_armSubsystem.getOutputMode().ordinal());
+        m_log.set(m_armCommandField, m_armSubsystem.getCommand());
+    }
+
+    private void recordVision(VisionIO.Inputs inputs){
+        m_log.set(m_frameCountField, inputs.frameCount);
+        m_log.set(m_frameTimeField, inputs.frameTime);
+        m_log.set(m_txField, inputs.tx);
+        m_log.set(m_tyField, inputs.ty);
+        m_log.set(m_tvField, inputs.tv);
+        m_log.set(m_tlField, inputs.pipelineLatencyMs);
+        m_log.set(m_clField, inputs.captureLatencyMs);
+        m_log.set(m_pipelineField, inputs.pipeline);
+        m_log.set(m_hasBotPoseField, inputs.hasBotPose);
+        m_log.set(m_botPoseXField, inputs.botPoseX);
+        m_log.set(m_botPoseYField, inputs.botPoseY);
+    }
+
+    //The profiler already gives every command a number, so the log stores that and the log thread turns it into a name
+    private static int commandSection(Subsystem subsystem){
+        Command command = CommandScheduler.getInstance().requiring(subsystem);
+        return (command == null) ? -1 : LoopProfiler.getInstance().getCommandSection(command);
+    }
+}
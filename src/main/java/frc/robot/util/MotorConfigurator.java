@@ -0,0 +1,149 @@
+package frc.robot.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import com.revrobotics.CANSparkMax;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * Applies {@link SparkMaxConfig}s, but only to controllers whose configuration changed since the last time
+ * it was burned.
+ *
+ * <p>The hash of every config we burn is saved in the deploy directory on the roboRIO. On the next boot,
+ * controllers whose hash matches are skipped entirely: no restoreFactoryDefaults(), no setters, no burnFlash().
+ * In case one was swapped or factory reset, the controller also has to read back the idle mode, ramp rate and
+ * follower mode we burned (a factory reset puts the ramp rate back to 0 and stops following).
+ *
+ * <p>The chassis and arm configure at the same time on different startup threads. Only the hash table and the counts
+ * are locked, the CAN traffic for different controllers runs at the same time.
+ */
+public final class MotorConfigurator {
+    private static final String kFileName = "motor-config-hashes.properties";
+    private static final String kApplyTimeKey = "applyMillis";
+
+    //Used until we've timed a real apply
+    private static final double kDefaultApplyMillis = 500;
+    //The controller stores the ramp rate in its own units, so it doesn't read back exactly
+    private static final double kRampRateTolerance = 0.01;
+
+    private final File m_file = new File(Filesystem.getDeployDirectory(), kFileName);
+    private final Properties m_hashes = new Properties();
+    //There's no file to save to in simulation (it would end up in src/main/deploy), so always apply
+    private final boolean m_cacheEnabled = RobotBase.isReal();
+
+    private int m_appliedCount = 0;
+    private int m_skippedCount = 0;
+    private double m_applyMillisTotal = 0;
+
+    public MotorConfigurator(){
+        if(m_cacheEnabled && m_file.exists()){
+            try (InputStream in = new FileInputStream(m_file)) {
+                m_hashes.load(in);
+            }
+            catch (IOException e) {
+                DriverStation.reportWarning("Couldn't read " + kFileName + ", re-applying every motor config: " + e.getMessage(), false);
+                m_hashes.clear();
+            }
+        }
+    }
+
+    /**
+     * Makes sure a controller has the given config, burning it only if it doesn't already.
+     *
+     * @return true if the controller was re-configured, false if it was skipped
+     */
+    public boolean apply(CANSparkMax motor, SparkMaxConfig config){
+        String key = "can." + motor.getDeviceId();
+        String hash = Long.toHexString(config.getHash());
+
+        boolean hashMatches;
+        synchronized(this){
+            hashMatches = m_cacheEnabled && hash.equals(m_hashes.getProperty(key));
+        }
+        if(hashMatches && stillHas(motor, config)){
+            synchronized(this){
+                m_skippedCount++;
+            }
+            if(motor instanceof TrackedSparkMax){
+                //The controller already has these, so the first setIdleMode(kCoast) etc. doesn't need to go out either
+                ((TrackedSparkMax) motor).assumeApplied(config);
+            }
+            return false;
+        }
+
+        double start = Timer.getFPGATimestamp();
+        motor.restoreFactoryDefaults();
+        config.apply(motor);
+        motor.burnFlash();
+        double applyMillis = (Timer.getFPGATimestamp() - start) * 1000;
+
+        synchronized(this){
+            m_applyMillisTotal += applyMillis;
+            m_appliedCount++;
+            m_hashes.setProperty(key, hash);
+        }
+        return true;
+    }
+
+    //Reads back settings a factory reset changes, so a swapped or reset controller doesn't get skipped just because
+    //its CAN id matches
+    private static boolean stillHas(CANSparkMax motor, SparkMaxConfig config){
+        return (motor.getIdleMode() == config.getIdleMode())
+            && (Math.abs(motor.getOpenLoopRampRate() - config.getOpenLoopRampRate()) <= kRampRateTolerance)
+            && (motor.isFollower() == (config.getLeaderId() >= 0));
+    }
+
+    public synchronized int getAppliedCount(){
+        return m_appliedCount;
+    }
+
+    public synchronized int getSkippedCount(){
+        return m_skippedCount;
+    }
+
+    //How long re-applying one controller takes, measured on an earlier boot if nothing needed applying this time
+    public synchronized double getApplyMillisPerMotor(){
+        if(m_appliedCount > 0){
+            return m_applyMillisTotal / m_appliedCount;
+        }
+        try {
+            return Double.parseDouble(m_hashes.getProperty(kApplyTimeKey, Double.toString(kDefaultApplyMillis)));
+        }
+        catch (NumberFormatException e) {
+            return kDefaultApplyMillis;
+        }
+    }
+
+    //Roughly how much startup time skipping controllers saved
+    public synchronized double getSavedMillis(){
+        return m_skippedCount * getApplyMillisPerMotor();
+    }
+
+    //Writes the hashes back so the next boot can skip these controllers. Call once every controller is configured.
+    public synchronized void save(){
+        DriverStation.reportWarning("Motor configs: " + m_appliedCount + " applied, " + m_skippedCount + " already up to date (saved ~"
+            + Math.round(getSavedMillis()) + "ms)", false);
+
+        if(!m_cacheEnabled || (m_appliedCount == 0)){
+            return;
+        }
+
+        m_hashes.setProperty(kApplyTimeKey, Double.toString(getApplyMillisPerMotor()));
+        try (OutputStream out = new FileOutputStream(m_file)) {
+            m_hashes.store(out, "Written by MotorConfigurator. Delete this file to force every motor controller to be re-flashed.");
+        }
+        catch (IOException e) {
+            DriverStation.reportWarning("Couldn't save " + kFileName + ": " + e.getMessage(), false);
+        }
+    }
+}
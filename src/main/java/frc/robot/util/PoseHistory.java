@@ -0,0 +1,113 @@
+package frc.robot.util;
+
+/**
+ * The last few seconds of robot heading and driven distance, so a vision frame can be compared against where the
+ * robot was when the picture was taken.
+ *
+ * <p>Everything lives in plain double arrays that get overwritten in a circle, so adding a sample or looking one up
+ * never allocates. Samples have to be added in time order. This isn't thread safe, it's only used from the robot loop.
+ */
+public final class PoseHistory {
+    private final double[] m_times;
+    private final double[] m_yaws;
+    private final double[] m_distances;
+
+    //Where the next sample goes, and how many of the slots are filled
+    private int m_head = 0;
+    private int m_size = 0;
+
+    public PoseHistory(int capacity){
+        m_times = new double[capacity];
+        m_yaws = new double[capacity];
+        m_distances = new double[capacity];
+    }
+
+    /**
+     * @param time FPGA time in seconds
+     * @param yaw continuous heading in degrees (NavX getAngle(), so it doesn't jump at +-180)
+     * @param distance average driven distance
+     */
+    public void add(double time, double yaw, double distance){
+        //Out of order samples would break the search, so drop them
+        if((m_size > 0) && (time <= getLatestTime())){
+            return;
+        }
+
+        m_times[m_head] = time;
+        m_yaws[m_head] = yaw;
+        m_distances[m_head] = distance;
+
+        m_head = (m_head + 1) % m_times.length;
+        if(m_size < m_times.length){
+            m_size++;
+        }
+    }
+
+    public void clear(){
+        m_head = 0;
+        m_size = 0;
+    }
+
+    public int size(){
+        return m_size;
+    }
+
+    public double getLatestTime(){
+        return m_times[slot(m_size - 1)];
+    }
+
+    public double getLatestYaw(){
+        return m_yaws[slot(m_size - 1)];
+    }
+
+    public double getLatestDistance(){
+        return m_distances[slot(m_size - 1)];
+    }
+
+    //Heading at the given time, interpolated between the two samples around it. NaN if there are no samples yet.
+    public double getYawAt(double time){
+        return sample(m_yaws, time);
+    }
+
+    //Driven distance at the given time, interpolated the same way
+    public double getDistanceAt(double time){
+        return sample(m_distances, time);
+    }
+
+    //Array index of the i-th oldest sample
+    private int slot(int i){
+        return (m_head - m_size + i + m_times.length) % m_times.length;
+    }
+
+    private double sample(double[] values, double time){
+        if(m_size == 0){
+            return Double.NaN;
+        }
+
+        //Times older or newer than what we have just use the closest sample
+        int low = 0;
+        int high = m_size - 1;
+        if(time <= m_times[slot(low)]){
+            return values[slot(low)];
+        }
+        if(time >= m_times[slot(high)]){
+            return values[slot(high)];
+        }
+
+        //Binary search for the two samples on either side of the time
+        while((high - low) > 1){
+            int mid = (low + high) >>> 1;
+            if(m_times[slot(mid)] <= time){
+                low = mid;
+            }
+            else{
+                high = mid;
+            }
+        }
+
+        int before = slot(low);
+        int after = slot(high);
+        double fraction = (time - m_times[before]) / (m_times[after] - m_times[before]);
+        return values[before] + ((values[after] - values[before]) * fraction);
+    }
+}
@@ -0,0 +1,130 @@
+package frc.robot.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMax.ExternalFollower;
+import com.revrobotics.CANSparkMax.IdleMode;
+import com.revrobotics.SparkMaxPIDController;
+
+/**
+ * The settings we want burned into one Spark Max. Describing them as data (instead of a list of setter calls)
+ * lets {@link MotorConfigurator} tell whether a controller already has them and skip re-flashing it.
+ */
+public final class SparkMaxConfig {
+    //Bump this whenever apply() starts setting something new so every controller gets re-flashed once
+    private static final int kFormatVersion = 3;
+
+    private final double m_openLoopRampRate;
+    private final int m_smartCurrentLimit;
+    private final IdleMode m_idleMode;
+    private final boolean m_inverted;
+
+    //Velocity PID gains for slot 0 (duty cycle per RPM of error). All 0 for controllers that never run closed loop.
+    private final double m_velocityP;
+    private final double m_velocityI;
+    private final double m_velocityD;
+
+    //CAN id of the controller this one follows, or -1 if it gets its own commands
+    private final int m_leaderId;
+
+    public SparkMaxConfig(double openLoopRampRate, int smartCurrentLimit, IdleMode idleMode, boolean inverted){
+        this(openLoopRampRate, smartCurrentLimit, idleMode, inverted, 0, 0, 0);
+    }
+
+    public SparkMaxConfig(double openLoopRampRate, int smartCurrentLimit, IdleMode idleMode, boolean inverted,
+            double velocityP, double velocityI, double velocityD){
+        this(openLoopRampRate, smartCurrentLimit, idleMode, inverted, velocityP, velocityI, velocityD, -1);
+    }
+
+    private SparkMaxConfig(double openLoopRampRate, int smartCurrentLimit, IdleMode idleMode, boolean inverted,
+            double velocityP, double velocityI, double velocityD, int leaderId){
+        m_openLoopRampRate = openLoopRampRate;
+        m_smartCurrentLimit = smartCurrentLimit;
+        m_idleMode = idleMode;
+        m_inverted = inverted;
+        m_velocityP = velocityP;
+        m_velocityI = velocityI;
+        m_velocityD = velocityD;
+        m_leaderId = leaderId;
+    }
+
+    /**
+     * The same settings, but the controller copies whatever the leader outputs instead of getting its own set() calls.
+     * Following is saved in the controller's flash along with everything else.
+     */
+    public SparkMaxConfig following(int leaderId){
+        return new SparkMaxConfig(m_openLoopRampRate, m_smartCurrentLimit, m_idleMode, m_inverted, m_velocityP, m_velocityI, m_velocityD, leaderId);
+    }
+
+    public int getLeaderId(){
+        return m_leaderId;
+    }
+
+    public double getOpenLoopRampRate(){
+        return m_openLoopRampRate;
+    }
+
+    public int getSmartCurrentLimit(){
+        return m_smartCurrentLimit;
+    }
+
+    public IdleMode getIdleMode(){
+        return m_idleMode;
+    }
+
+    public boolean isInverted(){
+        return m_inverted;
+    }
+
+    public double getVelocityP(){
+        return m_velocityP;
+    }
+
+    public double getVelocityI(){
+        return m_velocityI;
+    }
+
+    public double getVelocityD(){
+        return m_velocityD;
+    }
+
+    //Sends every setting to the controller. Doesn't restore defaults or burn flash, MotorConfigurator does that.
+    public void apply(CANSparkMax motor){
+        motor.setOpenLoopRampRate(m_openLoopRampRate);
+        motor.setSmartCurrentLimit(m_smartCurrentLimit);
+        motor.setIdleMode(m_idleMode);
+        motor.setInverted(m_inverted);
+
+        //Feedforward comes from our own kS/kV (sent as arbitrary feedforward volts), so the controller's kFF stays 0
+        SparkMaxPIDController pid = motor.getPIDController();
+        pid.setP(m_velocityP, 0);
+        pid.setI(m_velocityI, 0);
+        pid.setD(m_velocityD, 0);
+        pid.setFF(0, 0);
+
+        if(m_leaderId >= 0){
+            //Followers are in the same gearbox as their leader, so they spin the same way it does
+            motor.follow(ExternalFollower.kFollowerSparkMax, m_leaderId, false);
+        }
+    }
+
+    //A hash that only changes when one of the settings changes (and is the same across reboots, unlike hashCode())
+    public long getHash(){
+        CRC32 crc = new CRC32();
+        crc.update(toString().getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    @Override
+    public String toString(){
+        return "v" + kFormatVersion
+            + " ramp=" + m_openLoopRampRate
+            + " currentLimit=" + m_smartCurrentLimit
+            + " idle=" + m_idleMode.name()
+            + " inverted=" + m_inverted
+            + " velocityPID=" + m_velocityP + "/" + m_velocityI + "/" + m_velocityD
+            + " leader=" + m_leaderId;
+    }
+}
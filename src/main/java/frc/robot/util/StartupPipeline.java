@@ -0,0 +1,77 @@
+package frc.robot.util;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * Runs the slow parts of robot startup (motor configuration, cameras, gyro calibration) on background threads
+ * so robotInit() can return right away.
+ *
+ * <p>Every stage gets its own future. Anything that needs a stage to be done (like autonomous needing the pitch
+ * offset) should wait on that future, or on {@link #isReady()}, instead of sleeping.
+ */
+public final class StartupPipeline {
+    private static final int kThreadCount = 3;
+
+    private final ExecutorService m_executor = Executors.newFixedThreadPool(kThreadCount, runnable -> {
+        Thread thread = new Thread(runnable, "Startup");
+        //Don't keep the JVM alive just because a stage is stuck
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final double m_startTime = Timer.getFPGATimestamp();
+    private final ArrayList<CompletableFuture<?>> m_stages = new ArrayList<>();
+    private CompletableFuture<Void> m_allReady;
+
+    //Starts a stage that doesn't produce anything
+    public CompletableFuture<Void> runStage(String name, Runnable stage){
+        return supplyStage(name, () -> {
+            stage.run();
+            return null;
+        });
+    }
+
+    //Starts a stage that produces a value (like the pitch offset)
+    public <T> CompletableFuture<T> supplyStage(String name, Supplier<T> stage){
+        if(m_allReady != null){
+            throw new IllegalStateException("Startup stage \"" + name + "\" was added after finish()");
+        }
+
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(stage, m_executor);
+        future.whenComplete((result, error) -> {
+            double elapsedMs = (Timer.getFPGATimestamp() - m_startTime) * 1000;
+            if(error != null){
+                DriverStation.reportError("Startup stage \"" + name + "\" failed: " + error.getMessage(), error.getStackTrace());
+            }
+            else{
+                DriverStation.reportWarning("Startup stage \"" + name + "\" ready " + Math.round(elapsedMs) + "ms after robotInit", false);
+            }
+        });
+        m_stages.add(future);
+        return future;
+    }
+
+    //Call once after every stage has been added. Nothing can be added after this.
+    public CompletableFuture<Void> finish(){
+        m_allReady = CompletableFuture.allOf(m_stages.toArray(new CompletableFuture<?>[0]));
+        //The threads aren't needed once everything is done
+        m_allReady.whenComplete((result, error) -> m_executor.shutdown());
+        return m_allReady;
+    }
+
+    //True once every stage has finished (even if one of them failed, so a bad camera can't block autonomous forever)
+    public boolean isReady(){
+        return (m_allReady != null) && m_allReady.isDone();
+    }
+
+    public CompletableFuture<Void> getAllReady(){
+        return m_allReady;
+    }
+}
@@ -0,0 +1,101 @@
+package frc.robot.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * Keeps track of which status frame periods every Spark Max should use in each {@link StatusFrameProfile}, and
+ * switches all of them at once. Subsystems register their controllers with the periods that match what they actually
+ * read (like ArmSubsystem.configureMotors() does with the MotorConfigurator).
+ *
+ * <p>Status frame periods aren't saved in flash, so they have to be sent every boot. TrackedSparkMax drops any
+ * that are already set, so switching back and forth only sends what changed. A controller that reboots mid-match
+ * goes back to REV's defaults, so {@link #resendAfterResets()} puts the current profile back on it.
+ */
+public final class StatusFrameManager {
+    //An 8 byte extended CAN frame is about 130 bits once bit stuffing is counted, and the bus runs at 1Mbit/s
+    private static final double kBitsPerFrame = 130;
+    private static final double kBusBitsPerSecond = 1000000;
+
+    private final List<TrackedSparkMax> m_motors = new ArrayList<>();
+    private final List<StatusFramePeriods> m_matchPeriods = new ArrayList<>();
+    private final List<StatusFramePeriods> m_debugPeriods = new ArrayList<>();
+
+    //set()/setReference() frames we send every second, which count towards bus load too
+    private double m_commandFramesPerSecond = 0;
+
+    private StatusFrameProfile m_profile = null;
+
+    public synchronized void register(TrackedSparkMax motor, StatusFramePeriods match, StatusFramePeriods debug){
+        m_motors.add(motor);
+        m_matchPeriods.add(match);
+        m_debugPeriods.add(debug);
+    }
+
+    public synchronized void addCommandFrames(double framesPerSecond){
+        m_commandFramesPerSecond += framesPerSecond;
+    }
+
+    private List<StatusFramePeriods> getPeriods(StatusFrameProfile profile){
+        return (profile == StatusFrameProfile.MATCH) ? m_matchPeriods : m_debugPeriods;
+    }
+
+    //Sends the profile's periods to every registered controller
+    public synchronized void apply(StatusFrameProfile profile){
+        if(profile == m_profile){
+            return;
+        }
+
+        List<StatusFramePeriods> periods = getPeriods(profile);
+        for(int i = 0; i < m_motors.size(); i++){
+            //Every controller has its reset flag set from powering on, which isn't worth a warning
+            if(m_profile == null){
+                m_motors.get(i).checkForReset();
+            }
+            m_motors.get(i).setStatusFramePeriods(periods.get(i));
+        }
+        //The estimated bus use shows up on the dashboard (Robot publishes getUtilization())
+        m_profile = profile;
+    }
+
+    //Re-sends the current profile to every controller that rebooted since the last call (call it every loop)
+    public synchronized void resendAfterResets(){
+        if(m_profile == null){
+            return;
+        }
+
+        List<StatusFramePeriods> periods = getPeriods(m_profile);
+        for(int i = 0; i < m_motors.size(); i++){
+            TrackedSparkMax motor = m_motors.get(i);
+            if(motor.checkForReset()){
+                motor.setStatusFramePeriods(periods.get(i));
+                DriverStation.reportWarning("Spark Max " + motor.getDeviceId() + " reset, re-sent its status frame periods", false);
+            }
+        }
+    }
+
+    public synchronized StatusFrameProfile getProfile(){
+        return m_profile;
+    }
+
+    /**
+     * Rough fraction of the CAN bus our Spark Maxes use (0 to 1). Only counts the controllers registered here, so
+     * the PDP and anything else on the bus come on top of this.
+     *
+     * @param profile the profile to estimate, or null for every controller running REV's defaults
+     */
+    public synchronized double estimateUtilization(StatusFrameProfile profile){
+        double framesPerSecond = m_commandFramesPerSecond;
+        for(int i = 0; i < m_motors.size(); i++){
+            StatusFramePeriods periods = (profile == null) ? StatusFramePeriods.kRevDefaults : getPeriods(profile).get(i);
+            framesPerSecond += periods.getFramesPerSecond();
+        }
+        return (framesPerSecond * kBitsPerFrame) / kBusBitsPerSecond;
+    }
+
+    public synchronized double getUtilization(){
+        return estimateUtilization(m_profile);
+    }
+}
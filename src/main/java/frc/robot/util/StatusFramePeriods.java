@@ -0,0 +1,52 @@
+package frc.robot.util;
+
+import com.revrobotics.CANSparkMaxLowLevel.PeriodicFrame;
+
+/**
+ * How often (ms) a Spark Max sends each of its periodic status frames. What's in each frame:
+ * <ul>
+ * <li>Status 0: applied output, faults, and what followers copy from their leader</li>
+ * <li>Status 1: velocity, temperature, bus voltage, output current</li>
+ * <li>Status 2: position</li>
+ * <li>Status 3: the Spark Max's own analog input</li>
+ * <li>Status 4: alternate encoder</li>
+ * </ul>
+ * Frames we never read can be slowed way down, which frees up the bus for the ones we do.
+ */
+public final class StatusFramePeriods {
+    //What a Spark Max does out of the box
+    public static final StatusFramePeriods kRevDefaults = new StatusFramePeriods(10, 20, 20, 50, 20);
+
+    //For frames nothing reads. The controller still sends them, just rarely.
+    public static final int kUnused = 500;
+
+    private static final PeriodicFrame[] kFrames = {
+        PeriodicFrame.kStatus0, PeriodicFrame.kStatus1, PeriodicFrame.kStatus2, PeriodicFrame.kStatus3, PeriodicFrame.kStatus4};
+
+    private final int[] m_periods;
+
+    public StatusFramePeriods(int status0, int status1, int status2, int status3, int status4){
+        m_periods = new int[] {status0, status1, status2, status3, status4};
+    }
+
+    public static int getFrameCount(){
+        return kFrames.length;
+    }
+
+    public static PeriodicFrame getFrame(int index){
+        return kFrames[index];
+    }
+
+    public int getPeriodMs(int index){
+        return m_periods[index];
+    }
+
+    //Total frames per second this device sends with these periods
+    public double getFramesPerSecond(){
+        double total = 0;
+        for(int period : m_periods){
+            total += 1000.0 / period;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,9 @@
+package frc.robot.util;
+
+//Which set of status frame periods the Spark Maxes should use
+public enum StatusFrameProfile {
+    //Only the frames the code reads, as fast as it needs them
+    MATCH,
+    //REV's defaults, so everything shows up in the REV Hardware Client and on the dashboard
+    DEBUG
+}
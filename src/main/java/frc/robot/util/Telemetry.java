@@ -0,0 +1,212 @@
+package frc.robot.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+//NetworkTables libraries
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.Timer;
+
+//Constants
+import frc.robot.Constants.TelemetryConstants;
+
+/**
+ * Central dashboard publisher that replaces calling SmartDashboard.putNumber() every loop.
+ *
+ * <p>Subsystems and commands register a channel once (usually in their constructor) and call set() on it
+ * as often as they want. Setting a channel only stores the value. {@link #periodic()} is called once per
+ * loop from Robot and, at most once every flush period, pushes every channel whose value changed by more
+ * than its deadband (and whose own rate limit has passed) to NetworkTables in one batch.
+ *
+ * <p>Everything is still published under the "SmartDashboard" table, so the keys on Shuffleboard stay the same.
+ */
+public final class Telemetry {
+    private static final Telemetry kInstance = new Telemetry();
+
+    private final NetworkTable m_table = NetworkTableInstance.getDefault().getTable("SmartDashboard");
+
+    //Plain lists so periodic() can loop over them with an index (no iterators every loop)
+    private final ArrayList<DoubleChannel> m_doubleChannels = new ArrayList<>();
+    private final ArrayList<BooleanChannel> m_booleanChannels = new ArrayList<>();
+    private final HashMap<String, DoubleChannel> m_doublesByName = new HashMap<>();
+    private final HashMap<String, BooleanChannel> m_booleansByName = new HashMap<>();
+
+    private double m_flushPeriod = TelemetryConstants.kFlushPeriodSeconds;
+    private double m_lastFlushTime = Double.NEGATIVE_INFINITY;
+
+    //How many values actually went out vs. how many were skipped because they didn't change enough
+    private long m_sentCount = 0;
+    private long m_suppressedCount = 0;
+
+    private Telemetry(){}
+
+    public static Telemetry getInstance(){
+        return kInstance;
+    }
+
+    //Registers a number with the default deadband and rate limit
+    public DoubleChannel addDouble(String name){
+        return addDouble(name, TelemetryConstants.kDefaultDeadband, TelemetryConstants.kDefaultMinPeriodSeconds);
+    }
+
+    /**
+     * Registers a number on the dashboard. Registering the same name twice returns the same channel, so commands
+     * that get constructed more than once (like AutoBalance inside autons) can just register in their constructor.
+     *
+     * @param name the SmartDashboard key
+     * @param deadband the value has to change by more than this to be re-published
+     * @param minPeriodSeconds the channel won't be published more often than this
+     */
+    public DoubleChannel addDouble(String name, double deadband, double minPeriodSeconds){
+        DoubleChannel channel = m_doublesByName.get(name);
+        if(channel == null){
+            channel = new DoubleChannel(m_table.getDoubleTopic(name).publish(), deadband, minPeriodSeconds);
+            m_doublesByName.put(name, channel);
+            m_doubleChannels.add(channel);
+        }
+        return channel;
+    }
+
+    public BooleanChannel addBoolean(String name){
+        return addBoolean(name, TelemetryConstants.kDefaultMinPeriodSeconds);
+    }
+
+    public BooleanChannel addBoolean(String name, double minPeriodSeconds){
+        BooleanChannel channel = m_booleansByName.get(name);
+        if(channel == null){
+            channel = new BooleanChannel(m_table.getBooleanTopic(name).publish(), minPeriodSeconds);
+            m_booleansByName.put(name, channel);
+            m_booleanChannels.add(channel);
+        }
+        return channel;
+    }
+
+    //Changes how often the batch is sent out (in seconds). Setting it to 0 flushes every loop.
+    public void setFlushPeriod(double seconds){
+        m_flushPeriod = seconds;
+    }
+
+    public double getFlushPeriod(){
+        return m_flushPeriod;
+    }
+
+    public long getSentCount(){
+        return m_sentCount;
+    }
+
+    public long getSuppressedCount(){
+        return m_suppressedCount;
+    }
+
+    //Called once per loop by Robot after the scheduler has run
+    public void periodic(){
+        double now = Timer.getFPGATimestamp();
+        if(now - m_lastFlushTime < m_flushPeriod){
+            return;
+        }
+        m_lastFlushTime = now;
+
+        for(int i = 0; i < m_doubleChannels.size(); i++){
+            if(m_doubleChannels.get(i).flush(now)){
+                m_sentCount++;
+            }
+            else{
+                m_suppressedCount++;
+            }
+        }
+        for(int i = 0; i < m_booleanChannels.size(); i++){
+            if(m_booleanChannels.get(i).flush(now)){
+                m_sentCount++;
+            }
+            else{
+                m_suppressedCount++;
+            }
+        }
+    }
+
+    public static final class DoubleChannel {
+        private final DoublePublisher m_publisher;
+        private final double m_deadband;
+        private final double m_minPeriod;
+
+        private double m_value = 0;
+        private double m_lastSentValue = 0;
+        private double m_lastSentTime = Double.NEGATIVE_INFINITY;
+        private boolean m_hasSent = false;
+
+        private DoubleChannel(DoublePublisher publisher, double deadband, double minPeriod){
+            m_publisher = publisher;
+            m_deadband = deadband;
+            m_minPeriod = minPeriod;
+        }
+
+        //Only stores the value, nothing is sent until the next flush
+        public void set(double value){
+            m_value = value;
+        }
+
+        public double get(){
+            return m_value;
+        }
+
+        private boolean flush(double now){
+            if(now - m_lastSentTime < m_minPeriod){
+                return false;
+            }
+            if(m_hasSent && (Math.abs(m_value - m_lastSentValue) <= m_deadband)){
+                return false;
+            }
+            //NaN never compares, so make sure it doesn't get sent over and over
+            if(m_hasSent && Double.isNaN(m_value) && Double.isNaN(m_lastSentValue)){
+                return false;
+            }
+
+            m_publisher.set(m_value);
+            m_lastSentValue = m_value;
+            m_lastSentTime = now;
+            m_hasSent = true;
+            return true;
+        }
+    }
+
+    public static final class BooleanChannel {
+        private final BooleanPublisher m_publisher;
+        private final double m_minPeriod;
+
+        private boolean m_value = false;
+        private boolean m_lastSentValue = false;
+        private double m_lastSentTime = Double.NEGATIVE_INFINITY;
+        private boolean m_hasSent = false;
+
+        private BooleanChannel(BooleanPublisher publisher, double minPeriod){
+            m_publisher = publisher;
+            m_minPeriod = minPeriod;
+        }
+
+        public void set(boolean value){
+            m_value = value;
+        }
+
+        public boolean get(){
+            return m_value;
+        }
+
+        private boolean flush(double now){
+            if(now - m_lastSentTime < m_minPeriod){
+                return false;
+            }
+            if(m_hasSent && (m_value == m_lastSentValue)){
+                return false;
+            }
+
+            m_publisher.set(m_value);
+            m_lastSentValue = m_value;
+            m_lastSentTime = now;
+            m_hasSent = true;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package frc.robot.util;
+
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMax.FaultID;
+import com.revrobotics.REVLibError;
+
+/**
+ * A CANSparkMax that remembers the last idle mode, inversion, current limit, ramp rate and status frame periods it
+ * sent, and doesn't send the same setting again.
+ *
+ * <p>Commands call setBrakeMode()/setCoastMode() in initialize(), and the arm flips idle mode on every button press,
+ * so most of those CAN config frames were asking the controller for what it already had. Every setting that goes
+ * through here counts as either sent or suppressed so the savings show up on the dashboard.
+ */
+public class TrackedSparkMax extends CANSparkMax {
+    //Shared by every controller so we get one number for the whole bus
+    private static long s_sentFrames = 0;
+    private static long s_suppressedFrames = 0;
+
+    //null/NaN/-1 means we don't know what the controller has, so the next set always goes out
+    private IdleMode m_idleMode = null;
+    private Boolean m_inverted = null;
+    private int m_smartCurrentLimit = -1;
+    private double m_openLoopRampRate = Double.NaN;
+    //Status frame periods we've set, by StatusFramePeriods index (-1 = don't know)
+    private final int[] m_framePeriods = new int[StatusFramePeriods.getFrameCount()];
+
+    public TrackedSparkMax(int deviceId, MotorType type){
+        super(deviceId, type);
+        forgetFramePeriods();
+    }
+
+    public static synchronized long getSentFrames(){
+        return s_sentFrames;
+    }
+
+    public static synchronized long getSuppressedFrames(){
+        return s_suppressedFrames;
+    }
+
+    private static synchronized void count(boolean sent){
+        if(sent){
+            s_sentFrames++;
+        }
+        else{
+            s_suppressedFrames++;
+        }
+    }
+
+    //Used when MotorConfigurator skips a controller because its flash already has this config
+    public synchronized void assumeApplied(SparkMaxConfig config){
+        m_idleMode = config.getIdleMode();
+        m_inverted = config.isInverted();
+        m_smartCurrentLimit = config.getSmartCurrentLimit();
+        m_openLoopRampRate = config.getOpenLoopRampRate();
+    }
+
+    //After a factory reset we don't know anything about the controller anymore
+    private void forget(){
+        m_idleMode = null;
+        m_inverted = null;
+        m_smartCurrentLimit = -1;
+        m_openLoopRampRate = Double.NaN;
+        forgetFramePeriods();
+    }
+
+    private void forgetFramePeriods(){
+        for(int i = 0; i < m_framePeriods.length; i++){
+            m_framePeriods[i] = -1;
+        }
+    }
+
+    /**
+     * True (once) if the controller rebooted since the last call, like after a brownout. It comes back up on REV's
+     * default status frame periods and whatever is in its flash, so everything we remembered sending is forgotten
+     * and the next set goes out again. The sticky fault is read from status 0, so this doesn't wait on the bus.
+     */
+    public synchronized boolean checkForReset(){
+        if(!getStickyFault(FaultID.kHasReset)){
+            return false;
+        }
+        forget();
+        clearFaults();
+        return true;
+    }
+
+    //Sets every status frame period (only the ones that are different get sent)
+    public synchronized void setStatusFramePeriods(StatusFramePeriods periods){
+        for(int i = 0; i < m_framePeriods.length; i++){
+            int period = periods.getPeriodMs(i);
+            if(period == m_framePeriods[i]){
+                count(false);
+                continue;
+            }
+            count(true);
+            REVLibError error = setPeriodicFramePeriod(StatusFramePeriods.getFrame(i), period);
+            m_framePeriods[i] = (error == REVLibError.kOk) ? period : -1;
+        }
+    }
+
+    @Override
+    public synchronized REVLibError restoreFactoryDefaults(){
+        forget();
+        return super.restoreFactoryDefaults();
+    }
+
+    @Override
+    public synchronized REVLibError restoreFactoryDefaults(boolean persist){
+        forget();
+        return super.restoreFactoryDefaults(persist);
+    }
+
+    @Override
+    public synchronized REVLibError setIdleMode(IdleMode mode){
+        if(mode == m_idleMode){
+            count(false);
+            return REVLibError.kOk;
+        }
+        count(true);
+        REVLibError error = super.setIdleMode(mode);
+        //Only remember it if the controller actually took it, so a failed frame gets retried next time
+        m_idleMode = (error == REVLibError.kOk) ? mode : null;
+        return error;
+    }
+
+    @Override
+    public synchronized void setInverted(boolean isInverted){
+        if((m_inverted != null) && (m_inverted == isInverted)){
+            count(false);
+            return;
+        }
+        count(true);
+        super.setInverted(isInverted);
+        m_inverted = isInverted;
+    }
+
+    @Override
+    public synchronized REVLibError setSmartCurrentLimit(int limit){
+        if(limit == m_smartCurrentLimit){
+            count(false);
+            return REVLibError.kOk;
+        }
+        count(true);
+        REVLibError error = super.setSmartCurrentLimit(limit);
+        m_smartCurrentLimit = (error == REVLibError.kOk) ? limit : -1;
+        return error;
+    }
+
+    @Override
+    public synchronized REVLibError setOpenLoopRampRate(double rate){
+        if(rate == m_openLoopRampRate){
+            count(false);
+            return REVLibError.kOk;
+        }
+        count(true);
+        REVLibError error = super.setOpenLoopRampRate(rate);
+        m_openLoopRampRate = (error == REVLibError.kOk) ? rate : Double.NaN;
+        return error;
+    }
+}
@@ -0,0 +1,102 @@
+package frc.robot.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+
+/**
+ * Saves and loads trajectories in a small binary format, so the robot can read paths out of the deploy directory
+ * instead of generating them.
+ *
+ * <p>Layout (big endian): magic, format version, the hash of whatever the path was generated from, the number of
+ * states, then 7 doubles per state (time, velocity, acceleration, x, y, heading radians, curvature). If the hash
+ * doesn't match what the caller expects, the file is from an older version of the path and gets ignored.
+ */
+public final class TrajectoryFile {
+    private static final int kMagic = 0x5452414A; //"TRAJ"
+    private static final int kFormatVersion = 1;
+    private static final int kHeaderBytes = 4 + 4 + 8 + 4;
+    private static final int kStateBytes = 7 * 8;
+
+    private TrajectoryFile(){}
+
+    public static void write(File file, Trajectory trajectory, long sourceHash) throws IOException {
+        List<Trajectory.State> states = trajectory.getStates();
+        ByteBuffer buffer = ByteBuffer.allocate(kHeaderBytes + (states.size() * kStateBytes));
+        buffer.putInt(kMagic);
+        buffer.putInt(kFormatVersion);
+        buffer.putLong(sourceHash);
+        buffer.putInt(states.size());
+        for(Trajectory.State state : states){
+            buffer.putDouble(state.timeSeconds);
+            buffer.putDouble(state.velocityMetersPerSecond);
+            buffer.putDouble(state.accelerationMetersPerSecondSq);
+            buffer.putDouble(state.poseMeters.getX());
+            buffer.putDouble(state.poseMeters.getY());
+            buffer.putDouble(state.poseMeters.getRotation().getRadians());
+            buffer.putDouble(state.curvatureRadPerMeter);
+        }
+        buffer.flip();
+
+        File parent = file.getParentFile();
+        if((parent != null) && !parent.exists()){
+            parent.mkdirs();
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while(buffer.hasRemaining()){
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Memory maps the file and reads it back into a Trajectory.
+     *
+     * @return null if the file is missing, not ours, or was made from a different version of the path
+     */
+    public static Trajectory read(File file, long expectedHash) throws IOException {
+        if(!file.isFile()){
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if(size < kHeaderBytes){
+                return null;
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if((buffer.getInt() != kMagic) || (buffer.getInt() != kFormatVersion) || (buffer.getLong() != expectedHash)){
+                return null;
+            }
+
+            int count = buffer.getInt();
+            if((count <= 0) || (size != kHeaderBytes + ((long) count * kStateBytes))){
+                return null;
+            }
+
+            List<Trajectory.State> states = new ArrayList<>(count);
+            for(int i = 0; i < count; i++){
+                double time = buffer.getDouble();
+                double velocity = buffer.getDouble();
+                double acceleration = buffer.getDouble();
+                double x = buffer.getDouble();
+                double y = buffer.getDouble();
+                double heading = buffer.getDouble();
+                double curvature = buffer.getDouble();
+                states.add(new Trajectory.State(time, velocity, acceleration, new Pose2d(x, y, new Rotation2d(heading)), curvature));
+            }
+            return new Trajectory(states);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package frc.robot.util;
+
+/**
+ * The same math as WPILib's TrapezoidProfile, but it moves one setpoint along in place instead of making a new
+ * TrapezoidProfile and State objects every loop (which is what ProfiledPIDController.calculate() does).
+ *
+ * <p>Used like ProfiledPIDController's profile: {@link #reset} to where the mechanism is, {@link #setGoal} whenever,
+ * and {@link #step} once a loop. The goal velocity is always 0 (we only ever move to a spot and hold it).
+ */
+public final class TrapezoidStepper {
+    private final double m_maxVelocity;
+    private final double m_maxAcceleration;
+
+    private double m_position = 0;
+    private double m_velocity = 0;
+    private double m_goal = 0;
+
+    public TrapezoidStepper(double maxVelocity, double maxAcceleration){
+        m_maxVelocity = maxVelocity;
+        m_maxAcceleration = maxAcceleration;
+    }
+
+    //Starts the profile from here (not moving)
+    public void reset(double position){
+        m_position = position;
+        m_velocity = 0;
+    }
+
+    public void setGoal(double goal){
+        m_goal = goal;
+    }
+
+    public double getGoal(){
+        return m_goal;
+    }
+
+    public double getPosition(){
+        return m_position;
+    }
+
+    public double getVelocity(){
+        return m_velocity;
+    }
+
+    //True once the setpoint has reached the goal and stopped
+    public boolean isFinished(){
+        return (m_position == m_goal) && (m_velocity == 0);
+    }
+
+    //Moves the setpoint dt seconds along the profile from where it is now towards the goal
+    public void step(double dt){
+        //Everything below works going forwards, so flip backwards moves around and flip the answer back
+        double direction = (m_position > m_goal) ? -1 : 1;
+        double initialPosition = m_position * direction;
+        double initialVelocity = Math.min(m_velocity * direction, m_maxVelocity);
+        double goalPosition = m_goal * direction;
+
+        //Where a trapezoid starting and ending at 0 speed would've had to start for us to be at this speed already
+        double cutoffBegin = initialVelocity / m_maxAcceleration;
+        double cutoffDistBegin = cutoffBegin * cutoffBegin * m_maxAcceleration / 2.0;
+
+        double fullTrapezoidDist = cutoffDistBegin + (goalPosition - initialPosition);
+        double accelerationTime = m_maxVelocity / m_maxAcceleration;
+
+        double fullSpeedDist = fullTrapezoidDist - accelerationTime * accelerationTime * m_maxAcceleration;
+
+        //Too short to reach full speed, so it's a triangle
+        if(fullSpeedDist < 0){
+            accelerationTime = Math.sqrt(fullTrapezoidDist / m_maxAcceleration);
+            fullSpeedDist = 0;
+        }
+
+        double endAccel = accelerationTime - cutoffBegin;
+        double endFullSpeed = endAccel + fullSpeedDist / m_maxVelocity;
+        double endDeccel = endFullSpeed + accelerationTime;
+
+        double position = initialPosition;
+        double velocity = initialVelocity;
+        if(dt < endAccel){
+            velocity += dt * m_maxAcceleration;
+            position += (initialVelocity + dt * m_maxAcceleration / 2.0) * dt;
+        }
+        else if(dt < endFullSpeed){
+            velocity = m_maxVelocity;
+            position += (initialVelocity + endAccel * m_maxAcceleration / 2.0) * endAccel + m_maxVelocity * (dt - endAccel);
+        }
+        else if(dt <= endDeccel){
+            double timeLeft = endDeccel - dt;
+            velocity = timeLeft * m_maxAcceleration;
+            position = goalPosition - (timeLeft * m_maxAcceleration / 2.0) * timeLeft;
+        }
+        else{
+            position = goalPosition;
+            velocity = 0;
+        }
+
+        m_position = position * direction;
+        m_velocity = velocity * direction;
+    }
+}
@@ -0,0 +1,43 @@
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import frc.robot.sim.BalanceSimulation;
+import frc.robot.sim.ChargeStationModel;
+
+/**
+ * Runs the balance controller on the charge station model from the same starting spots as
+ * {@code ./gradlew simulateBalance}, so a change to BalanceConstants that stops it from balancing fails the build.
+ */
+class BalanceControllerTest {
+    //Every start currently balances in 1.4 to 2.1s, this leaves room for tuning without letting it get sloppy
+    private static final double kMaxSecondsToBalance = 3;
+
+    //Starting spot (meters) and speed (m/s) onto the station, the same sweep BalanceSimulation.main() prints
+    static List<Arguments> startingConditions(){
+        List<Arguments> conditions = new ArrayList<>();
+        for(double position = -0.9; position <= -0.39; position += 0.25){
+            for(double speed = 0; speed <= 0.81; speed += 0.4){
+                conditions.add(Arguments.of(position, speed));
+            }
+        }
+        return conditions;
+    }
+
+    @ParameterizedTest(name = "start {0}m at {1}m/s")
+    @MethodSource("startingConditions")
+    void balancesInTime(double position, double speed){
+        double seconds = BalanceSimulation.timeToBalance(new ChargeStationModel(position, speed), BalanceSimulation.stateSpace());
+
+        assertFalse(Double.isNaN(seconds), "never balanced");
+        assertTrue(seconds <= kMaxSecondsToBalance, "took " + seconds + "s to balance");
+    }
+}